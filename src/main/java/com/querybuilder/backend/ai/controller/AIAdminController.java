@@ -0,0 +1,54 @@
+package com.querybuilder.backend.ai.controller;
+
+import com.querybuilder.backend.ai.dto.AIUsageMetricsResponse;
+import com.querybuilder.backend.ai.dto.ModelSchedulerStatusResponse;
+import com.querybuilder.backend.ai.service.AIUsageMetrics;
+import com.querybuilder.backend.ai.service.ModelRequestScheduler;
+import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.shared.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin REST Controller for model usage metrics and request scheduling
+ */
+@RestController
+@RequestMapping("/api/admin/ai")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+@Slf4j
+public class AIAdminController {
+
+    private final AIUsageMetrics usageMetrics;
+    private final ModelRequestScheduler modelScheduler;
+
+    /**
+     * Token counts, throughput and prompt-size histograms since startup
+     * GET /api/admin/ai/metrics
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<ApiResponse<AIUsageMetricsResponse>> getMetrics(
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("GET /api/admin/ai/metrics - User: {}", user.getEmail());
+        return ResponseEntity.ok(ApiResponse.success("AI usage metrics retrieved", usageMetrics.snapshot()));
+    }
+
+    /**
+     * Running and queued model requests, rejections and circuit breaker state
+     * GET /api/admin/ai/scheduler
+     */
+    @GetMapping("/scheduler")
+    public ResponseEntity<ApiResponse<ModelSchedulerStatusResponse>> getSchedulerStatus(
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("GET /api/admin/ai/scheduler - User: {}", user.getEmail());
+        return ResponseEntity.ok(ApiResponse.success("AI scheduler status retrieved", modelScheduler.getStatus()));
+    }
+}
@@ -7,9 +7,11 @@ import com.querybuilder.backend.shared.dto.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 
@@ -46,6 +48,19 @@ public class AIController {
         );
     }
 
+    /**
+     * Convert natural language to SQL, streamed as server-sent events
+     * POST /api/ai/nl-to-sql (Accept: text/event-stream)
+     */
+    @PostMapping(value = "/nl-to-sql", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNaturalLanguageToSQL(
+            @Valid @RequestBody NaturalLanguageRequest request,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("POST /api/ai/nl-to-sql (stream) - User: {}", user.getEmail());
+        return aiService.streamNaturalLanguageToSQL(request.getPrompt(), request.getDataSourceId(), user);
+    }
+
     /**
      * Optimize SQL query
      * POST /api/ai/optimize
@@ -60,6 +75,8 @@ public class AIController {
         OptimizationSuggestion suggestion = aiService.optimizeQuery(
                 request.getSqlQuery(),
                 request.getDataSourceId(),
+                request.isDeepAnalysis(),
+                request.isVerifyByExecution(),
                 user
         );
 
@@ -68,6 +85,20 @@ public class AIController {
         );
     }
 
+    /**
+     * Optimize SQL query, streamed as server-sent events
+     * POST /api/ai/optimize (Accept: text/event-stream)
+     */
+    @PostMapping(value = "/optimize", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOptimizeQuery(
+            @Valid @RequestBody OptimizeQueryRequest request,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("POST /api/ai/optimize (stream) - User: {}", user.getEmail());
+        return aiService.streamOptimizeQuery(request.getSqlQuery(), request.getDataSourceId(),
+                request.isDeepAnalysis(), request.isVerifyByExecution(), user);
+    }
+
     /**
      * Explain SQL query
      * POST /api/ai/explain
@@ -86,6 +117,19 @@ public class AIController {
         );
     }
 
+    /**
+     * Explain SQL query, streamed as server-sent events
+     * POST /api/ai/explain (Accept: text/event-stream)
+     */
+    @PostMapping(value = "/explain", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamExplainQuery(
+            @Valid @RequestBody ExplainQueryRequest request,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("POST /api/ai/explain (stream) - User: {}", user.getEmail());
+        return aiService.streamExplainQuery(request.getSqlQuery(), user);
+    }
+
     /**
      * Get AI usage statistics
      * GET /api/ai/stats
@@ -0,0 +1,52 @@
+package com.querybuilder.backend.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model usage since startup per interaction type: token totals, throughput and histograms
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIUsageMetricsResponse {
+
+    private Map<String, TypeUsage> interactions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TypeUsage {
+        private long requests;
+        private long estimatedRequests;         // token counts estimated in-process
+        private long promptTokens;
+        private long completionTokens;
+        private double averagePromptTokens;
+        private double averageCompletionTokens;
+        private long totalResponseTimeMs;
+        private long promptEvalMs;              // model-reported prompt processing time
+        private long generationMs;              // model-reported generation time
+        private Double promptTokensPerSecond;   // null until the model reports timings
+        private double completionTokensPerSecond;
+        private List<Bucket> promptTokensHistogram;
+        private List<Bucket> completionTokensPerSecondHistogram;
+    }
+
+    /**
+     * Count of requests up to the bound; the last bucket has no bound
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Bucket {
+        private Integer upperBound;
+        private long count;
+    }
+}
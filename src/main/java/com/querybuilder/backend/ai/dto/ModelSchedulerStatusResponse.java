@@ -0,0 +1,29 @@
+package com.querybuilder.backend.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model request scheduler state: slots, queue, outcomes since startup and circuit breaker
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelSchedulerStatusResponse {
+
+    private int maxConcurrent;
+    private int running;
+    private int queued;
+    private int queueCapacity;
+    private long completed;
+    private long failed;
+    private long rejectedQueueFull;
+    private long rejectedQueueTimeout;
+    private long rejectedCircuitOpen;
+    private int consecutiveFailures;    // failed or slow calls in a row
+    private boolean circuitOpen;
+    private long circuitOpenForMs;
+}
@@ -17,6 +17,7 @@ public class OptimizationSuggestion {
     private List<Suggestion> suggestions;
     private String explanation;
     private Long responseTimeMs;
+    private Verification verification;  // null when no rewrite was checked
 
     @Data
     @Builder
@@ -29,4 +30,25 @@ public class OptimizationSuggestion {
         private String recommendation;
         private String estimatedImprovement;
     }
+
+    /**
+     * Measured comparison of the optimized query against the original on the data source
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Verification {
+        private String verdict;  // FASTER, NO_GAIN, SLOWER, RESULTS_DIFFER, INVALID, NOT_VERIFIED
+        private String message;
+        private String warning;  // set when the rewrite should not be adopted
+        private Double originalCost;  // planner cost estimate, null when unavailable
+        private Double optimizedCost;
+        private boolean executed;
+        private Long originalTimeMs;
+        private Long optimizedTimeMs;
+        private Double speedup;  // original / optimized, measured when executed, else from plan cost
+        private Boolean resultsMatch;  // null when not executed or a result hit the row limit
+        private Long verificationTimeMs;
+    }
 }
\ No newline at end of file
@@ -18,4 +18,11 @@ public class OptimizeQueryRequest {
 
     @NotNull(message = "Data source ID is required")
     private UUID dataSourceId;
+
+    // Ask the AI model too; otherwise only the instant static analysis runs
+    private boolean deepAnalysis;
+
+    // Also run the original and the rewritten query (timeout and row limit apply) to compare
+    // latency and results; otherwise only their plans are compared
+    private boolean verifyByExecution;
 }
\ No newline at end of file
@@ -48,6 +48,12 @@ public class AIInteraction extends BaseEntity {
     @Column(name = "tokens_used")
     private Integer tokensUsed;
 
+    @Column(name = "prompt_tokens")
+    private Integer promptTokens;
+
+    @Column(name = "completion_tokens")
+    private Integer completionTokens;
+
     @Column(name = "response_time_ms")
     private Integer responseTimeMs;
 }
\ No newline at end of file
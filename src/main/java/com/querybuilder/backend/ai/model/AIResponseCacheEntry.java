@@ -0,0 +1,34 @@
+package com.querybuilder.backend.ai.model;
+
+import com.querybuilder.backend.shared.model.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored model response for a normalized request; the key already encodes user, data source
+ * or schema version where the response depends on them
+ */
+@Entity
+@Table(name = "ai_response_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AIResponseCacheEntry extends BaseEntity {
+
+    @Column(name = "cache_key", nullable = false, unique = true, length = 100)
+    private String cacheKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "interaction_type", nullable = false)
+    private InteractionType interactionType;
+
+    @Column(name = "response_text", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String responseText;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
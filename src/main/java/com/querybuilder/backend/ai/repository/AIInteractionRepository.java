@@ -3,11 +3,13 @@ package com.querybuilder.backend.ai.repository;
 import com.querybuilder.backend.ai.model.AIInteraction;
 import com.querybuilder.backend.ai.model.InteractionType;
 import com.querybuilder.backend.auth.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,6 +32,12 @@ public interface AIInteractionRepository extends JpaRepository<AIInteraction, UU
     List<AIInteraction> findByUserAndCreatedAtBetween(
             User user, LocalDateTime start, LocalDateTime end);
 
+    /**
+     * Recent interactions of the given types, newest first (seeds the response cache)
+     */
+    List<AIInteraction> findByInteractionTypeInAndCreatedAtAfterOrderByCreatedAtDesc(
+            Collection<InteractionType> types, LocalDateTime after, Pageable pageable);
+
     /**
      * Get total tokens used by user
      */
@@ -0,0 +1,24 @@
+package com.querybuilder.backend.ai.repository;
+
+import com.querybuilder.backend.ai.model.AIResponseCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AIResponseCacheRepository extends JpaRepository<AIResponseCacheEntry, UUID> {
+
+    Optional<AIResponseCacheEntry> findByCacheKey(String cacheKey);
+
+    /**
+     * Delete all expired responses
+     */
+    @Modifying
+    @Query("DELETE FROM AIResponseCacheEntry e WHERE e.expiresAt < :now")
+    int deleteAllExpired(LocalDateTime now);
+}
@@ -0,0 +1,225 @@
+package com.querybuilder.backend.ai.service;
+
+import com.querybuilder.backend.ai.model.AIInteraction;
+import com.querybuilder.backend.ai.model.AIResponseCacheEntry;
+import com.querybuilder.backend.ai.model.InteractionType;
+import com.querybuilder.backend.ai.repository.AIInteractionRepository;
+import com.querybuilder.backend.ai.repository.AIResponseCacheRepository;
+import com.querybuilder.backend.shared.util.SqlFingerprintGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of model responses so repeated requests skip inference. SQL keys carry the fingerprint
+ * and a hash of the exact normalized text, so queries that differ only in literals or case never
+ * share an answer. Explanations are keyed per user, optimizations per data source and schema
+ * version, and NL-to-SQL by data source, schema version and normalized prompt, so a schema change
+ * misses naturally. Entries live in a size-bounded LRU in front of the ai_response_cache table
+ * and expire after the TTL. An empty table is seeded from recent explanations at startup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AIResponseCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s?.!;]+$");
+
+    private final AIResponseCacheRepository cacheRepository;
+    private final AIInteractionRepository aiInteractionRepository;
+    private final SqlFingerprintGenerator fingerprintGenerator;
+
+    @Value("${app.ai.cache.ttl-hours}")
+    private int ttlHours;
+
+    @Value("${app.ai.cache.max-entries}")
+    private int maxEntries;
+
+    // Access order, so the least recently used responses are dropped first
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public String explanationKey(UUID userId, String sql) {
+        return InteractionType.EXPLANATION + ":" + digest(userId + "\n" + sqlKey(sql));
+    }
+
+    public String optimizationKey(UUID dataSourceId, long schemaVersion, String sql) {
+        return InteractionType.OPTIMIZATION + ":" + digest(dataSourceId + "\n" + schemaVersion + "\n" + sqlKey(sql));
+    }
+
+    public String nlToSqlKey(UUID dataSourceId, long schemaVersion, String prompt) {
+        String normalized = TRAILING_PUNCTUATION.matcher(
+                WHITESPACE.matcher(prompt.trim()).replaceAll(" ")).replaceAll("").toLowerCase(Locale.ROOT);
+        return InteractionType.NL_TO_SQL + ":" + digest(dataSourceId + "\n" + schemaVersion + "\n" + normalized);
+    }
+
+    /**
+     * Cached response for the key, from memory or the table; counts towards the hit rate
+     */
+    public Optional<String> get(String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry == null) {
+            try {
+                entry = cacheRepository.findByCacheKey(key)
+                        .map(row -> new Entry(row.getResponseText(), row.getExpiresAt()))
+                        .orElse(null);
+            } catch (DataAccessException e) {
+                log.warn("AI response cache not readable - {}", e.getMessage());
+            }
+            if (entry != null) {
+                remember(key, entry);
+            }
+        }
+
+        if (entry == null || entry.getExpiresAt().isBefore(LocalDateTime.now())) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(entry.getResponse());
+    }
+
+    /**
+     * Store a fresh model response; a failed write only costs a future cache miss
+     */
+    public void put(String key, InteractionType type, String response) {
+        if (response == null || response.isBlank()) {
+            return;
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(ttlHours);
+        remember(key, new Entry(response, expiresAt));
+
+        try {
+            AIResponseCacheEntry row = cacheRepository.findByCacheKey(key)
+                    .orElseGet(() -> AIResponseCacheEntry.builder().cacheKey(key).build());
+            row.setInteractionType(type);
+            row.setResponseText(response);
+            row.setExpiresAt(expiresAt);
+            cacheRepository.save(row);
+        } catch (DataAccessException e) {
+            log.warn("Failed to store AI response in cache - {}", e.getMessage());
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Share of lookups since startup answered from the cache
+     */
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    /**
+     * Remove expired responses
+     */
+    @Scheduled(fixedDelayString = "${app.ai.cache.cleanup-interval-ms}")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.getExpiresAt().isBefore(now));
+        }
+
+        int deleted = cacheRepository.deleteAllExpired(now);
+        if (deleted > 0) {
+            log.info("Purged {} expired AI responses", deleted);
+        }
+    }
+
+    /**
+     * Explanations answered before the cache existed (or was emptied) are still valid within the
+     * TTL. Optimization and NL-to-SQL history is skipped: its schema version is not recorded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedFromHistory() {
+        if (cacheRepository.count() > 0) {
+            return;
+        }
+
+        List<AIInteraction> history = aiInteractionRepository
+                .findByInteractionTypeInAndCreatedAtAfterOrderByCreatedAtDesc(
+                        List.of(InteractionType.EXPLANATION),
+                        LocalDateTime.now().minusHours(ttlHours), PageRequest.of(0, maxEntries));
+
+        // Newest first, so the latest answer to a repeated question wins
+        Map<String, AIResponseCacheEntry> seeded = new LinkedHashMap<>();
+        for (AIInteraction interaction : history) {
+            String key = explanationKey(interaction.getUser().getId(), interaction.getInputText());
+            seeded.putIfAbsent(key, AIResponseCacheEntry.builder()
+                    .cacheKey(key)
+                    .interactionType(interaction.getInteractionType())
+                    .responseText(interaction.getOutputText())
+                    .expiresAt(interaction.getCreatedAt().plusHours(ttlHours))
+                    .build());
+        }
+
+        cacheRepository.saveAll(seeded.values());
+        log.info("AI response cache seeded with {} responses from {} interactions", seeded.size(), history.size());
+    }
+
+    private void remember(String key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+
+            Iterator<String> eldest = entries.keySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private String sqlKey(String sql) {
+        return fingerprintGenerator.fingerprint(sql) + "\n" + digest(fingerprintGenerator.normalize(sql));
+    }
+
+    private static String digest(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Entry {
+
+        private final String response;
+        private final LocalDateTime expiresAt;
+    }
+}
@@ -6,161 +6,237 @@ import com.querybuilder.backend.ai.dto.OptimizationSuggestion;
 import com.querybuilder.backend.ai.model.AIInteraction;
 import com.querybuilder.backend.ai.model.InteractionType;
 import com.querybuilder.backend.ai.repository.AIInteractionRepository;
+import com.querybuilder.backend.ai.service.SchemaRelevanceIndex.SchemaContext;
 import com.querybuilder.backend.auth.model.User;
 import com.querybuilder.backend.datasource.model.DataSource;
 import com.querybuilder.backend.datasource.repository.DataSourceRepository;
 import com.querybuilder.backend.datasource.service.SchemaDiscoveryService;
+import com.querybuilder.backend.datasource.service.SchemaMemoryCache.CachedSchema;
 import com.querybuilder.backend.shared.exception.ResourceNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 
 /**
- * Service for AI-powered features using Spring AI + Ollama
+ * Service for AI-powered features using Spring AI + Ollama.
+ * Model calls run outside any transaction so a slow response never holds an app-DB
+ * connection; lookups and the interaction write each use their own short transaction.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AIService {
 
-    private final ChatClient.Builder chatClientBuilder;
+    private static final String OPTIMIZE_USER_PREFIX = "Analyze and optimize this SQL query:\n\n";
+    private static final String EXPLAIN_USER_PREFIX = "Explain this SQL query:\n\n";
+    private static final String EXPLAIN_SYSTEM_PROMPT = """
+            You are a SQL expert. Explain the given SQL query in simple, plain English.
+            Break down the query step by step, explaining what each part does.
+            Make it understandable for someone who doesn't know SQL well.
+            """;
+
+    private final ModelRequestScheduler modelScheduler;
     private final AIInteractionRepository aiInteractionRepository;
     private final DataSourceRepository dataSourceRepository;
     private final SchemaDiscoveryService schemaDiscoveryService;
     private final ObjectMapper objectMapper;
+    private final AIResponseCache responseCache;
+    private final SchemaContextService schemaContextService;
+    private final SqlStaticAnalyzer staticAnalyzer;
+    private final OptimizationVerifier optimizationVerifier;
+    private final TokenCounter tokenCounter;
+    private final AIUsageMetrics usageMetrics;
+
+    @Value("${app.ai.prompt.max-tokens}")
+    private int promptMaxTokens;
 
     /**
      * Convert natural language to SQL
      */
-    @Transactional
     public AIResponse naturalLanguageToSQL(String prompt, UUID dataSourceId, User user) {
         log.info("Converting NL to SQL for user: {}", user.getEmail());
 
         long startTime = System.currentTimeMillis();
 
-        // Get data source and schema
-        DataSource dataSource = dataSourceRepository
-                .findByIdAndUserAndDeletedFalse(dataSourceId, user)
-                .orElseThrow(() -> new ResourceNotFoundException("DataSource", "id", dataSourceId));
+        // Get data source and schema; the schema version scopes the cached answer
+        DataSource dataSource = findDataSource(dataSourceId, user);
+        CachedSchema schema = schemaDiscoveryService.getCachedSchema(dataSource);
+        String cacheKey = responseCache.nlToSqlKey(dataSource.getId(), schema.getVersion(), prompt);
 
-        Map<String, Object> schema = schemaDiscoveryService.getSchema(dataSource);
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.info("NL to SQL answered from cache");
+            return toNLToSQLResponse(cached.get(), null, System.currentTimeMillis() - startTime);
+        }
 
         // Build prompt with schema context
-        String systemPrompt = buildNLToSQLPrompt(schema, dataSource.getDatabaseType().name());
+        String systemPrompt = buildNLToSQLPrompt(dataSource, schema, prompt);
 
         // Call AI
-        ChatClient chatClient = chatClientBuilder.build();
-        String sqlQuery = chatClient.prompt()
-                .system(systemPrompt)
-                .user(prompt)
-                .call()
-                .content();
+        ModelResult result = call(InteractionType.NL_TO_SQL, systemPrompt, prompt);
 
-        long responseTime = System.currentTimeMillis() - startTime;
+        return completeNLToSQL(prompt, result, System.currentTimeMillis() - startTime, cacheKey, dataSource, user);
+    }
 
-        // Clean SQL (remove markdown formatting if present)
-        sqlQuery = cleanSQLResponse(sqlQuery);
+    /**
+     * Convert natural language to SQL, streaming tokens as they are generated
+     */
+    public SseEmitter streamNaturalLanguageToSQL(String prompt, UUID dataSourceId, User user) {
+        log.info("Streaming NL to SQL for user: {}", user.getEmail());
 
-        // Save interaction
-        saveInteraction(user, dataSource, InteractionType.NL_TO_SQL,
-                prompt, sqlQuery, responseTime);
+        long startTime = System.currentTimeMillis();
 
-        log.info("NL to SQL conversion completed in {}ms", responseTime);
+        DataSource dataSource = findDataSource(dataSourceId, user);
+        CachedSchema schema = schemaDiscoveryService.getCachedSchema(dataSource);
+        String cacheKey = responseCache.nlToSqlKey(dataSource.getId(), schema.getVersion(), prompt);
 
-        return AIResponse.builder()
-                .result(sqlQuery)
-                .explanation("SQL query generated from natural language")
-                .responseTimeMs(responseTime)
-                .build();
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return streamCached(cached.get(), toNLToSQLResponse(cached.get(), null, System.currentTimeMillis() - startTime));
+        }
+
+        String systemPrompt = buildNLToSQLPrompt(dataSource, schema, prompt);
+
+        return stream(InteractionType.NL_TO_SQL, systemPrompt, prompt, startTime, (result, responseTime) ->
+                completeNLToSQL(prompt, result, responseTime, cacheKey, dataSource, user));
     }
 
     /**
-     * Optimize SQL query
+     * Optimize SQL query. Static analysis answers right away; the model is only asked
+     * for deep analysis, and its suggestions follow the static findings. A rewritten query
+     * from the model is checked against the original on the data source before it is returned.
      */
-    @Transactional
-    public OptimizationSuggestion optimizeQuery(String sqlQuery, UUID dataSourceId, User user) {
-        log.info("Optimizing query for user: {}", user.getEmail());
+    public OptimizationSuggestion optimizeQuery(String sqlQuery, UUID dataSourceId, boolean deepAnalysis,
+                                                boolean verifyByExecution, User user) {
+        log.info("Optimizing query for user: {} - Deep: {}", user.getEmail(), deepAnalysis);
 
         long startTime = System.currentTimeMillis();
 
-        DataSource dataSource = dataSourceRepository
-                .findByIdAndUserAndDeletedFalse(dataSourceId, user)
-                .orElseThrow(() -> new ResourceNotFoundException("DataSource", "id", dataSourceId));
+        DataSource dataSource = findDataSource(dataSourceId, user);
+        CachedSchema cachedSchema = schemaDiscoveryService.getCachedSchema(dataSource);
+        Map<String, Object> schema = cachedSchema.getSchema();
+        SqlStaticAnalyzer.Analysis analysis = analyzeStatically(sqlQuery, schema);
+        if (!deepAnalysis) {
+            return toStaticOptimization(analysis, System.currentTimeMillis() - startTime);
+        }
 
-        Map<String, Object> schema = schemaDiscoveryService.getSchema(dataSource);
+        String cacheKey = responseCache.optimizationKey(dataSource.getId(), cachedSchema.getVersion(), sqlQuery);
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.info("Query optimization answered from cache");
+            return verified(withStaticFindings(toOptimization(cached.get(), System.currentTimeMillis() - startTime),
+                    analysis), sqlQuery, dataSource, verifyByExecution, user);
+        }
 
         String systemPrompt = buildOptimizationPrompt(schema, dataSource.getDatabaseType().name());
 
-        ChatClient chatClient = chatClientBuilder.build();
-        String response = chatClient.prompt()
-                .system(systemPrompt)
-                .user("Analyze and optimize this SQL query:\n\n" + sqlQuery)
-                .call()
-                .content();
+        ModelResult result = call(InteractionType.OPTIMIZATION, systemPrompt, OPTIMIZE_USER_PREFIX + sqlQuery);
 
-        long responseTime = System.currentTimeMillis() - startTime;
+        return verified(withStaticFindings(completeOptimization(sqlQuery, result, System.currentTimeMillis() - startTime,
+                cacheKey, dataSource, user), analysis), sqlQuery, dataSource, verifyByExecution, user);
+    }
 
-        // Parse AI response into structured suggestions
-        OptimizationSuggestion suggestion = parseOptimizationResponse(response);
-        suggestion.setResponseTimeMs(responseTime);
+    /**
+     * Optimize SQL query, streaming tokens as they are generated. Without deep analysis the
+     * static findings are sent as the only ("done") event; otherwise the rewrite is verified
+     * before the "done" event.
+     */
+    public SseEmitter streamOptimizeQuery(String sqlQuery, UUID dataSourceId, boolean deepAnalysis,
+                                          boolean verifyByExecution, User user) {
+        log.info("Streaming query optimization for user: {} - Deep: {}", user.getEmail(), deepAnalysis);
 
-        // Save interaction
-        saveInteraction(user, dataSource, InteractionType.OPTIMIZATION,
-                sqlQuery, response, responseTime);
+        long startTime = System.currentTimeMillis();
 
-        log.info("Query optimization completed in {}ms", responseTime);
+        DataSource dataSource = findDataSource(dataSourceId, user);
+        CachedSchema cachedSchema = schemaDiscoveryService.getCachedSchema(dataSource);
+        Map<String, Object> schema = cachedSchema.getSchema();
+        SqlStaticAnalyzer.Analysis analysis = analyzeStatically(sqlQuery, schema);
+        if (!deepAnalysis) {
+            return streamCached(null, toStaticOptimization(analysis, System.currentTimeMillis() - startTime));
+        }
 
-        return suggestion;
+        String cacheKey = responseCache.optimizationKey(dataSource.getId(), cachedSchema.getVersion(), sqlQuery);
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return streamCached(cached.get(), verified(withStaticFindings(
+                    toOptimization(cached.get(), System.currentTimeMillis() - startTime), analysis),
+                    sqlQuery, dataSource, verifyByExecution, user));
+        }
+
+        String systemPrompt = buildOptimizationPrompt(schema, dataSource.getDatabaseType().name());
+
+        return stream(InteractionType.OPTIMIZATION, systemPrompt, OPTIMIZE_USER_PREFIX + sqlQuery, startTime,
+                (result, responseTime) -> verified(withStaticFindings(
+                        completeOptimization(sqlQuery, result, responseTime, cacheKey, dataSource, user), analysis),
+                        sqlQuery, dataSource, verifyByExecution, user));
     }
 
     /**
      * Explain SQL query in plain English
      */
-    @Transactional
     public AIResponse explainQuery(String sqlQuery, User user) {
         log.info("Explaining query for user: {}", user.getEmail());
 
         long startTime = System.currentTimeMillis();
 
-        String systemPrompt = """
-            You are a SQL expert. Explain the given SQL query in simple, plain English.
-            Break down the query step by step, explaining what each part does.
-            Make it understandable for someone who doesn't know SQL well.
-            """;
+        String cacheKey = responseCache.explanationKey(user.getId(), sqlQuery);
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.info("Query explanation answered from cache");
+            return toExplanation(cached.get(), null, System.currentTimeMillis() - startTime);
+        }
 
-        ChatClient chatClient = chatClientBuilder.build();
-        String explanation = chatClient.prompt()
-                .system(systemPrompt)
-                .user("Explain this SQL query:\n\n" + sqlQuery)
-                .call()
-                .content();
+        ModelResult result = call(InteractionType.EXPLANATION, EXPLAIN_SYSTEM_PROMPT, EXPLAIN_USER_PREFIX + sqlQuery);
 
-        long responseTime = System.currentTimeMillis() - startTime;
+        return completeExplanation(sqlQuery, result, System.currentTimeMillis() - startTime, cacheKey, user);
+    }
 
-        // Save interaction
-        saveInteraction(user, null, InteractionType.EXPLANATION,
-                sqlQuery, explanation, responseTime);
+    /**
+     * Explain SQL query in plain English, streaming tokens as they are generated
+     */
+    public SseEmitter streamExplainQuery(String sqlQuery, User user) {
+        log.info("Streaming query explanation for user: {}", user.getEmail());
 
-        log.info("Query explanation completed in {}ms", responseTime);
+        long startTime = System.currentTimeMillis();
 
-        return AIResponse.builder()
-                .result(explanation)
-                .responseTimeMs(responseTime)
-                .build();
+        String cacheKey = responseCache.explanationKey(user.getId(), sqlQuery);
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return streamCached(cached.get(), toExplanation(cached.get(), null, System.currentTimeMillis() - startTime));
+        }
+
+        return stream(InteractionType.EXPLANATION, EXPLAIN_SYSTEM_PROMPT, EXPLAIN_USER_PREFIX + sqlQuery, startTime,
+                (result, responseTime) -> completeExplanation(sqlQuery, result, responseTime, cacheKey, user));
     }
 
     /**
-     * Get AI usage statistics for user
+     * Get AI usage statistics for user, with the response cache hit rate since startup
      */
     @Transactional(readOnly = true)
     public Map<String, Object> getUserAIStats(User user) {
@@ -177,39 +253,273 @@ public class AIService {
                 "nlToSqlCount", nlToSqlCount,
                 "optimizationCount", optimizationCount,
                 "explanationCount", explanationCount,
-                "totalTokensUsed", totalTokens != null ? totalTokens : 0
+                "totalTokensUsed", totalTokens != null ? totalTokens : 0,
+                "cacheHits", responseCache.getHits(),
+                "cacheMisses", responseCache.getMisses(),
+                "cacheHitRate", responseCache.getHitRate()
         );
     }
 
+    private DataSource findDataSource(UUID dataSourceId, User user) {
+        return dataSourceRepository
+                .findByIdAndUserAndDeletedFalse(dataSourceId, user)
+                .orElseThrow(() -> new ResourceNotFoundException("DataSource", "id", dataSourceId));
+    }
+
+    private AIResponse completeNLToSQL(String prompt, ModelResult result, long responseTime, String cacheKey,
+                                       DataSource dataSource, User user) {
+        // Clean SQL (remove markdown formatting if present)
+        String sqlQuery = cleanSQLResponse(result.getText());
+
+        responseCache.put(cacheKey, InteractionType.NL_TO_SQL, sqlQuery);
+        recordInteraction(user, dataSource, InteractionType.NL_TO_SQL, prompt, sqlQuery, result.getUsage(), responseTime);
+        log.info("NL to SQL conversion completed in {}ms", responseTime);
+
+        return toNLToSQLResponse(sqlQuery, result.getUsage(), responseTime);
+    }
+
+    private OptimizationSuggestion completeOptimization(String sqlQuery, ModelResult result, long responseTime,
+                                                        String cacheKey, DataSource dataSource, User user) {
+        responseCache.put(cacheKey, InteractionType.OPTIMIZATION, result.getText());
+        recordInteraction(user, dataSource, InteractionType.OPTIMIZATION, sqlQuery, result.getText(),
+                result.getUsage(), responseTime);
+        log.info("Query optimization completed in {}ms", responseTime);
+
+        return toOptimization(result.getText(), responseTime);
+    }
+
+    private AIResponse completeExplanation(String sqlQuery, ModelResult result, long responseTime,
+                                           String cacheKey, User user) {
+        responseCache.put(cacheKey, InteractionType.EXPLANATION, result.getText());
+        recordInteraction(user, null, InteractionType.EXPLANATION, sqlQuery, result.getText(),
+                result.getUsage(), responseTime);
+        log.info("Query explanation completed in {}ms", responseTime);
+
+        return toExplanation(result.getText(), result.getUsage(), responseTime);
+    }
+
+    private AIResponse toNLToSQLResponse(String sqlQuery, TokenUsage usage, long responseTime) {
+        return AIResponse.builder()
+                .result(sqlQuery)
+                .explanation("SQL query generated from natural language")
+                .tokensUsed(usage == null ? null : usage.getTotalTokens())
+                .responseTimeMs(responseTime)
+                .build();
+    }
+
+    private SqlStaticAnalyzer.Analysis analyzeStatically(String sqlQuery, Map<String, Object> schema) {
+        long start = System.nanoTime();
+        SqlStaticAnalyzer.Analysis analysis = staticAnalyzer.analyze(sqlQuery, schema);
+        log.info("Static query analysis completed in {}ms - Parsed: {}, Findings: {}",
+                (System.nanoTime() - start) / 1_000_000, analysis.isParsed(), analysis.getFindings().size());
+        return analysis;
+    }
+
+    private OptimizationSuggestion toStaticOptimization(SqlStaticAnalyzer.Analysis analysis, long responseTime) {
+        String explanation;
+        if (!analysis.isParsed()) {
+            explanation = "The query could not be parsed for static analysis (" + analysis.getError()
+                    + "). Request deep analysis for a review by the AI model.";
+        } else if (analysis.getFindings().isEmpty()) {
+            explanation = "Static analysis found no common performance problems. "
+                    + "Request deep analysis for a review by the AI model.";
+        } else {
+            explanation = "Static analysis found " + analysis.getFindings().size() + " potential problem(s). "
+                    + "Request deep analysis for a review by the AI model.";
+        }
+
+        return OptimizationSuggestion.builder()
+                .suggestions(new ArrayList<>(analysis.getFindings()))
+                .explanation(explanation)
+                .responseTimeMs(responseTime)
+                .build();
+    }
+
     /**
-     * Build NL-to-SQL prompt with schema context
+     * Static findings first, then the model's suggestions
      */
-    private String buildNLToSQLPrompt(Map<String, Object> schema, String databaseType) {
-        StringBuilder prompt = new StringBuilder();
-        prompt.append("You are a SQL expert. Convert natural language queries to SQL.\n\n");
-        prompt.append("Database Type: ").append(databaseType).append("\n\n");
-        prompt.append("Available Tables and Columns:\n");
+    private OptimizationSuggestion withStaticFindings(OptimizationSuggestion suggestion,
+                                                      SqlStaticAnalyzer.Analysis analysis) {
+        List<OptimizationSuggestion.Suggestion> suggestions = new ArrayList<>(analysis.getFindings());
+        if (suggestion.getSuggestions() != null) {
+            suggestions.addAll(suggestion.getSuggestions());
+        }
+        suggestion.setSuggestions(suggestions);
+        return suggestion;
+    }
 
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> tables = (List<Map<String, Object>>) schema.get("tables");
+    /**
+     * Attaches the plan (and optionally measured) comparison of the rewrite with the original
+     */
+    private OptimizationSuggestion verified(OptimizationSuggestion suggestion, String sqlQuery,
+                                            DataSource dataSource, boolean execute, User user) {
+        suggestion.setVerification(optimizationVerifier.verify(dataSource, sqlQuery,
+                suggestion.getOptimizedQuery(), execute, user));
+        return suggestion;
+    }
 
-        if (tables != null) {
-            for (Map<String, Object> table : tables) {
-                String tableName = (String) table.get("name");
-                prompt.append("\nTable: ").append(tableName).append("\n");
+    private OptimizationSuggestion toOptimization(String response, long responseTime) {
+        // Parse AI response into structured suggestions
+        OptimizationSuggestion suggestion = parseOptimizationResponse(response);
+        suggestion.setResponseTimeMs(responseTime);
+        return suggestion;
+    }
 
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> columns =
-                        (List<Map<String, Object>>) table.get("columns");
+    private AIResponse toExplanation(String explanation, TokenUsage usage, long responseTime) {
+        return AIResponse.builder()
+                .result(explanation)
+                .tokensUsed(usage == null ? null : usage.getTotalTokens())
+                .responseTimeMs(responseTime)
+                .build();
+    }
 
-                if (columns != null) {
-                    for (Map<String, Object> column : columns) {
-                        prompt.append("  - ").append(column.get("name"))
-                                .append(" (").append(column.get("type")).append(")\n");
-                    }
-                }
+    /**
+     * Blocking model call with its token usage; waits for a slot in the model scheduler
+     */
+    private ModelResult call(InteractionType type, String systemPrompt, String userMessage) {
+        ChatResponse response = modelScheduler.call(type, systemPrompt, userMessage);
+
+        String text = textOf(response);
+        return new ModelResult(text == null ? "" : text, usageOf(response, systemPrompt, userMessage, text));
+    }
+
+    /**
+     * Token counts and timings reported by the model, or in-process estimates when it reports none
+     */
+    private TokenUsage usageOf(ChatResponse response, String systemPrompt, String userMessage, String text) {
+        ChatResponseMetadata metadata = response == null ? null : response.getMetadata();
+        Long promptEvalMs = metadata == null ? null : durationMs(metadata.get("prompt-eval-duration"));
+        Long generationMs = metadata == null ? null : durationMs(metadata.get("eval-duration"));
+
+        if (hasUsage(response)) {
+            Usage usage = metadata.getUsage();
+            int completionTokens = usage.getCompletionTokens() == null ? 0 : usage.getCompletionTokens();
+            return new TokenUsage(usage.getPromptTokens(), completionTokens, false, promptEvalMs, generationMs);
+        }
+        return new TokenUsage(tokenCounter.count(systemPrompt) + tokenCounter.count(userMessage),
+                tokenCounter.count(text), true, promptEvalMs, generationMs);
+    }
+
+    private static boolean hasUsage(ChatResponse response) {
+        if (response == null || response.getMetadata() == null || response.getMetadata().getUsage() == null) {
+            return false;
+        }
+        Integer promptTokens = response.getMetadata().getUsage().getPromptTokens();
+        return promptTokens != null && promptTokens > 0;
+    }
+
+    private static String textOf(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return null;
+        }
+        return response.getResult().getOutput().getText();
+    }
+
+    private static Long durationMs(Object value) {
+        return value instanceof Duration duration ? duration.toMillis() : null;
+    }
+
+    /**
+     * A cached answer is sent the same way as a streamed one, as a single token; a result
+     * without model text (static analysis) is sent as the "done" event alone
+     */
+    private SseEmitter streamCached(String text, Object result) {
+        SseEmitter emitter = new SseEmitter();
+        try {
+            if (text != null) {
+                sendEvent(emitter, "token", Map.of("text", text));
             }
+            sendEvent(emitter, "done", result);
+            emitter.complete();
+        } catch (UncheckedIOException e) {
+            log.debug("AI stream client already disconnected");
+        }
+        return emitter;
+    }
+
+    /**
+     * Forward model tokens as SSE "token" events ({"text": ...}, JSON so leading spaces survive).
+     * When the model finishes, the assembled text and the usage from the final chunk are completed
+     * like a blocking call and sent as one "done" event; failures end the stream with an "error"
+     * event. A client that goes away cancels the model request.
+     */
+    private SseEmitter stream(InteractionType type, String systemPrompt, String userMessage, long startTime,
+                              BiFunction<ModelResult, Long, Object> completion) {
+        SseEmitter emitter = new SseEmitter();
+        StringBuilder response = new StringBuilder();
+        AtomicReference<ChatResponse> lastChunk = new AtomicReference<>();
+
+        Disposable subscription = modelScheduler.stream(type, systemPrompt, userMessage)
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(chunk -> {
+                    // Usage and timings arrive on the final chunk
+                    if (hasUsage(chunk) || lastChunk.get() == null || !hasUsage(lastChunk.get())) {
+                        lastChunk.set(chunk);
+                    }
+                    String token = textOf(chunk);
+                    if (token == null || token.isEmpty()) {
+                        return;
+                    }
+                    if (response.isEmpty()) {
+                        log.info("First AI token after {}ms", System.currentTimeMillis() - startTime);
+                    }
+                    response.append(token);
+                    sendEvent(emitter, "token", Map.of("text", token));
+                }, error -> failStream(emitter, error), () -> {
+                    try {
+                        String text = response.toString();
+                        ModelResult modelResult = new ModelResult(text,
+                                usageOf(lastChunk.get(), systemPrompt, userMessage, text));
+                        Object result = completion.apply(modelResult, System.currentTimeMillis() - startTime);
+                        sendEvent(emitter, "done", result);
+                        emitter.complete();
+                    } catch (RuntimeException e) {
+                        failStream(emitter, e);
+                    }
+                });
+
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        return emitter;
+    }
+
+    private void failStream(SseEmitter emitter, Throwable error) {
+        log.warn("AI stream failed - {}", error.getMessage());
+        try {
+            sendEvent(emitter, "error", Map.of("message", "AI response failed"));
+            emitter.complete();
+        } catch (UncheckedIOException e) {
+            log.debug("AI stream client already disconnected");
         }
+    }
+
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Build NL-to-SQL prompt with the schema context of the relevant tables, truncated so
+     * the whole prompt stays within the per-request token budget
+     */
+    private String buildNLToSQLPrompt(DataSource dataSource, CachedSchema schema, String question) {
+        String databaseType = dataSource.getDatabaseType().name();
+        int fixedTokens = tokenCounter.count(buildNLToSQLPrompt("", databaseType)) + tokenCounter.count(question);
+        SchemaContext schemaContext = schemaContextService.buildContext(dataSource, schema, question,
+                Math.max(0, promptMaxTokens - fixedTokens));
+        return buildNLToSQLPrompt(schemaContext.getText(), databaseType);
+    }
+
+    private String buildNLToSQLPrompt(String schemaText, String databaseType) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You are a SQL expert. Convert natural language queries to SQL.\n\n");
+        prompt.append("Database Type: ").append(databaseType).append("\n\n");
+        prompt.append("Available Tables and Columns (\"->\" marks a foreign key):\n");
+        prompt.append(schemaText);
 
         prompt.append("\nRules:\n");
         prompt.append("1. Return ONLY the SQL query, no explanations\n");
@@ -326,19 +636,42 @@ public class AIService {
     }
 
     /**
-     * Save AI interaction to database
+     * Save AI interaction to database and count it in the usage metrics. A failed write is
+     * logged rather than thrown, the user has already waited for the model response.
      */
-    private void saveInteraction(User user, DataSource dataSource, InteractionType type,
-                                 String input, String output, long responseTime) {
+    private void recordInteraction(User user, DataSource dataSource, InteractionType type,
+                                   String input, String output, TokenUsage usage, long responseTime) {
+        usageMetrics.record(type, usage, responseTime);
+        log.info("AI tokens - Type: {}, Prompt: {}, Completion: {}{}", type, usage.getPromptTokens(),
+                usage.getCompletionTokens(), usage.isEstimated() ? " (estimated)" : "");
+
         AIInteraction interaction = AIInteraction.builder()
                 .user(user)
                 .dataSource(dataSource)
                 .interactionType(type)
                 .inputText(input)
                 .outputText(output)
+                .promptTokens(usage.getPromptTokens())
+                .completionTokens(usage.getCompletionTokens())
+                .tokensUsed(usage.getTotalTokens())
                 .responseTimeMs((int) responseTime)
                 .build();
 
-        aiInteractionRepository.save(interaction);
+        try {
+            aiInteractionRepository.save(interaction);
+        } catch (DataAccessException e) {
+            log.warn("Failed to save AI interaction for user: {} - {}", user.getEmail(), e.getMessage());
+        }
+    }
+
+    /**
+     * Text of one model response with its token usage
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class ModelResult {
+
+        private final String text;
+        private final TokenUsage usage;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package com.querybuilder.backend.ai.service;
+
+import com.querybuilder.backend.ai.dto.AIUsageMetricsResponse;
+import com.querybuilder.backend.ai.model.InteractionType;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * In-process counters of model calls since startup: tokens, time split between prompt
+ * processing and generation, and histograms of prompt size and generation speed
+ */
+@Component
+public class AIUsageMetrics {
+
+    private static final int[] PROMPT_TOKEN_BOUNDS = {256, 512, 1024, 2048, 4096, 8192, 16384};
+    private static final int[] TOKENS_PER_SECOND_BOUNDS = {1, 2, 5, 10, 20, 50, 100};
+
+    private final Map<InteractionType, TypeCounters> counters = new EnumMap<>(InteractionType.class);
+
+    /**
+     * Record one completed model call
+     */
+    public void record(InteractionType type, TokenUsage usage, long responseTimeMs) {
+        // Generation speed from the model's own timing when available, else over the whole call
+        long generationMs = usage.getGenerationMs() != null ? usage.getGenerationMs() : responseTimeMs;
+        double tokensPerSecond = generationMs > 0 ? usage.getCompletionTokens() * 1000.0 / generationMs : 0;
+
+        synchronized (counters) {
+            TypeCounters typeCounters = counters.computeIfAbsent(type, t -> new TypeCounters());
+            typeCounters.requests++;
+            if (usage.isEstimated()) {
+                typeCounters.estimatedRequests++;
+            }
+            typeCounters.promptTokens += usage.getPromptTokens();
+            typeCounters.completionTokens += usage.getCompletionTokens();
+            typeCounters.responseTimeMs += responseTimeMs;
+            typeCounters.generationMs += generationMs;
+            if (usage.getPromptEvalMs() != null) {
+                typeCounters.timedPromptTokens += usage.getPromptTokens();
+                typeCounters.promptEvalMs += usage.getPromptEvalMs();
+            }
+            typeCounters.promptHistogram[bucket(PROMPT_TOKEN_BOUNDS, usage.getPromptTokens())]++;
+            typeCounters.speedHistogram[bucket(TOKENS_PER_SECOND_BOUNDS, tokensPerSecond)]++;
+        }
+    }
+
+    public AIUsageMetricsResponse snapshot() {
+        Map<String, AIUsageMetricsResponse.TypeUsage> interactions = new LinkedHashMap<>();
+        synchronized (counters) {
+            counters.forEach((type, c) -> interactions.put(type.name(), AIUsageMetricsResponse.TypeUsage.builder()
+                    .requests(c.requests)
+                    .estimatedRequests(c.estimatedRequests)
+                    .promptTokens(c.promptTokens)
+                    .completionTokens(c.completionTokens)
+                    .averagePromptTokens((double) c.promptTokens / c.requests)
+                    .averageCompletionTokens((double) c.completionTokens / c.requests)
+                    .totalResponseTimeMs(c.responseTimeMs)
+                    .promptEvalMs(c.promptEvalMs)
+                    .generationMs(c.generationMs)
+                    .promptTokensPerSecond(c.promptEvalMs > 0 ? c.timedPromptTokens * 1000.0 / c.promptEvalMs : null)
+                    .completionTokensPerSecond(c.generationMs > 0 ? c.completionTokens * 1000.0 / c.generationMs : 0)
+                    .promptTokensHistogram(buckets(PROMPT_TOKEN_BOUNDS, c.promptHistogram))
+                    .completionTokensPerSecondHistogram(buckets(TOKENS_PER_SECOND_BOUNDS, c.speedHistogram))
+                    .build()));
+        }
+        return AIUsageMetricsResponse.builder().interactions(interactions).build();
+    }
+
+    private static int bucket(int[] bounds, double value) {
+        for (int i = 0; i < bounds.length; i++) {
+            if (value <= bounds[i]) {
+                return i;
+            }
+        }
+        return bounds.length;
+    }
+
+    private static List<AIUsageMetricsResponse.Bucket> buckets(int[] bounds, long[] counts) {
+        List<AIUsageMetricsResponse.Bucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(new AIUsageMetricsResponse.Bucket(i < bounds.length ? bounds[i] : null, counts[i]));
+        }
+        return buckets;
+    }
+
+    private static class TypeCounters {
+
+        private long requests;
+        private long estimatedRequests;
+        private long promptTokens;
+        private long completionTokens;
+        private long timedPromptTokens;
+        private long responseTimeMs;
+        private long promptEvalMs;
+        private long generationMs;
+        private final long[] promptHistogram = new long[PROMPT_TOKEN_BOUNDS.length + 1];
+        private final long[] speedHistogram = new long[TOKENS_PER_SECOND_BOUNDS.length + 1];
+    }
+}
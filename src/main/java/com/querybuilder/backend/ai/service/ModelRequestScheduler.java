@@ -0,0 +1,238 @@
+package com.querybuilder.backend.ai.service;
+
+import com.querybuilder.backend.ai.dto.ModelSchedulerStatusResponse;
+import com.querybuilder.backend.ai.model.InteractionType;
+import com.querybuilder.backend.shared.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gate in front of the model server. Local inference gets slower, not faster, with more
+ * concurrent requests, so at most max-concurrent calls run at once and the rest wait in a
+ * bounded queue: interactive explanations first, then NL-to-SQL, then optimizations, FIFO
+ * within a priority. Requests are turned away immediately when the queue is full and after
+ * max-queue-ms of waiting. A circuit breaker opens after consecutive failed or slow calls and
+ * rejects everything for open-ms; the first call after that decides whether it closes again.
+ * All calls share one ChatClient.
+ */
+@Service
+@Slf4j
+public class ModelRequestScheduler {
+
+    private final ChatClient chatClient;
+
+    @Value("${app.ai.scheduler.max-concurrent}")
+    private int maxConcurrent;
+
+    @Value("${app.ai.scheduler.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${app.ai.scheduler.max-queue-ms}")
+    private long maxQueueMs;
+
+    @Value("${app.ai.scheduler.breaker.failure-threshold}")
+    private int failureThreshold;
+
+    @Value("${app.ai.scheduler.breaker.slow-call-ms}")
+    private long slowCallMs;
+
+    @Value("${app.ai.scheduler.breaker.open-ms}")
+    private long openMs;
+
+    // Guards running, sequence, consecutiveFailures and openUntil as well as the queue itself
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>(
+            Comparator.comparingInt((Ticket ticket) -> ticket.priority).thenComparingLong(ticket -> ticket.sequence));
+    private int running;
+    private long sequence;
+    private int consecutiveFailures;
+    private long openUntil;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong rejectedQueueTimeout = new AtomicLong();
+    private final AtomicLong rejectedCircuitOpen = new AtomicLong();
+
+    public ModelRequestScheduler(ChatClient.Builder chatClientBuilder) {
+        this.chatClient = chatClientBuilder.build();
+    }
+
+    /**
+     * Blocking model call, run on the caller's thread once a slot is free
+     */
+    public ChatResponse call(InteractionType type, String systemPrompt, String userMessage) {
+        acquire(type);
+        long start = System.currentTimeMillis();
+        boolean succeeded = false;
+        try {
+            ChatResponse response = chatClient.prompt()
+                    .system(systemPrompt)
+                    .user(userMessage)
+                    .call()
+                    .chatResponse();
+            succeeded = true;
+            return response;
+        } finally {
+            release(succeeded, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Streaming model call. The slot is taken before returning, so rejections are thrown here
+     * rather than emitted; the returned flux must be subscribed, and frees the slot when it
+     * completes, fails or is cancelled. Latency for the breaker is the time to the first chunk.
+     */
+    public Flux<ChatResponse> stream(InteractionType type, String systemPrompt, String userMessage) {
+        acquire(type);
+        long start = System.currentTimeMillis();
+        AtomicLong firstChunkMs = new AtomicLong(-1);
+
+        return chatClient.prompt()
+                .system(systemPrompt)
+                .user(userMessage)
+                .stream()
+                .chatResponse()
+                .doOnNext(chunk -> firstChunkMs.compareAndSet(-1, System.currentTimeMillis() - start))
+                .doFinally(signal -> release(signal != SignalType.ON_ERROR,
+                        firstChunkMs.get() >= 0 ? firstChunkMs.get() : System.currentTimeMillis() - start));
+    }
+
+    public ModelSchedulerStatusResponse getStatus() {
+        synchronized (waiting) {
+            long now = System.currentTimeMillis();
+            return ModelSchedulerStatusResponse.builder()
+                    .maxConcurrent(maxConcurrent)
+                    .running(running)
+                    .queued(waiting.size())
+                    .queueCapacity(queueCapacity)
+                    .completed(completed.get())
+                    .failed(failed.get())
+                    .rejectedQueueFull(rejectedQueueFull.get())
+                    .rejectedQueueTimeout(rejectedQueueTimeout.get())
+                    .rejectedCircuitOpen(rejectedCircuitOpen.get())
+                    .consecutiveFailures(consecutiveFailures)
+                    .circuitOpen(now < openUntil)
+                    .circuitOpenForMs(Math.max(0, openUntil - now))
+                    .build();
+        }
+    }
+
+    private void acquire(InteractionType type) {
+        Ticket ticket;
+        synchronized (waiting) {
+            long now = System.currentTimeMillis();
+            if (now < openUntil) {
+                rejectedCircuitOpen.incrementAndGet();
+                throw new ServiceUnavailableException("AI model is not responding in time, retry in "
+                        + TimeUnit.MILLISECONDS.toSeconds(openUntil - now + 999) + "s");
+            }
+            if (running < maxConcurrent && waiting.isEmpty()) {
+                running++;
+                return;
+            }
+            if (waiting.size() >= queueCapacity) {
+                rejectedQueueFull.incrementAndGet();
+                throw new ServiceUnavailableException("AI model is busy, too many requests waiting");
+            }
+            ticket = new Ticket(priority(type), sequence++);
+            waiting.add(ticket);
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            ticket.admitted.await(maxQueueMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Decide under the lock, a slot may have been granted just as the wait ran out
+        synchronized (waiting) {
+            if (ticket.granted) {
+                log.debug("AI request admitted - Type: {}, Queued: {}ms", type, System.currentTimeMillis() - start);
+                return;
+            }
+            waiting.remove(ticket);
+            if (ticket.rejected) {
+                rejectedCircuitOpen.incrementAndGet();
+                throw new ServiceUnavailableException("AI model is not responding in time, try again later");
+            }
+            rejectedQueueTimeout.incrementAndGet();
+            throw new ServiceUnavailableException("AI model is busy, request waited "
+                    + (System.currentTimeMillis() - start) + "ms in queue");
+        }
+    }
+
+    private void release(boolean succeeded, long latencyMs) {
+        synchronized (waiting) {
+            running--;
+            if (succeeded) {
+                completed.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+
+            long now = System.currentTimeMillis();
+            if (succeeded && latencyMs <= slowCallMs) {
+                if (consecutiveFailures >= failureThreshold) {
+                    log.info("AI model circuit closed - Latency: {}ms", latencyMs);
+                }
+                consecutiveFailures = 0;
+            } else if (++consecutiveFailures >= failureThreshold && now >= openUntil) {
+                openUntil = now + openMs;
+                log.warn("AI model circuit opened for {}ms - {} failed or slow calls in a row, last: {}ms",
+                        openMs, consecutiveFailures, latencyMs);
+
+                // Queued callers would only wait for a model that is not keeping up
+                for (Ticket ticket : waiting) {
+                    ticket.rejected = true;
+                    ticket.admitted.countDown();
+                }
+                waiting.clear();
+            }
+
+            while (running < maxConcurrent && !waiting.isEmpty()) {
+                Ticket next = waiting.poll();
+                next.granted = true;
+                running++;
+                next.admitted.countDown();
+            }
+        }
+    }
+
+    /**
+     * Lower runs first: someone is waiting on an explanation or a generated query, while
+     * optimization runs over many queries
+     */
+    private static int priority(InteractionType type) {
+        return switch (type) {
+            case EXPLANATION -> 0;
+            case NL_TO_SQL -> 1;
+            default -> 2;
+        };
+    }
+
+    private static class Ticket {
+
+        private final int priority;
+        private final long sequence;
+        private final CountDownLatch admitted = new CountDownLatch(1);
+        private boolean granted;    // guarded by the scheduler's queue
+        private boolean rejected;
+
+        private Ticket(int priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package com.querybuilder.backend.ai.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.querybuilder.backend.ai.dto.OptimizationSuggestion.Verification;
+import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.model.DatabaseType;
+import com.querybuilder.backend.datasource.service.DataSourceConnectionFactory;
+import com.querybuilder.backend.query.model.ExecutionPhase;
+import com.querybuilder.backend.query.service.RunningQueryRegistry;
+import com.querybuilder.backend.query.service.RunningQueryRegistry.RunningQuery;
+import com.querybuilder.backend.query.service.RunningQueryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.select.FromItem;
+import net.sf.jsqlparser.statement.select.Join;
+import net.sf.jsqlparser.statement.select.ParenthesedSelect;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+import net.sf.jsqlparser.statement.select.WithItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks an optimized query against the original on the target data source before anyone
+ * adopts it. Both are EXPLAINed for the planner's cost estimate; on request both are also run
+ * (under a query timeout and row limit, alternating and keeping the faster run) to compare
+ * latency and an order-independent checksum of the rows. Only single SELECT statements that
+ * neither write (SELECT INTO) nor lock rows (FOR UPDATE/SHARE) are verified, and every
+ * statement runs in its own read-only transaction that is always rolled back.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OptimizationVerifier {
+
+    private static final Pattern SQLSERVER_PLAN_COST = Pattern.compile("StatementSubTreeCost=\"([0-9.Ee+-]+)\"");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final DataSourceConnectionFactory connectionFactory;
+    private final RunningQueryRegistry runningQueryRegistry;
+    private final RunningQueryService runningQueryService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.ai.verification.timeout-seconds}")
+    private int timeoutSeconds;
+
+    @Value("${app.ai.verification.row-limit}")
+    private int rowLimit;
+
+    @Value("${app.ai.verification.runs}")
+    private int runs;
+
+    @Value("${app.ai.verification.min-speedup}")
+    private double minSpeedup;
+
+    /**
+     * Compare the optimized query with the original; never throws, failures end up in the verdict
+     */
+    public Verification verify(DataSource dataSource, String originalSql, String optimizedSql,
+                               boolean execute, User user) {
+        long start = System.currentTimeMillis();
+        Verification verification = compare(dataSource, stripTerminator(originalSql), stripTerminator(optimizedSql),
+                execute, user);
+        verification.setVerificationTimeMs(System.currentTimeMillis() - start);
+
+        log.info("Optimization verified for data source: {} - Verdict: {}, Speedup: {}, Executed: {}, Time: {}ms",
+                dataSource.getId(), verification.getVerdict(), verification.getSpeedup(),
+                verification.isExecuted(), verification.getVerificationTimeMs());
+        return verification;
+    }
+
+    private Verification compare(DataSource dataSource, String originalSql, String optimizedSql,
+                                 boolean execute, User user) {
+        if (optimizedSql.isEmpty() || normalize(optimizedSql).equals(normalize(originalSql))) {
+            return notVerified("No rewritten query to verify");
+        }
+        if (!isReadOnlySelect(originalSql) || !isReadOnlySelect(optimizedSql)) {
+            return notVerified("Only single SELECT statements without INTO or FOR UPDATE/SHARE are verified");
+        }
+
+        DatabaseType databaseType = dataSource.getDatabaseType();
+        try (Connection connection = connectionFactory.getConnection(dataSource)) {
+            connection.setReadOnly(true);
+            connection.setAutoCommit(false);
+            try {
+                Double originalCost;
+                try {
+                    originalCost = explain(connection, databaseType, originalSql);
+                } catch (SQLException e) {
+                    return notVerified("The original query could not be explained: " + e.getMessage());
+                }
+
+                Double optimizedCost;
+                try {
+                    optimizedCost = explain(connection, databaseType, optimizedSql);
+                } catch (SQLException e) {
+                    return invalid("The optimized query does not run on this data source: " + e.getMessage());
+                }
+
+                Verification verification = Verification.builder()
+                        .originalCost(originalCost)
+                        .optimizedCost(optimizedCost)
+                        .build();
+
+                if (execute) {
+                    return measure(connection, dataSource, originalSql, optimizedSql, user, verification);
+                }
+                return judge(verification, ratio(originalCost, optimizedCost), "by planner cost estimate");
+            } finally {
+                // Some drivers (Oracle) commit an open transaction on close
+                connection.rollback();
+            }
+
+        } catch (SQLException e) {
+            log.warn("Optimization verification failed for data source: {} - {}", dataSource.getId(), e.getMessage());
+            return notVerified("Could not verify on the data source: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Run both queries, alternating so neither always gets the warmer cache, and compare the
+     * fastest run of each and the rows of the first
+     */
+    private Verification measure(Connection connection, DataSource dataSource, String originalSql,
+                                 String optimizedSql, User user, Verification verification) {
+        Long serverSessionId = runningQueryService.lookupServerSessionId(connection, dataSource.getDatabaseType());
+        Measurement original = null;
+        Measurement optimized = null;
+        for (int run = 0; run < Math.max(1, runs); run++) {
+            original = faster(original, run(connection, dataSource, originalSql, serverSessionId, user));
+            optimized = faster(optimized, run(connection, dataSource, optimizedSql, serverSessionId, user));
+            if (original.error != null || optimized.error != null || original.timedOut || optimized.timedOut) {
+                break;
+            }
+        }
+
+        if (original.error != null) {
+            return notVerified("The original query failed: " + original.error);
+        }
+        if (optimized.error != null) {
+            return invalid("The optimized query failed: " + optimized.error);
+        }
+
+        verification.setExecuted(true);
+        verification.setOriginalTimeMs(original.timeMs);
+        verification.setOptimizedTimeMs(optimized.timeMs);
+
+        if (original.timedOut && optimized.timedOut) {
+            return judge(verification, ratio(verification.getOriginalCost(), verification.getOptimizedCost()),
+                    "by planner cost estimate, both queries exceeded the " + timeoutSeconds + "s timeout");
+        }
+        if (!original.timedOut && !optimized.timedOut && !original.truncated && !optimized.truncated) {
+            boolean match = original.columns == optimized.columns && original.rows == optimized.rows
+                    && original.checksum == optimized.checksum;
+            verification.setResultsMatch(match);
+            if (!match) {
+                verification.setVerdict("RESULTS_DIFFER");
+                verification.setMessage("The optimized query returns different results (" + optimized.rows
+                        + " rows vs " + original.rows + ")");
+                verification.setWarning("Not equivalent to the original query; do not adopt it");
+                return verification;
+            }
+        }
+
+        // A timed-out run only gives a lower bound, which still orders the two queries
+        String basis = "measured over " + Math.max(1, runs) + " run(s)"
+                + (original.timedOut ? ", the original exceeded the " + timeoutSeconds + "s timeout" : "")
+                + (optimized.timedOut ? ", the optimized query exceeded the " + timeoutSeconds + "s timeout" : "")
+                + (verification.getResultsMatch() == null ? ", results not compared (row limit or timeout)" : "");
+        return judge(verification, (double) Math.max(1, original.timeMs) / Math.max(1, optimized.timeMs), basis);
+    }
+
+    private Verification judge(Verification verification, Double speedup, String basis) {
+        verification.setSpeedup(speedup);
+        if (speedup == null) {
+            verification.setVerdict("NOT_VERIFIED");
+            verification.setMessage("No plan cost is available for this data source; run the verification "
+                    + "with execution to measure");
+        } else if (speedup >= minSpeedup) {
+            verification.setVerdict("FASTER");
+            verification.setMessage(String.format("%.2fx faster, %s", speedup, basis));
+        } else if (speedup <= 1 / minSpeedup) {
+            verification.setVerdict("SLOWER");
+            verification.setMessage(String.format("%.2fx slower, %s", 1 / speedup, basis));
+            verification.setWarning("Regression: the optimized query is slower than the original; keep the original");
+        } else {
+            verification.setVerdict("NO_GAIN");
+            verification.setMessage(String.format("No significant difference (%.2fx), %s", speedup, basis));
+        }
+        return verification;
+    }
+
+    /**
+     * Planner cost of the query in a transaction of its own that is rolled back. Oracle writes
+     * the plan into plan_table, which a read-only transaction refuses, so its EXPLAIN PLAN (which
+     * does not run the query) gets an ordinary transaction; the rollback discards the plan rows.
+     */
+    private Double explain(Connection connection, DatabaseType databaseType, String sql) throws SQLException {
+        try {
+            if (databaseType != DatabaseType.ORACLE) {
+                beginReadOnly(connection, databaseType);
+            }
+            return planCost(connection, databaseType, sql);
+        } finally {
+            connection.rollback();
+        }
+    }
+
+    /**
+     * Open a read-only transaction on a connection outside auto-commit. SQL Server has no
+     * read-only transactions; there the rollback is what undoes any write.
+     */
+    private void beginReadOnly(Connection connection, DatabaseType databaseType) throws SQLException {
+        String sql = switch (databaseType) {
+            case MYSQL -> "START TRANSACTION READ ONLY";
+            case POSTGRESQL, ORACLE -> "SET TRANSACTION READ ONLY";
+            case SQLSERVER -> null;
+        };
+        if (sql != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Planner cost of the query without running it, or null when the database gives none
+     */
+    private Double planCost(Connection connection, DatabaseType databaseType, String sql) throws SQLException {
+        return switch (databaseType) {
+            case MYSQL -> jsonPlanCost(readJsonPlan(connection, "EXPLAIN FORMAT=JSON " + sql)
+                    .path("query_block").path("cost_info").path("query_cost"));
+            case POSTGRESQL -> jsonPlanCost(readJsonPlan(connection, "EXPLAIN (FORMAT JSON) " + sql)
+                    .path(0).path("Plan").path("Total Cost"));
+            case SQLSERVER -> sqlServerPlanCost(connection, sql);
+            case ORACLE -> oraclePlanCost(connection, sql);
+        };
+    }
+
+    private static Double jsonPlanCost(JsonNode cost) {
+        // MySQL reports the cost as a string, PostgreSQL as a number
+        return cost.isMissingNode() || cost.isNull() ? null : Double.valueOf(cost.asText());
+    }
+
+    private Double sqlServerPlanCost(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(timeoutSeconds);
+            statement.execute("SET SHOWPLAN_XML ON");
+            try (ResultSet resultSet = statement.executeQuery(sql)) {
+                Matcher matcher = SQLSERVER_PLAN_COST.matcher(resultSet.next() ? resultSet.getString(1) : "");
+                return matcher.find() ? Double.valueOf(matcher.group(1)) : null;
+            } finally {
+                statement.execute("SET SHOWPLAN_XML OFF");
+            }
+        }
+    }
+
+    private Double oraclePlanCost(Connection connection, String sql) throws SQLException {
+        String statementId = "qb" + UUID.randomUUID().toString().replace("-", "").substring(0, 20);
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(timeoutSeconds);
+            statement.execute("EXPLAIN PLAN SET STATEMENT_ID = '" + statementId + "' FOR " + sql);
+        }
+
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT cost FROM plan_table WHERE statement_id = ? AND id = 0")) {
+            select.setString(1, statementId);
+            try (ResultSet resultSet = select.executeQuery()) {
+                return resultSet.next() && resultSet.getObject(1) != null ? resultSet.getDouble(1) : null;
+            }
+        }
+    }
+
+    private JsonNode readJsonPlan(Connection connection, String explainSql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(timeoutSeconds);
+            try (ResultSet resultSet = statement.executeQuery(explainSql)) {
+                return resultSet.next() ? objectMapper.readTree(resultSet.getString(1)) : MissingNode.getInstance();
+            }
+        } catch (IOException e) {
+            log.warn("Unreadable query plan - {}", e.getMessage());
+            return MissingNode.getInstance();
+        }
+    }
+
+    /**
+     * One timed run in a read-only transaction of its own (a failed run aborts the transaction
+     * on PostgreSQL), shown among the running queries so it can be watched and cancelled
+     */
+    private Measurement run(Connection connection, DataSource dataSource, String sql, Long serverSessionId,
+                            User user) {
+        Measurement measurement = new Measurement();
+        RunningQuery runningQuery = runningQueryRegistry.register(user, dataSource, sql);
+        long start = System.currentTimeMillis();
+
+        try {
+            beginReadOnly(connection, dataSource.getDatabaseType());
+            start = System.currentTimeMillis();
+        } catch (SQLException e) {
+            runningQueryRegistry.deregister(runningQuery);
+            measurement.error = e.getMessage();
+            return measurement;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(timeoutSeconds);
+            statement.setMaxRows(rowLimit + 1);
+            runningQuery.attach(statement, serverSessionId);
+            runningQuery.setPhase(ExecutionPhase.EXECUTING);
+
+            try (ResultSet resultSet = statement.executeQuery(sql)) {
+                runningQuery.setPhase(ExecutionPhase.FETCHING);
+                measurement.columns = resultSet.getMetaData().getColumnCount();
+
+                while (resultSet.next()) {
+                    if (measurement.rows == rowLimit) {
+                        measurement.truncated = true;
+                        break;
+                    }
+                    long rowHash = 1;
+                    for (int i = 1; i <= measurement.columns; i++) {
+                        rowHash = 31 * rowHash + valueHash(resultSet.getObject(i));
+                    }
+                    // Sum of mixed row hashes, so row order does not matter
+                    measurement.checksum += mix(rowHash);
+                    measurement.rows++;
+                    runningQuery.rowFetched();
+                }
+            }
+        } catch (SQLException e) {
+            long elapsed = System.currentTimeMillis() - start;
+            if (e instanceof SQLTimeoutException || elapsed >= timeoutSeconds * 1000L) {
+                measurement.timedOut = true;
+            } else {
+                measurement.error = e.getMessage();
+            }
+        } finally {
+            runningQueryRegistry.deregister(runningQuery);
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                measurement.error = "Could not roll back the verification run: " + e.getMessage();
+            }
+        }
+
+        measurement.timeMs = measurement.timedOut
+                ? timeoutSeconds * 1000L
+                : System.currentTimeMillis() - start;
+        return measurement;
+    }
+
+    private static Measurement faster(Measurement best, Measurement next) {
+        if (best == null || next.error != null) {
+            return next;
+        }
+        if (next.timeMs < best.timeMs) {
+            // Keep the rows of the first run; later runs only improve the timing
+            best.timeMs = next.timeMs;
+            best.timedOut = next.timedOut;
+        }
+        return best;
+    }
+
+    /**
+     * Hash of a value that treats equal numbers of different types (1, 1.0, 1.00) alike
+     */
+    private static int valueHash(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof byte[] bytes) {
+            return Arrays.hashCode(bytes);
+        }
+        if (value instanceof Number number) {
+            try {
+                return new BigDecimal(number.toString()).stripTrailingZeros().toPlainString().hashCode();
+            } catch (NumberFormatException e) {
+                return number.toString().hashCode();    // NaN, Infinity
+            }
+        }
+        return value.toString().hashCode();
+    }
+
+    /**
+     * 64-bit finalizer (MurmurHash3) so summed row hashes do not cancel out
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static Double ratio(Double original, Double optimized) {
+        return original == null || optimized == null || original <= 0 || optimized <= 0 ? null : original / optimized;
+    }
+
+    private static boolean isReadOnlySelect(String sql) {
+        try {
+            return CCJSqlParserUtil.parse(sql) instanceof Select select && readsOnly(select);
+        } catch (JSQLParserException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * No SELECT INTO, no row locks and no CTE other than a query, in the statement or any
+     * nested select; the read-only transaction still guards what the parser lets through
+     */
+    private static boolean readsOnly(Select select) {
+        if (select.getWithItemsList() != null) {
+            for (WithItem withItem : select.getWithItemsList()) {
+                if (withItem.getSelect() == null || !readsOnly(withItem.getSelect())) {
+                    return false;
+                }
+            }
+        }
+
+        if (select instanceof ParenthesedSelect parenthesed) {
+            return readsOnly(parenthesed.getSelect());
+        }
+        if (select instanceof SetOperationList setOperation) {
+            return setOperation.getSelects().stream().allMatch(OptimizationVerifier::readsOnly);
+        }
+        if (select instanceof PlainSelect plain) {
+            if (plain.getIntoTables() != null || plain.getIntoTempTable() != null || plain.getForMode() != null) {
+                return false;
+            }
+            List<FromItem> fromItems = new ArrayList<>();
+            fromItems.add(plain.getFromItem());
+            if (plain.getJoins() != null) {
+                for (Join join : plain.getJoins()) {
+                    fromItems.add(join.getRightItem());
+                }
+            }
+            for (FromItem item : fromItems) {
+                if (item instanceof ParenthesedSelect derived && !readsOnly(derived.getSelect())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static String stripTerminator(String sql) {
+        String trimmed = sql == null ? "" : sql.trim();
+        while (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+
+    private static String normalize(String sql) {
+        return WHITESPACE.matcher(sql).replaceAll(" ").toLowerCase();
+    }
+
+    private static Verification notVerified(String message) {
+        return Verification.builder().verdict("NOT_VERIFIED").message(message).build();
+    }
+
+    private static Verification invalid(String message) {
+        return Verification.builder()
+                .verdict("INVALID")
+                .message(message)
+                .warning("The optimized query cannot replace the original")
+                .build();
+    }
+
+    private static class Measurement {
+
+        private long timeMs;
+        private boolean timedOut;
+        private String error;
+        private int columns;
+        private int rows;
+        private boolean truncated;
+        private long checksum;
+    }
+}
@@ -0,0 +1,81 @@
+package com.querybuilder.backend.ai.service;
+
+import com.querybuilder.backend.ai.service.SchemaRelevanceIndex.SchemaContext;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.service.SchemaMemoryCache.CachedSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+
+/**
+ * Schema descriptions for NL-to-SQL prompts, limited to the tables relevant to the question.
+ * Keeps one relevance index per data source that follows the cached schema version.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaContextService {
+
+    private final TokenCounter tokenCounter;
+
+    @Value("${app.ai.schema-context.max-tables}")
+    private int maxTables;
+
+    @Value("${app.ai.schema-context.token-budget}")
+    private int tokenBudget;
+
+    @Value("${app.ai.schema-context.max-indexes}")
+    private int maxIndexes;
+
+    // Access order, so the least recently used index is dropped first
+    private final LinkedHashMap<UUID, SchemaRelevanceIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Describe the tables most relevant to the question, within the configured table and token
+     * limits and the maxTokens left over by the rest of the prompt
+     */
+    public SchemaContext buildContext(DataSource dataSource, CachedSchema schema, String question, int maxTokens) {
+        SchemaContext context = getIndex(dataSource, schema)
+                .select(question, maxTables, Math.min(tokenBudget, maxTokens));
+        log.info("Schema context for data source: {} - Tables: {}/{}, Tokens: {}/{}",
+                dataSource.getId(), context.getTableNames().size(), context.getTotalTables(),
+                context.getTokens(), context.getFullTokens());
+        return context;
+    }
+
+    /**
+     * Index for the current schema version; building only tokenizes names and sizes tables, so it happens inline
+     */
+    private SchemaRelevanceIndex getIndex(DataSource dataSource, CachedSchema schema) {
+        synchronized (indexes) {
+            SchemaRelevanceIndex current = indexes.get(dataSource.getId());
+            if (current != null && current.getVersion() >= schema.getVersion()) {
+                return current;
+            }
+        }
+
+        long start = System.nanoTime();
+        SchemaRelevanceIndex built = new SchemaRelevanceIndex(schema.getVersion(), schema.getSchema(), tokenCounter::count);
+        log.info("Schema relevance index built for data source: {} - Version: {}, Tables: {}, Time: {}ms",
+                dataSource.getId(), built.getVersion(), built.tableCount(), (System.nanoTime() - start) / 1_000_000);
+
+        synchronized (indexes) {
+            SchemaRelevanceIndex latest = indexes.get(dataSource.getId());
+            if (latest == null || latest.getVersion() < built.getVersion()) {
+                indexes.put(dataSource.getId(), built);
+            }
+
+            Iterator<UUID> eldest = indexes.keySet().iterator();
+            while (indexes.size() > maxIndexes && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return built;
+    }
+}
@@ -0,0 +1,273 @@
+package com.querybuilder.backend.ai.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable BM25 index over the tables of one schema version, used to pick the tables worth
+ * describing to the model for a question. A table's document is its name (weighted higher)
+ * and its column names, split into words; question words also match their singular and
+ * plural forms. Tables joined by a foreign key to strong matches are pulled up too, so
+ * bridge tables make it into the context.
+ */
+public class SchemaRelevanceIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TABLE_NAME_WEIGHT = 3;
+    private static final double NEIGHBOR_WEIGHT = 0.4;
+
+    private static final Pattern WORD_BOUNDARY = Pattern.compile("[^\\p{L}\\p{N}]+|(?<=\\p{Ll})(?=\\p{Lu})");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "of", "for", "in", "on", "at", "by", "with", "to", "from", "and", "or", "not",
+            "is", "are", "was", "were", "be", "been", "that", "this", "these", "those", "which", "what", "who",
+            "how", "many", "much", "all", "any", "each", "every", "per", "me", "my", "our", "their", "its",
+            "show", "list", "get", "find", "give", "return", "select", "query", "table", "tables", "data");
+
+    @Getter
+    private final long version;
+    private final List<TableDocument> documents = new ArrayList<>();
+    private final Map<String, List<Integer>> postings = new HashMap<>();
+    private final double averageLength;
+    private final int fullTokens;
+
+    /**
+     * @param tokenCounter sizes each rendered table, so selections can be held to a token budget
+     */
+    @SuppressWarnings("unchecked")
+    public SchemaRelevanceIndex(long version, Map<String, Object> schema, ToIntFunction<String> tokenCounter) {
+        this.version = version;
+
+        List<Map<String, Object>> tables = (List<Map<String, Object>>) schema.getOrDefault("tables", List.of());
+        Map<String, Integer> byKey = new HashMap<>();
+        Map<String, Integer> byName = new HashMap<>();
+        long totalLength = 0;
+        int tokens = 0;
+
+        for (Map<String, Object> table : tables) {
+            String name = (String) table.get("name");
+            Map<String, Integer> termFrequency = new HashMap<>();
+            int length = 0;
+            for (String term : terms(name)) {
+                termFrequency.merge(term, TABLE_NAME_WEIGHT, Integer::sum);
+                length += TABLE_NAME_WEIGHT;
+            }
+            for (Map<String, Object> column : (List<Map<String, Object>>) table.getOrDefault("columns", List.of())) {
+                for (String term : terms((String) column.get("name"))) {
+                    termFrequency.merge(term, 1, Integer::sum);
+                    length++;
+                }
+            }
+            for (String term : termFrequency.keySet()) {
+                postings.computeIfAbsent(term, k -> new ArrayList<>()).add(documents.size());
+            }
+
+            String text = render(table);
+            TableDocument document = new TableDocument(name, text, tokenCounter.applyAsInt(text), termFrequency, length,
+                    new ArrayList<>());
+            byKey.put(table.get("schema") + "." + name, documents.size());
+            byName.putIfAbsent(name.toLowerCase(Locale.ROOT), documents.size());
+            documents.add(document);
+            totalLength += length;
+            tokens += document.tokens;
+        }
+
+        // Foreign keys as undirected neighbor links; referenced tables carry only a name
+        for (int i = 0; i < tables.size(); i++) {
+            Map<String, Object> table = tables.get(i);
+            for (Map<String, Object> fk : (List<Map<String, Object>>) table.getOrDefault("foreignKeys", List.of())) {
+                String referenced = (String) fk.get("referencedTable");
+                if (referenced == null) {
+                    continue;
+                }
+                Integer target = byKey.get(table.get("schema") + "." + referenced);
+                if (target == null) {
+                    target = byName.get(referenced.toLowerCase(Locale.ROOT));
+                }
+                if (target != null && target != i && !documents.get(i).neighbors.contains(target)) {
+                    documents.get(i).neighbors.add(target);
+                    documents.get(target).neighbors.add(i);
+                }
+            }
+        }
+
+        this.averageLength = documents.isEmpty() ? 0 : (double) totalLength / documents.size();
+        this.fullTokens = tokens;
+    }
+
+    public int tableCount() {
+        return documents.size();
+    }
+
+    /**
+     * The most relevant tables for the question, best first, up to maxTables and within the
+     * token budget. A schema that fits the budget whole is returned whole; a question that
+     * matches nothing gets the most connected tables.
+     */
+    public SchemaContext select(String question, int maxTables, int tokenBudget) {
+        List<Integer> ranked = new ArrayList<>();
+        if (documents.size() <= maxTables && fullTokens <= tokenBudget) {
+            for (int i = 0; i < documents.size(); i++) {
+                ranked.add(i);
+            }
+            return assemble(ranked, maxTables, tokenBudget);
+        }
+
+        double[] direct = new double[documents.size()];
+        Set<String> queryTerms = new LinkedHashSet<>();
+        for (String term : terms(question)) {
+            queryTerms.addAll(forms(term));
+        }
+        for (String term : queryTerms) {
+            List<Integer> matches = postings.get(term);
+            if (matches == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (documents.size() - matches.size() + 0.5) / (matches.size() + 0.5));
+            for (int i : matches) {
+                TableDocument document = documents.get(i);
+                int tf = document.termFrequency.get(term);
+                double norm = K1 * (1 - B + B * document.length / averageLength);
+                direct[i] += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+
+        // Add the two best neighbor scores, which lifts tables that connect two matches
+        double[] scores = new double[documents.size()];
+        for (int i = 0; i < documents.size(); i++) {
+            double best = 0;
+            double second = 0;
+            for (int neighbor : documents.get(i).neighbors) {
+                double score = direct[neighbor];
+                if (score > best) {
+                    second = best;
+                    best = score;
+                } else if (score > second) {
+                    second = score;
+                }
+            }
+            scores[i] = direct[i] + NEIGHBOR_WEIGHT * (best + second);
+            if (scores[i] > 0) {
+                ranked.add(i);
+            }
+        }
+
+        if (ranked.isEmpty()) {
+            for (int i = 0; i < documents.size(); i++) {
+                ranked.add(i);
+            }
+            ranked.sort(Comparator.comparingInt((Integer i) -> -documents.get(i).neighbors.size()));
+        } else {
+            ranked.sort(Comparator.comparingDouble((Integer i) -> -scores[i]));
+        }
+        return assemble(ranked, maxTables, tokenBudget);
+    }
+
+    private SchemaContext assemble(List<Integer> ranked, int maxTables, int tokenBudget) {
+        StringBuilder text = new StringBuilder();
+        List<String> tableNames = new ArrayList<>();
+        int tokens = 0;
+
+        for (int i : ranked) {
+            if (tableNames.size() >= maxTables) {
+                break;
+            }
+            TableDocument document = documents.get(i);
+            if (tokens + document.tokens > tokenBudget) {
+                continue;   // a smaller table further down may still fit
+            }
+            text.append(document.text);
+            tableNames.add(document.name);
+            tokens += document.tokens;
+        }
+        return new SchemaContext(text.toString(), tableNames, documents.size(), tokens, fullTokens);
+    }
+
+    /**
+     * Lower-case words of an identifier or question, without stop words
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String word : WORD_BOUNDARY.split(text)) {
+            String term = word.toLowerCase(Locale.ROOT);
+            if (term.isEmpty() || STOP_WORDS.contains(term)) {
+                continue;
+            }
+            terms.add(term);
+        }
+        return terms;
+    }
+
+    /**
+     * The word plus its singular and plural forms, since names and questions rarely agree
+     * on number ("orders" vs "order_id"); only forms that occur in the schema count
+     */
+    private static List<String> forms(String term) {
+        List<String> forms = new ArrayList<>(List.of(term, term + "s", term + "es"));
+        if (term.length() > 4 && term.endsWith("ies")) {
+            forms.add(term.substring(0, term.length() - 3) + "y");
+        }
+        if (term.length() > 3 && term.endsWith("es")) {
+            forms.add(term.substring(0, term.length() - 2));
+        }
+        if (term.length() > 2 && term.endsWith("s") && !term.endsWith("ss")) {
+            forms.add(term.substring(0, term.length() - 1));
+        }
+        if (term.length() > 2 && term.endsWith("y")) {
+            forms.add(term.substring(0, term.length() - 1) + "ies");
+        }
+        return forms;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String render(Map<String, Object> table) {
+        Map<String, String> references = new HashMap<>();
+        for (Map<String, Object> fk : (List<Map<String, Object>>) table.getOrDefault("foreignKeys", List.of())) {
+            references.put((String) fk.get("columnName"), fk.get("referencedTable") + "." + fk.get("referencedColumn"));
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append("\nTable: ").append(table.get("name")).append("\n");
+        for (Map<String, Object> column : (List<Map<String, Object>>) table.getOrDefault("columns", List.of())) {
+            text.append("  - ").append(column.get("name")).append(" (").append(column.get("type")).append(")");
+            String reference = references.get((String) column.get("name"));
+            if (reference != null) {
+                text.append(" -> ").append(reference);
+            }
+            text.append("\n");
+        }
+        return text.toString();
+    }
+
+    @AllArgsConstructor
+    private static class TableDocument {
+
+        private final String name;
+        private final String text;
+        private final int tokens;
+        private final Map<String, Integer> termFrequency;
+        private final int length;
+        private final List<Integer> neighbors;
+    }
+
+    /**
+     * Schema description for one prompt, with its token count next to the full schema's
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SchemaContext {
+
+        private final String text;
+        private final List<String> tableNames;
+        private final int totalTables;
+        private final int tokens;
+        private final int fullTokens;
+    }
+}
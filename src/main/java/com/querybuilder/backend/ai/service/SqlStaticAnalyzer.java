@@ -0,0 +1,632 @@
+package com.querybuilder.backend.ai.service;
+
+import com.querybuilder.backend.ai.dto.OptimizationSuggestion.Suggestion;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.BinaryExpression;
+import net.sf.jsqlparser.expression.CastExpression;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Function;
+import net.sf.jsqlparser.expression.NotExpression;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.StringValue;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.relational.Between;
+import net.sf.jsqlparser.expression.operators.relational.ComparisonOperator;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.expression.operators.relational.ExistsExpression;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
+import net.sf.jsqlparser.expression.operators.relational.IsNullExpression;
+import net.sf.jsqlparser.expression.operators.relational.LikeExpression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.AllColumns;
+import net.sf.jsqlparser.statement.select.AllTableColumns;
+import net.sf.jsqlparser.statement.select.FromItem;
+import net.sf.jsqlparser.statement.select.Join;
+import net.sf.jsqlparser.statement.select.ParenthesedSelect;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectItem;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+import net.sf.jsqlparser.statement.select.WithItem;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic checks for the common, mechanical query problems, answered in milliseconds
+ * without the model: SELECT *, LIKE patterns with a leading wildcard, functions wrapped around
+ * key columns, joins without a join condition, OR across different columns and ORDER BY
+ * without a row limit. The query is parsed with JSqlParser; key columns (primary and foreign
+ * keys) come from the cached schema, which records no secondary indexes.
+ */
+@Component
+public class SqlStaticAnalyzer {
+
+    private static final int SAMPLE_COLUMNS = 5;
+    private static final List<String> SEVERITY_ORDER = List.of("HIGH", "MEDIUM", "LOW");
+    private static final Pattern EXCEPTION_PREFIX = Pattern.compile("^[\\w.$]+Exception: ");
+
+    /**
+     * Findings for the query, most severe first; a query the parser does not understand
+     * yields no findings and the parser's message
+     */
+    public Analysis analyze(String sql, Map<String, Object> schema) {
+        Statement statement;
+        try {
+            statement = CCJSqlParserUtil.parse(sql);
+        } catch (JSQLParserException | RuntimeException e) {
+            String message = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            return new Analysis(false, List.of(), message == null ? null
+                    : EXCEPTION_PREFIX.matcher(message.lines().findFirst().orElse("")).replaceFirst(""));
+        }
+        if (!(statement instanceof Select root)) {
+            return new Analysis(true, List.of(), null);
+        }
+
+        Run run = new Run();
+        run.pending.add(root);
+        while (!run.pending.isEmpty()) {
+            collect(run.pending.poll(), run);
+        }
+        run.keys = SchemaKeys.of(schema, run.tableNames);
+
+        for (PlainSelect select : run.selects) {
+            Scope scope = Scope.of(select, run.keys);
+            checkSelectStar(select, scope, run);
+            checkJoins(select, scope, run);
+            for (Expression condition : conditions(select)) {
+                walk(condition, expression -> {
+                    checkLeadingWildcard(expression, scope, run);
+                    checkFunctionOnKey(expression, scope, run);
+                });
+            }
+            checkOr(select.getWhere(), scope, run);
+        }
+        if (root instanceof PlainSelect select) {
+            checkOrderByWithoutLimit(select, run);
+        }
+
+        List<Suggestion> findings = new ArrayList<>(run.findings.values());
+        findings.sort(Comparator.comparingInt((Suggestion finding) -> SEVERITY_ORDER.indexOf(finding.getSeverity())));
+        return new Analysis(true, findings, null);
+    }
+
+    /**
+     * Flatten CTEs, set operations and derived tables into plain selects; subqueries inside
+     * conditions are queued by {@link #walk}
+     */
+    private void collect(Select select, Run run) {
+        if (select.getWithItemsList() != null) {
+            for (WithItem withItem : select.getWithItemsList()) {
+                if (withItem.getSelect() != null) {
+                    run.pending.add(withItem.getSelect());
+                }
+            }
+        }
+
+        if (select instanceof ParenthesedSelect parenthesed) {
+            run.pending.add(parenthesed.getSelect());
+        } else if (select instanceof SetOperationList setOperation) {
+            run.pending.addAll(setOperation.getSelects());
+        } else if (select instanceof PlainSelect plain) {
+            run.selects.add(plain);
+            for (FromItem item : fromItems(plain)) {
+                if (item instanceof Table table) {
+                    run.tableNames.add(normalize(table.getName()));
+                } else if (item instanceof ParenthesedSelect derived) {
+                    run.pending.add(derived.getSelect());
+                }
+            }
+            for (SelectItem<?> item : plain.getSelectItems()) {
+                walk(item.getExpression(), expression -> { }, run);
+            }
+            for (Expression condition : conditions(plain)) {
+                walk(condition, expression -> { }, run);
+            }
+        }
+    }
+
+    private void checkSelectStar(PlainSelect select, Scope scope, Run run) {
+        if (run.existsSubqueries.contains(select)) {
+            return;     // EXISTS (SELECT * ...) reads no columns
+        }
+        for (SelectItem<?> item : select.getSelectItems()) {
+            Expression expression = item.getExpression();
+            if (!(expression instanceof AllColumns)) {
+                continue;
+            }
+
+            String table = expression instanceof AllTableColumns tableColumns
+                    ? scope.tableFor(normalize(tableColumns.getTable().getName()))
+                    : scope.singleTable();
+            List<String> columns = table == null ? List.of() : run.keys.columns(table);
+            String recommendation = "List only the columns the caller needs";
+            if (!columns.isEmpty()) {
+                recommendation += ", e.g. SELECT " + String.join(", ", columns.subList(0, Math.min(SAMPLE_COLUMNS, columns.size())))
+                        + (columns.size() > SAMPLE_COLUMNS ? ", ..." : "") + " (" + table + " has " + columns.size() + " columns)";
+            }
+
+            run.add("REWRITE", "MEDIUM",
+                    "SELECT " + expression + " reads every column, including ones the result does not use, and prevents index-only reads",
+                    recommendation,
+                    "Less I/O and network transfer");
+        }
+    }
+
+    /**
+     * Joined tables (comma joins or JOIN without ON/USING) with no equality to another table
+     * anywhere in the conditions multiply the row count
+     */
+    private void checkJoins(PlainSelect select, Scope scope, Run run) {
+        if (select.getJoins() == null) {
+            return;
+        }
+
+        List<EqualsTo> equalities = new ArrayList<>();
+        for (Expression condition : conditions(select)) {
+            for (Expression conjunct : conjuncts(condition)) {
+                if (conjunct instanceof EqualsTo equalsTo && equalsTo.getLeftExpression() instanceof Column
+                        && equalsTo.getRightExpression() instanceof Column) {
+                    equalities.add(equalsTo);
+                }
+            }
+        }
+
+        for (Join join : select.getJoins()) {
+            boolean hasOn = join.getOnExpressions() != null && !join.getOnExpressions().isEmpty();
+            boolean hasUsing = join.getUsingColumns() != null && !join.getUsingColumns().isEmpty();
+            if (join.isCross() || join.isNatural() || hasOn || hasUsing) {
+                continue;
+            }
+
+            String qualifier = qualifier(join.getRightItem());
+            if (qualifier == null || linked(qualifier, equalities, scope)) {
+                continue;
+            }
+
+            String hint = scope.joinHint(qualifier);
+            run.add("WARNING", "HIGH",
+                    "No join condition links " + join.getRightItem() + " to the other tables, so every row is paired "
+                            + "with every row of the rest of the query (cartesian product)",
+                    hint != null ? "Join on the foreign key: " + hint
+                            : "Add an ON condition, or write CROSS JOIN if the product is intended",
+                    "Result and work shrink from the product of the table sizes to the matching rows");
+        }
+    }
+
+    private boolean linked(String qualifier, List<EqualsTo> equalities, Scope scope) {
+        for (EqualsTo equality : equalities) {
+            String left = scope.qualifierOf((Column) equality.getLeftExpression());
+            String right = scope.qualifierOf((Column) equality.getRightExpression());
+            // An unqualified column could belong to the joined table; give it the benefit of the doubt
+            if (left == null || right == null) {
+                return true;
+            }
+            if (!left.equals(right) && (left.equals(qualifier) || right.equals(qualifier))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkLeadingWildcard(Expression expression, Scope scope, Run run) {
+        if (!(expression instanceof LikeExpression like) || !(like.getRightExpression() instanceof StringValue pattern)) {
+            return;
+        }
+        String value = pattern.getValue();
+        if (value.isEmpty() || (value.charAt(0) != '%' && value.charAt(0) != '_')) {
+            return;
+        }
+
+        boolean key = like.getLeftExpression() instanceof Column column && scope.isKey(column);
+        run.add("INDEX", key ? "HIGH" : "MEDIUM",
+                like + " starts with a wildcard, so no index on " + like.getLeftExpression()
+                        + " can be used and every row is scanned",
+                "Anchor the pattern at the start ('" + value.replaceFirst("^[%_]+", "") + "'), or use a full-text index "
+                        + "for substring search",
+                "Index range scan instead of a full scan");
+    }
+
+    /**
+     * A function around a key column in a comparison hides the column from its index
+     */
+    private void checkFunctionOnKey(Expression expression, Scope scope, Run run) {
+        List<Expression> operands = new ArrayList<>();
+        if (expression instanceof ComparisonOperator || expression instanceof LikeExpression) {
+            operands.add(((BinaryExpression) expression).getLeftExpression());
+            operands.add(((BinaryExpression) expression).getRightExpression());
+        } else if (expression instanceof InExpression in) {
+            operands.add(in.getLeftExpression());
+        } else if (expression instanceof Between between) {
+            operands.add(between.getLeftExpression());
+        } else {
+            return;
+        }
+
+        for (Expression operand : operands) {
+            if (!(operand instanceof Function) && !(operand instanceof CastExpression)) {
+                continue;
+            }
+            walk(operand, inner -> {
+                if (inner instanceof Column column && scope.isKey(column)) {
+                    run.add("REWRITE", "HIGH",
+                            operand + " wraps key column " + column + " in a function, so its index cannot be used",
+                            "Compare the bare column: move the function to the other side (e.g. a date range instead "
+                                    + "of a date function), or index the expression",
+                            "Index seek instead of evaluating the function for every row");
+                }
+            });
+        }
+    }
+
+    /**
+     * OR between conditions on different columns; ORs over the same column are left alone
+     */
+    private void checkOr(Expression expression, Scope scope, Run run) {
+        if (expression instanceof Parenthesis parenthesis) {
+            checkOr(parenthesis.getExpression(), scope, run);
+        } else if (expression instanceof NotExpression not) {
+            checkOr(not.getExpression(), scope, run);
+        } else if (expression instanceof AndExpression and) {
+            checkOr(and.getLeftExpression(), scope, run);
+            checkOr(and.getRightExpression(), scope, run);
+        } else if (expression instanceof OrExpression) {
+            List<Expression> operands = new ArrayList<>();
+            flatten(expression, OrExpression.class, operands);
+
+            Set<Set<String>> columnSets = new HashSet<>();
+            for (Expression operand : operands) {
+                Set<String> columns = new TreeSet<>();
+                walk(operand, inner -> {
+                    if (inner instanceof Column column) {
+                        String qualifier = scope.qualifierOf(column);
+                        columns.add((qualifier == null ? "" : qualifier + ".") + normalize(column.getColumnName()));
+                    }
+                });
+                columnSets.add(columns);
+            }
+            if (columnSets.size() > 1) {
+                run.add("REWRITE", "MEDIUM",
+                        "OR across different columns (" + expression + ") usually cannot use a single index "
+                                + "and falls back to a full scan",
+                        "Split into one query per condition combined with UNION ALL (UNION if rows can match "
+                                + "more than one), so each part uses its own index",
+                        "Index lookups instead of a full scan");
+            }
+            for (Expression operand : operands) {
+                checkOr(operand, scope, run);
+            }
+        }
+    }
+
+    private void checkOrderByWithoutLimit(PlainSelect select, Run run) {
+        if (select.getOrderByElements() == null || select.getOrderByElements().isEmpty()
+                || select.getLimit() != null || select.getFetch() != null || select.getTop() != null) {
+            return;
+        }
+        run.add("WARNING", "LOW",
+                "ORDER BY without LIMIT sorts the complete result before the first row is returned",
+                "Add LIMIT (or FETCH FIRST n ROWS ONLY) when only the first rows are shown, "
+                        + "or drop ORDER BY if the order does not matter",
+                "Top-N sort instead of a full sort");
+    }
+
+    private static List<FromItem> fromItems(PlainSelect select) {
+        List<FromItem> items = new ArrayList<>();
+        if (select.getFromItem() != null) {
+            items.add(select.getFromItem());
+        }
+        if (select.getJoins() != null) {
+            for (Join join : select.getJoins()) {
+                items.add(join.getRightItem());
+            }
+        }
+        return items;
+    }
+
+    /**
+     * WHERE, HAVING and join ON conditions of one select
+     */
+    private static List<Expression> conditions(PlainSelect select) {
+        List<Expression> conditions = new ArrayList<>();
+        if (select.getWhere() != null) {
+            conditions.add(select.getWhere());
+        }
+        if (select.getHaving() != null) {
+            conditions.add(select.getHaving());
+        }
+        if (select.getJoins() != null) {
+            for (Join join : select.getJoins()) {
+                if (join.getOnExpressions() != null) {
+                    conditions.addAll(join.getOnExpressions());
+                }
+            }
+        }
+        return conditions;
+    }
+
+    private static List<Expression> conjuncts(Expression expression) {
+        List<Expression> conjuncts = new ArrayList<>();
+        flatten(expression, AndExpression.class, conjuncts);
+        return conjuncts;
+    }
+
+    private static void flatten(Expression expression, Class<? extends BinaryExpression> operator, List<Expression> out) {
+        if (expression instanceof Parenthesis parenthesis) {
+            flatten(parenthesis.getExpression(), operator, out);
+        } else if (operator.isInstance(expression)) {
+            flatten(((BinaryExpression) expression).getLeftExpression(), operator, out);
+            flatten(((BinaryExpression) expression).getRightExpression(), operator, out);
+        } else if (expression != null) {
+            out.add(expression);
+        }
+    }
+
+    private static void walk(Expression expression, Consumer<Expression> action) {
+        walk(expression, action, null);
+    }
+
+    /**
+     * Visit the expression tree depth first; subqueries are not entered but queued on the run
+     */
+    private static void walk(Expression expression, Consumer<Expression> action, Run run) {
+        if (expression == null) {
+            return;
+        }
+        action.accept(expression);
+
+        if (expression instanceof Select subquery) {
+            if (run != null) {
+                run.pending.add(subquery);
+            }
+        } else if (expression instanceof ExistsExpression exists) {
+            if (run != null && exists.getRightExpression() instanceof ParenthesedSelect subquery) {
+                run.existsSubqueries.add(subquery.getSelect());
+            }
+            walk(exists.getRightExpression(), action, run);
+        } else if (expression instanceof BinaryExpression binary) {
+            walk(binary.getLeftExpression(), action, run);
+            walk(binary.getRightExpression(), action, run);
+        } else if (expression instanceof Parenthesis parenthesis) {
+            walk(parenthesis.getExpression(), action, run);
+        } else if (expression instanceof NotExpression not) {
+            walk(not.getExpression(), action, run);
+        } else if (expression instanceof ExpressionList<?> list) {
+            for (Expression item : list.getExpressions()) {
+                walk(item, action, run);
+            }
+        } else if (expression instanceof Function function) {
+            walk(function.getParameters(), action, run);
+        } else if (expression instanceof CastExpression cast) {
+            walk(cast.getLeftExpression(), action, run);
+        } else if (expression instanceof InExpression in) {
+            walk(in.getLeftExpression(), action, run);
+            walk(in.getRightExpression(), action, run);
+        } else if (expression instanceof Between between) {
+            walk(between.getLeftExpression(), action, run);
+            walk(between.getBetweenExpressionStart(), action, run);
+            walk(between.getBetweenExpressionEnd(), action, run);
+        } else if (expression instanceof IsNullExpression isNull) {
+            walk(isNull.getLeftExpression(), action, run);
+        }
+    }
+
+    private static String qualifier(FromItem item) {
+        if (item.getAlias() != null) {
+            return normalize(item.getAlias().getName());
+        }
+        return item instanceof Table table ? normalize(table.getName()) : null;
+    }
+
+    /**
+     * Identifier without quoting, lower-cased
+     */
+    static String normalize(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        return identifier.replaceAll("[`\"\\[\\]]", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Analysis result; error is set when the query could not be parsed
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Analysis {
+
+        private final boolean parsed;
+        private final List<Suggestion> findings;
+        private final String error;
+    }
+
+    /**
+     * State of one analysis: selects still to visit, tables seen and findings keyed by description
+     */
+    private static class Run {
+
+        private final Deque<Select> pending = new ArrayDeque<>();
+        private final List<PlainSelect> selects = new ArrayList<>();
+        private final Set<Select> existsSubqueries = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Set<String> tableNames = new HashSet<>();
+        private final Map<String, Suggestion> findings = new LinkedHashMap<>();
+        private SchemaKeys keys;
+
+        private void add(String type, String severity, String description, String recommendation, String improvement) {
+            findings.putIfAbsent(description, Suggestion.builder()
+                    .type(type)
+                    .severity(severity)
+                    .description(description)
+                    .recommendation(recommendation)
+                    .estimatedImprovement(improvement)
+                    .build());
+        }
+    }
+
+    /**
+     * Tables visible in one select: qualifier (alias or name) to table name; derived tables map to null
+     */
+    private static class Scope {
+
+        private final Map<String, String> tables = new LinkedHashMap<>();
+        private final SchemaKeys keys;
+
+        private Scope(SchemaKeys keys) {
+            this.keys = keys;
+        }
+
+        static Scope of(PlainSelect select, SchemaKeys keys) {
+            Scope scope = new Scope(keys);
+            for (FromItem item : fromItems(select)) {
+                String qualifier = qualifier(item);
+                if (qualifier != null) {
+                    scope.tables.put(qualifier, item instanceof Table table ? normalize(table.getName()) : null);
+                }
+            }
+            return scope;
+        }
+
+        String tableFor(String qualifier) {
+            return tables.get(qualifier);
+        }
+
+        String singleTable() {
+            return tables.size() == 1 ? tables.values().iterator().next() : null;
+        }
+
+        /**
+         * Qualifier of the table a column belongs to; unqualified columns are looked up in the schema
+         */
+        String qualifierOf(Column column) {
+            if (column.getTable() != null && column.getTable().getName() != null) {
+                return normalize(column.getTable().getName());
+            }
+            String name = normalize(column.getColumnName());
+            for (Map.Entry<String, String> entry : tables.entrySet()) {
+                if (entry.getValue() != null && keys.hasColumn(entry.getValue(), name)) {
+                    return entry.getKey();
+                }
+            }
+            return tables.size() == 1 ? tables.keySet().iterator().next() : null;
+        }
+
+        boolean isKey(Column column) {
+            String qualifier = qualifierOf(column);
+            String table = qualifier == null ? null : tables.get(qualifier);
+            return table != null && keys.isKey(table, normalize(column.getColumnName()));
+        }
+
+        /**
+         * "a.fk = b.pk" for a foreign key between the joined table and another table in scope
+         */
+        String joinHint(String qualifier) {
+            String table = tables.get(qualifier);
+            if (table == null) {
+                return null;
+            }
+            for (Map.Entry<String, String> other : tables.entrySet()) {
+                if (other.getKey().equals(qualifier) || other.getValue() == null) {
+                    continue;
+                }
+                String hint = keys.foreignKey(table, qualifier, other.getValue(), other.getKey());
+                if (hint == null) {
+                    hint = keys.foreignKey(other.getValue(), other.getKey(), table, qualifier);
+                }
+                if (hint != null) {
+                    return hint;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Columns and key columns of the tables a query references, from the cached schema
+     */
+    private static class SchemaKeys {
+
+        private final Map<String, Map<String, Object>> tables = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        static SchemaKeys of(Map<String, Object> schema, Set<String> tableNames) {
+            SchemaKeys keys = new SchemaKeys();
+            if (schema == null) {
+                return keys;
+            }
+            for (Map<String, Object> table : (List<Map<String, Object>>) schema.getOrDefault("tables", List.of())) {
+                String name = normalize((String) table.get("name"));
+                if (tableNames.contains(name)) {
+                    keys.tables.putIfAbsent(name, table);
+                }
+            }
+            return keys;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<String> columns(String table) {
+            Map<String, Object> info = tables.get(table);
+            if (info == null) {
+                return List.of();
+            }
+            List<String> columns = new ArrayList<>();
+            for (Map<String, Object> column : (List<Map<String, Object>>) info.getOrDefault("columns", List.of())) {
+                columns.add((String) column.get("name"));
+            }
+            return columns;
+        }
+
+        boolean hasColumn(String table, String column) {
+            for (String name : columns(table)) {
+                if (normalize(name).equals(column)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Primary or foreign key column
+         */
+        @SuppressWarnings("unchecked")
+        boolean isKey(String table, String column) {
+            Map<String, Object> info = tables.get(table);
+            if (info == null) {
+                return false;
+            }
+            for (String key : (List<String>) info.getOrDefault("primaryKeys", List.of())) {
+                if (normalize(key).equals(column)) {
+                    return true;
+                }
+            }
+            for (Map<String, Object> fk : (List<Map<String, Object>>) info.getOrDefault("foreignKeys", List.of())) {
+                if (column.equals(normalize((String) fk.get("columnName")))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        String foreignKey(String table, String qualifier, String referenced, String referencedQualifier) {
+            Map<String, Object> info = tables.get(table);
+            if (info == null) {
+                return null;
+            }
+            for (Map<String, Object> fk : (List<Map<String, Object>>) info.getOrDefault("foreignKeys", List.of())) {
+                if (referenced.equals(normalize((String) fk.get("referencedTable")))) {
+                    return qualifier + "." + fk.get("columnName") + " = " + referencedQualifier + "." + fk.get("referencedColumn");
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.querybuilder.backend.ai.service;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process token count estimate (cl100k BPE). Local models use their own vocabularies, so
+ * counts are approximate; they size prompt budgets and stand in when a response reports no usage.
+ */
+@Component
+public class TokenCounter {
+
+    private final Encoding encoding = Encodings.newDefaultEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+    public int count(String text) {
+        return text == null || text.isEmpty() ? 0 : encoding.countTokens(text);
+    }
+}
@@ -0,0 +1,24 @@
+package com.querybuilder.backend.ai.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Token counts and timings of one model call. Counts come from the response metadata when the
+ * model reports them, otherwise from {@link TokenCounter} (estimated). Durations are null when
+ * the model does not report how long prompt processing and generation took.
+ */
+@Getter
+@AllArgsConstructor
+public class TokenUsage {
+
+    private final int promptTokens;
+    private final int completionTokens;
+    private final boolean estimated;
+    private final Long promptEvalMs;
+    private final Long generationMs;
+
+    public int getTotalTokens() {
+        return promptTokens + completionTokens;
+    }
+}
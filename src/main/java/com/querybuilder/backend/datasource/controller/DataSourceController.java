@@ -3,19 +3,27 @@ package com.querybuilder.backend.datasource.controller;
 import com.querybuilder.backend.auth.model.User;
 import com.querybuilder.backend.datasource.dto.*;
 import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.model.TableStatistics;
 import com.querybuilder.backend.datasource.repository.DataSourceRepository;
 import com.querybuilder.backend.datasource.service.DataSourceService;
+import com.querybuilder.backend.datasource.service.SchemaAutocompleteService;
+import com.querybuilder.backend.datasource.service.SchemaBrowserService;
 import com.querybuilder.backend.datasource.service.SchemaDiscoveryService;
+import com.querybuilder.backend.datasource.service.SchemaJoinGraphService;
+import com.querybuilder.backend.datasource.service.SchemaStatisticsService;
 import com.querybuilder.backend.shared.dto.ApiResponse;
 import com.querybuilder.backend.shared.exception.ResourceNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -31,6 +39,10 @@ public class DataSourceController {
 
     private final DataSourceService dataSourceService;
     private final SchemaDiscoveryService schemaDiscoveryService;
+    private final SchemaBrowserService schemaBrowserService;
+    private final SchemaAutocompleteService schemaAutocompleteService;
+    private final SchemaJoinGraphService schemaJoinGraphService;
+    private final SchemaStatisticsService schemaStatisticsService;
     private final DataSourceRepository dataSourceRepository;
 
     /**
@@ -162,6 +174,183 @@ public class DataSourceController {
         );
     }
 
+    /**
+     * List schema names without discovering tables
+     * GET /api/datasources/{id}/schema/schemas
+     */
+    @GetMapping("/{id}/schema/schemas")
+    public ResponseEntity<ApiResponse<List<String>>> listSchemas(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("GET /api/datasources/{}/schema/schemas - User: {}", id, user.getEmail());
+
+        DataSource dataSource = dataSourceRepository.findByIdAndUserAndDeletedFalse(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("DataSource", "id", id));
+
+        List<String> schemas = schemaBrowserService.listSchemas(dataSource);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Schemas retrieved successfully", schemas)
+        );
+    }
+
+    /**
+     * Page through table names, optionally within one schema and filtered by name
+     * GET /api/datasources/{id}/schema/tables?schema=&filter=&page=&size=
+     */
+    @GetMapping("/{id}/schema/tables")
+    public ResponseEntity<ApiResponse<Page<Map<String, Object>>>> listTables(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String schema,
+            @RequestParam(required = false) String filter,
+            @AuthenticationPrincipal User user,
+            Pageable pageable
+    ) {
+        log.info("GET /api/datasources/{}/schema/tables - User: {}", id, user.getEmail());
+
+        DataSource dataSource = dataSourceRepository.findByIdAndUserAndDeletedFalse(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("DataSource", "id", id));
+
+        Page<Map<String, Object>> tables = schemaBrowserService.listTables(dataSource, schema, filter, pageable);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Tables retrieved successfully", tables)
+        );
+    }
+
+    /**
+     * Get one table's columns, keys and indexes
+     * GET /api/datasources/{id}/schema/tables/{tableName}?schema=
+     */
+    @GetMapping("/{id}/schema/tables/{tableName}")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getTable(
+            @PathVariable UUID id,
+            @PathVariable String tableName,
+            @RequestParam(required = false) String schema,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("GET /api/datasources/{}/schema/tables/{} - User: {}", id, tableName, user.getEmail());
+
+        DataSource dataSource = dataSourceRepository.findByIdAndUserAndDeletedFalse(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("DataSource", "id", id));
+
+        Map<String, Object> table = schemaBrowserService.getTable(dataSource, schema, tableName);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Table retrieved successfully", table)
+        );
+    }
+
+    /**
+     * Get row counts and column statistics, optionally for tables whose name contains a filter
+     * GET /api/datasources/{id}/schema/statistics?table=
+     */
+    @GetMapping("/{id}/schema/statistics")
+    public ResponseEntity<ApiResponse<SchemaStatisticsResponse>> getSchemaStatistics(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String table,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("GET /api/datasources/{}/schema/statistics - User: {}", id, user.getEmail());
+
+        DataSource dataSource = dataSourceRepository.findByIdAndUserAndDeletedFalse(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("DataSource", "id", id));
+
+        SchemaStatisticsService.CollectedStatistics statistics =
+                schemaStatisticsService.getStatistics(dataSource).orElse(null);
+
+        Map<String, TableStatistics> tables = new LinkedHashMap<>();
+        if (statistics != null) {
+            statistics.getTables().forEach((key, tableStatistics) -> {
+                if (table == null || key.toLowerCase().contains(table.toLowerCase())) {
+                    tables.put(key, tableStatistics);
+                }
+            });
+        }
+
+        SchemaStatisticsResponse response = SchemaStatisticsResponse.builder()
+                .collectedAt(statistics != null ? statistics.getCollectedAt() : null)
+                .collectionPending(schemaStatisticsService.isCollectionPending(dataSource))
+                .tables(tables)
+                .build();
+
+        return ResponseEntity.ok(
+                ApiResponse.success(statistics != null
+                        ? "Statistics retrieved successfully"
+                        : "Statistics collection scheduled", response)
+        );
+    }
+
+    /**
+     * Suggest table and column names for the SQL editor
+     * GET /api/datasources/{id}/autocomplete?q=&table=&limit=
+     */
+    @GetMapping("/{id}/autocomplete")
+    public ResponseEntity<ApiResponse<List<AutocompleteSuggestion>>> autocomplete(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) String table,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal User user
+    ) {
+        log.debug("GET /api/datasources/{}/autocomplete - User: {}", id, user.getEmail());
+
+        DataSource dataSource = dataSourceRepository.findByIdAndUserAndDeletedFalse(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("DataSource", "id", id));
+
+        List<AutocompleteSuggestion> suggestions = schemaAutocompleteService.suggest(dataSource, q, table, limit);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Suggestions retrieved successfully", suggestions)
+        );
+    }
+
+    /**
+     * Find join paths between tables along foreign keys
+     * GET /api/datasources/{id}/joins?tables=orders,customers&limit=&maxHops=
+     */
+    @GetMapping("/{id}/joins")
+    public ResponseEntity<ApiResponse<List<JoinPathResponse>>> findJoinPaths(
+            @PathVariable UUID id,
+            @RequestParam List<String> tables,
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(defaultValue = "4") int maxHops,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("GET /api/datasources/{}/joins - User: {}, Tables: {}", id, user.getEmail(), tables);
+
+        DataSource dataSource = dataSourceRepository.findByIdAndUserAndDeletedFalse(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("DataSource", "id", id));
+
+        List<JoinPathResponse> paths = schemaJoinGraphService.findJoinPaths(dataSource, tables, limit, maxHops);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Join paths retrieved successfully", paths)
+        );
+    }
+
+    /**
+     * Get progress of an in-flight schema discovery
+     * GET /api/datasources/{id}/schema/progress
+     */
+    @GetMapping("/{id}/schema/progress")
+    public ResponseEntity<ApiResponse<SchemaDiscoveryProgressResponse>> getSchemaDiscoveryProgress(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("GET /api/datasources/{}/schema/progress - User: {}", id, user.getEmail());
+
+        DataSource dataSource = dataSourceRepository.findByIdAndUserAndDeletedFalse(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("DataSource", "id", id));
+
+        return schemaDiscoveryService.getDiscoveryProgress(dataSource)
+                .map(progress -> ResponseEntity.ok(
+                        ApiResponse.success("Schema discovery in progress", progress)))
+                .orElseGet(() -> ResponseEntity.ok(
+                        ApiResponse.success("No schema discovery in progress", null)));
+    }
+
     /**
      * Clear schema cache
      * DELETE /api/datasources/{id}/schema/cache
@@ -0,0 +1,20 @@
+package com.querybuilder.backend.datasource.dto;
+
+import com.querybuilder.backend.datasource.service.SchemaAutocompleteIndex;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteSuggestion {
+
+    private String name;
+    private SchemaAutocompleteIndex.Kind kind;
+    private String table;       // owning table for columns, the table itself for tables
+    private String schema;
+    private String dataType;    // column type, or TABLE / VIEW for tables
+}
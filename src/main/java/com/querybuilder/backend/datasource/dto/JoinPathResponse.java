@@ -0,0 +1,32 @@
+package com.querybuilder.backend.datasource.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JoinPathResponse {
+
+    private List<String> tables;        // tables in join order, starting with the first requested
+    private List<JoinStep> joins;
+    private int hops;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class JoinStep {
+
+        private String fromTable;           // table already in the join
+        private String toTable;             // table being joined
+        private List<String> fromColumns;
+        private List<String> toColumns;
+        private String condition;           // e.g. orders.customer_id = customers.id
+    }
+}
@@ -0,0 +1,26 @@
+package com.querybuilder.backend.datasource.dto;
+
+import com.querybuilder.backend.datasource.service.SchemaDiscoveryProgress;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaDiscoveryProgressResponse {
+
+    private String dataSourceId;
+    private SchemaDiscoveryProgress.Phase phase;
+    private Boolean parallel;
+    private Integer totalTables;
+    private Integer totalUnits;      // column partitions plus key queries
+    private Integer completedUnits;
+    private Integer percentComplete;
+    private Instant startedAt;
+    private Long elapsedMs;
+}
@@ -0,0 +1,21 @@
+package com.querybuilder.backend.datasource.dto;
+
+import com.querybuilder.backend.datasource.model.TableStatistics;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaStatisticsResponse {
+
+    private LocalDateTime collectedAt;          // null until the first collection finishes
+    private boolean collectionPending;          // a (re)collection is queued or running
+    private Map<String, TableStatistics> tables;    // keyed by "schema.table"
+}
@@ -28,8 +28,18 @@ public class SchemaCache extends BaseEntity {
     @JoinColumn(name = "datasource_id", nullable = false)
     private DataSource dataSource;
 
-    @Column(name = "schema_data", columnDefinition = "LONGTEXT", nullable = false)
-    private String schemaData;  // JSON string with tables, columns, relationships
+    @Column(name = "schema_data", columnDefinition = "LONGTEXT")
+    private String schemaData;  // Legacy JSON form, replaced by schemaBlob on first read
+
+    @Column(name = "schema_blob", columnDefinition = "LONGBLOB")
+    private byte[] schemaBlob;  // SchemaSnapshot as zstd-compressed Smile
+
+    @Column(name = "schema_version", nullable = false)
+    @Builder.Default
+    private Long schemaVersion = 0L;
+
+    @Column(name = "table_fingerprints", columnDefinition = "LONGTEXT")
+    private String tableFingerprints;  // JSON map of table key to structural fingerprint
 
     @Column(name = "cached_at", nullable = false)
     @Builder.Default
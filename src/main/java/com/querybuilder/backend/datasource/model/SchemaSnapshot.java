@@ -0,0 +1,156 @@
+package com.querybuilder.backend.datasource.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.*;
+
+/**
+ * Typed form of a discovered schema, used for compact binary storage in schema_cache.
+ * Converts to and from the map shape the rest of the application reads.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaSnapshot {
+
+    private String databaseType;
+    private String databaseName;
+    private String discoveredAt;
+    private List<Table> tables;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Table {
+
+        private String name;
+        private String schema;
+        private String type;
+        private List<Column> columns;
+        private List<String> primaryKeys;
+        private List<ForeignKey> foreignKeys;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Column {
+
+        private String name;
+        private String type;
+        private Integer size;
+        private Boolean nullable;
+        private String defaultValue;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ForeignKey {
+
+        private String columnName;
+        private String referencedTable;
+        private String referencedColumn;
+        private String constraintName;  // null in schemas cached before constraint names were read
+        private Integer keySequence;    // position within a multi-column key, from 1
+    }
+
+    @SuppressWarnings("unchecked")
+    public static SchemaSnapshot fromMap(Map<String, Object> schema) {
+        List<Table> tables = new ArrayList<>();
+        for (Map<String, Object> table : (List<Map<String, Object>>) schema.getOrDefault("tables", List.of())) {
+            List<Column> columns = new ArrayList<>();
+            for (Map<String, Object> column : (List<Map<String, Object>>) table.getOrDefault("columns", List.of())) {
+                columns.add(Column.builder()
+                        .name((String) column.get("name"))
+                        .type((String) column.get("type"))
+                        .size(column.get("size") == null ? null : ((Number) column.get("size")).intValue())
+                        .nullable((Boolean) column.get("nullable"))
+                        .defaultValue((String) column.get("defaultValue"))
+                        .build());
+            }
+
+            List<ForeignKey> foreignKeys = new ArrayList<>();
+            for (Map<String, Object> fk : (List<Map<String, Object>>) table.getOrDefault("foreignKeys", List.of())) {
+                foreignKeys.add(ForeignKey.builder()
+                        .columnName((String) fk.get("columnName"))
+                        .referencedTable((String) fk.get("referencedTable"))
+                        .referencedColumn((String) fk.get("referencedColumn"))
+                        .constraintName((String) fk.get("constraintName"))
+                        .keySequence(fk.get("keySequence") == null ? null : ((Number) fk.get("keySequence")).intValue())
+                        .build());
+            }
+
+            tables.add(Table.builder()
+                    .name((String) table.get("name"))
+                    .schema((String) table.get("schema"))
+                    .type((String) table.get("type"))
+                    .columns(columns)
+                    .primaryKeys(new ArrayList<>((List<String>) table.getOrDefault("primaryKeys", List.of())))
+                    .foreignKeys(foreignKeys)
+                    .build());
+        }
+
+        return SchemaSnapshot.builder()
+                .databaseType((String) schema.get("databaseType"))
+                .databaseName((String) schema.get("databaseName"))
+                .discoveredAt((String) schema.get("discoveredAt"))
+                .tables(tables)
+                .build();
+    }
+
+    public Map<String, Object> toMap() {
+        List<Map<String, Object>> tableMaps = new ArrayList<>(tables.size());
+        for (Table table : tables) {
+            List<Map<String, Object>> columnMaps = new ArrayList<>(table.getColumns().size());
+            for (Column column : table.getColumns()) {
+                Map<String, Object> columnInfo = new HashMap<>();
+                columnInfo.put("name", column.getName());
+                columnInfo.put("type", column.getType());
+                columnInfo.put("size", column.getSize());
+                columnInfo.put("nullable", column.getNullable());
+                columnInfo.put("defaultValue", column.getDefaultValue());
+                columnMaps.add(columnInfo);
+            }
+
+            List<Map<String, Object>> foreignKeyMaps = new ArrayList<>(table.getForeignKeys().size());
+            for (ForeignKey fk : table.getForeignKeys()) {
+                Map<String, Object> fkInfo = new HashMap<>();
+                fkInfo.put("columnName", fk.getColumnName());
+                fkInfo.put("referencedTable", fk.getReferencedTable());
+                fkInfo.put("referencedColumn", fk.getReferencedColumn());
+                // Left out when unknown, so schemas cached before they were read round-trip unchanged
+                if (fk.getConstraintName() != null) {
+                    fkInfo.put("constraintName", fk.getConstraintName());
+                }
+                if (fk.getKeySequence() != null) {
+                    fkInfo.put("keySequence", fk.getKeySequence());
+                }
+                foreignKeyMaps.add(fkInfo);
+            }
+
+            Map<String, Object> tableInfo = new HashMap<>();
+            tableInfo.put("name", table.getName());
+            tableInfo.put("schema", table.getSchema());
+            tableInfo.put("type", table.getType());
+            tableInfo.put("columns", columnMaps);
+            tableInfo.put("primaryKeys", new ArrayList<>(table.getPrimaryKeys()));
+            tableInfo.put("foreignKeys", foreignKeyMaps);
+            tableMaps.add(tableInfo);
+        }
+
+        Map<String, Object> schema = new HashMap<>();
+        schema.put("databaseType", databaseType);
+        schema.put("databaseName", databaseName);
+        schema.put("discoveredAt", discoveredAt);
+        schema.put("tables", tableMaps);
+        return schema;
+    }
+}
@@ -0,0 +1,31 @@
+package com.querybuilder.backend.datasource.model;
+
+import com.querybuilder.backend.shared.model.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Table and column statistics of a data source, kept next to its schema_cache row but in
+ * their own table so a schema refresh does not discard them
+ */
+@Entity
+@Table(name = "schema_statistics")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchemaStatistics extends BaseEntity {
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "datasource_id", nullable = false, unique = true)
+    private DataSource dataSource;
+
+    @Column(name = "statistics_data", nullable = false, columnDefinition = "LONGTEXT")
+    private String statisticsData;  // JSON map of table key to TableStatistics
+
+    @Column(name = "collected_at", nullable = false)
+    private LocalDateTime collectedAt;
+}
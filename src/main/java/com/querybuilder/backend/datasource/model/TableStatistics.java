@@ -0,0 +1,37 @@
+package com.querybuilder.backend.datasource.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Optimizer statistics of one table as last gathered by the target database. Every value is
+ * an estimate and may be missing when the database has not analyzed the table or column.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableStatistics {
+
+    private Long rowCount;
+
+    @Builder.Default
+    private Map<String, ColumnStatistics> columns = new LinkedHashMap<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ColumnStatistics {
+
+        private Long distinctCount;
+        private Double nullFraction;
+        private String minValue;
+        private String maxValue;
+    }
+}
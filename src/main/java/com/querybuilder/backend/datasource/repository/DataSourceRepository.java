@@ -22,6 +22,11 @@ public interface DataSourceRepository extends JpaRepository<DataSource, UUID> {
      */
     Optional<DataSource> findByIdAndUserAndDeletedFalse(UUID id, User user);
 
+    /**
+     * Find data source by ID regardless of owner (excluding soft-deleted)
+     */
+    Optional<DataSource> findByIdAndDeletedFalse(UUID id);
+
     /**
      * Check if user has data source with given name
      */
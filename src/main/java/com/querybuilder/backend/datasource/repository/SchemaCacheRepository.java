@@ -20,11 +20,29 @@ public interface SchemaCacheRepository extends JpaRepository<SchemaCache, UUID>
     @Query("SELECT sc FROM SchemaCache sc WHERE sc.dataSource = :dataSource AND sc.expiresAt > :now")
     Optional<SchemaCache> findValidCacheByDataSource(DataSource dataSource, LocalDateTime now);
 
+    /**
+     * Find the latest cache for data source, expired or not
+     */
+    Optional<SchemaCache> findFirstByDataSourceOrderBySchemaVersionDesc(DataSource dataSource);
+
+    /**
+     * Extend the expiry of an unchanged schema version; returns 0 when that version is no longer stored
+     */
+    @Modifying
+    @Query("UPDATE SchemaCache sc SET sc.cachedAt = :cachedAt, sc.expiresAt = :expiresAt " +
+            "WHERE sc.dataSource = :dataSource AND sc.schemaVersion = :schemaVersion")
+    int renewCache(DataSource dataSource, Long schemaVersion, LocalDateTime cachedAt, LocalDateTime expiresAt);
+
     /**
      * Delete cache for data source
      */
     void deleteByDataSource(DataSource dataSource);
 
+    /**
+     * Delete one cached version of a data source's schema
+     */
+    void deleteByDataSourceAndSchemaVersion(DataSource dataSource, Long schemaVersion);
+
     /**
      * Delete all expired caches
      */
@@ -0,0 +1,17 @@
+package com.querybuilder.backend.datasource.repository;
+
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.model.SchemaStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SchemaStatisticsRepository extends JpaRepository<SchemaStatistics, UUID> {
+
+    Optional<SchemaStatistics> findByDataSource(DataSource dataSource);
+
+    void deleteByDataSource(DataSource dataSource);
+}
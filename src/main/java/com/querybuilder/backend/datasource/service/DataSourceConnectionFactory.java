@@ -0,0 +1,109 @@
+package com.querybuilder.backend.datasource.service;
+
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.model.DatabaseType;
+import com.querybuilder.backend.shared.util.EncryptionUtil;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Opens JDBC connections to user data sources
+ */
+@Component
+@RequiredArgsConstructor
+public class DataSourceConnectionFactory {
+
+    // Reported to SQL Server as program_name, so a server-side kill can recognise its own sessions
+    public static final String APPLICATION_NAME = "query-builder";
+
+    private final EncryptionUtil encryptionUtil;
+
+    private static final int STREAMING_FETCH_SIZE = 5_000;
+
+    /**
+     * Open a new connection to the data source
+     */
+    public Connection getConnection(DataSource dataSource) throws SQLException {
+        String decryptedPassword = encryptionUtil.decrypt(dataSource.getPassword());
+
+        return DriverManager.getConnection(
+                buildJdbcUrl(dataSource), dataSource.getUsername(), decryptedPassword);
+    }
+
+    /**
+     * Create a forward-only statement that streams rows instead of buffering the whole result
+     */
+    public Statement createStreamingStatement(Connection connection, DatabaseType databaseType) throws SQLException {
+        Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+        switch (databaseType) {
+            // Connector/J only streams row by row with this sentinel fetch size
+            case MYSQL -> statement.setFetchSize(Integer.MIN_VALUE);
+            // pgJDBC only uses a server-side cursor outside auto-commit
+            case POSTGRESQL -> {
+                connection.setAutoCommit(false);
+                statement.setFetchSize(STREAMING_FETCH_SIZE);
+            }
+            default -> statement.setFetchSize(STREAMING_FETCH_SIZE);
+        }
+
+        return statement;
+    }
+
+    /**
+     * Create a small, short-lived connection pool for parallel work against the data source.
+     * Callers must close the pool when done.
+     */
+    public HikariDataSource createPool(DataSource dataSource, int maxConnections, String purpose) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(buildJdbcUrl(dataSource));
+        config.setUsername(dataSource.getUsername());
+        config.setPassword(encryptionUtil.decrypt(dataSource.getPassword()));
+        config.setMaximumPoolSize(maxConnections);
+        config.setMinimumIdle(0);
+        config.setReadOnly(true);
+        config.setPoolName(purpose + "-" + dataSource.getId());
+
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Build JDBC URL
+     */
+    public String buildJdbcUrl(DataSource dataSource) {
+        String sslParam = Boolean.TRUE.equals(dataSource.getSslEnabled()) ? "&useSSL=true" : "&useSSL=false";
+
+        return switch (dataSource.getDatabaseType()) {
+            case MYSQL -> String.format(
+                    "jdbc:mysql://%s:%d/%s?serverTimezone=UTC%s",
+                    dataSource.getHost(), dataSource.getPort(),
+                    dataSource.getDatabaseName(), sslParam
+            );
+
+            case POSTGRESQL -> String.format(
+                    "jdbc:postgresql://%s:%d/%s?ssl=%s",
+                    dataSource.getHost(), dataSource.getPort(),
+                    dataSource.getDatabaseName(), dataSource.getSslEnabled() ? "true" : "false"
+            );
+
+            case SQLSERVER -> String.format(
+                    "jdbc:sqlserver://%s:%d;databaseName=%s;encrypt=%s;applicationName=%s",
+                    dataSource.getHost(), dataSource.getPort(),
+                    dataSource.getDatabaseName(), dataSource.getSslEnabled() ? "true" : "false", APPLICATION_NAME
+            );
+
+            case ORACLE -> String.format(
+                    "jdbc:oracle:thin:@%s:%d:%s",
+                    dataSource.getHost(), dataSource.getPort(), dataSource.getDatabaseName()
+            );
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.querybuilder.backend.datasource.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.querybuilder.backend.auth.model.User;
 import com.querybuilder.backend.datasource.dto.*;
 import com.querybuilder.backend.datasource.model.ConnectionStatus;
@@ -29,8 +30,13 @@ public class DataSourceService {
 
     private final DataSourceRepository dataSourceRepository;
     private final SchemaCacheRepository schemaCacheRepository;
+    private final SchemaMemoryCache schemaMemoryCache;
+    private final SchemaBrowserService schemaBrowserService;
+    private final SchemaStatisticsService schemaStatisticsService;
+    private final SchemaDiscoveryService schemaDiscoveryService;
     private final EncryptionUtil encryptionUtil;
     private final ConnectionTestService connectionTestService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Get all data sources for a user
@@ -69,6 +75,9 @@ public class DataSourceService {
             throw new ResourceAlreadyExistsException("DataSource", "name", request.getName());
         }
 
+        // Reject malformed schema filters before anything is stored
+        SchemaFilter.fromConnectionParams(request.getConnectionParams(), objectMapper);
+
         // Encrypt password
         String encryptedPassword = encryptionUtil.encrypt(request.getPassword());
 
@@ -138,11 +147,16 @@ public class DataSourceService {
         }
 
         if (request.getConnectionParams() != null) {
+            SchemaFilter.fromConnectionParams(request.getConnectionParams(), objectMapper);
             dataSource.setConnectionParams(request.getConnectionParams());
         }
 
-        // Clear cached schema when connection details change
+        // Clear cached schema when connection details change; a discovery of the old connection is dropped first
+        schemaDiscoveryService.evict(dataSource.getId());
         schemaCacheRepository.deleteByDataSource(dataSource);
+        schemaMemoryCache.evict(dataSource.getId());
+        schemaBrowserService.evict(dataSource.getId());
+        schemaStatisticsService.evict(dataSource);
 
         dataSource = dataSourceRepository.save(dataSource);
         log.info("Data source updated: {}", dataSource.getId());
@@ -164,7 +178,11 @@ public class DataSourceService {
         dataSourceRepository.save(dataSource);
 
         // Clear cached schema
+        schemaDiscoveryService.evict(dataSource.getId());
         schemaCacheRepository.deleteByDataSource(dataSource);
+        schemaMemoryCache.evict(dataSource.getId());
+        schemaBrowserService.evict(dataSource.getId());
+        schemaStatisticsService.evict(dataSource);
 
         log.info("Data source soft-deleted: {}", dataSource.getId());
     }
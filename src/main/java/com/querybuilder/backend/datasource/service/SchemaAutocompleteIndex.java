@@ -0,0 +1,358 @@
+package com.querybuilder.backend.datasource.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * Immutable identifier index for one schema version. Identifiers are grouped by distinct
+ * lower-cased name, separately for tables and columns, since column names repeat across
+ * tables. Prefix lookups binary-search the sorted distinct names (a flattened trie); fuzzy
+ * lookups count shared trigrams through posting lists over the same names. Per-table
+ * identifiers are kept in segments so the next version reuses every unchanged table.
+ */
+public class SchemaAutocompleteIndex {
+
+    public enum Kind {
+        TABLE,
+        COLUMN
+    }
+
+    // Scanning stops after this many distinct prefix matches per kind
+    private static final int MAX_PREFIX_SCAN = 10_000;
+    private static final double MIN_FUZZY_SCORE = 0.6;
+
+    @Getter
+    private final long version;
+    private final Map<String, TableSegment> segments;
+    private final NameIndex tables;
+    private final NameIndex columns;
+    private final Map<String, List<Identifier>> columnsByTable;
+    private final int size;
+
+    private SchemaAutocompleteIndex(long version, Map<String, TableSegment> segments) {
+        this.version = version;
+        this.segments = segments;
+
+        List<Identifier> tableIdentifiers = new ArrayList<>();
+        List<Identifier> columnIdentifiers = new ArrayList<>();
+        Map<String, List<Identifier>> byTable = new HashMap<>();
+        for (TableSegment segment : segments.values()) {
+            tableIdentifiers.add(segment.table);
+            columnIdentifiers.addAll(segment.columns);
+            byTable.computeIfAbsent(segment.table.lowerName, k -> new ArrayList<>()).addAll(segment.columns);
+        }
+
+        this.tables = new NameIndex(Kind.TABLE, tableIdentifiers);
+        this.columns = new NameIndex(Kind.COLUMN, columnIdentifiers);
+        this.columnsByTable = byTable;
+        this.size = tableIdentifiers.size() + columnIdentifiers.size();
+    }
+
+    /**
+     * Build the index for a schema version, reusing table segments of the previous index whose
+     * fingerprint is unchanged (or whose table map is equal when fingerprints are unavailable)
+     */
+    @SuppressWarnings("unchecked")
+    public static SchemaAutocompleteIndex build(long version, Map<String, Object> schema,
+                                                Map<String, String> tableFingerprints,
+                                                SchemaAutocompleteIndex previous) {
+
+        Map<String, TableSegment> segments = new LinkedHashMap<>();
+        for (Map<String, Object> table : (List<Map<String, Object>>) schema.getOrDefault("tables", List.of())) {
+            String key = table.get("schema") + "." + table.get("name");
+            String fingerprint = tableFingerprints == null ? null : tableFingerprints.get(key);
+
+            TableSegment reused = previous == null ? null : previous.segments.get(key);
+            if (reused != null && (fingerprint != null
+                    ? fingerprint.equals(reused.fingerprint)
+                    : reused.fingerprint == null && table.equals(reused.source))) {
+                segments.put(key, reused);
+            } else {
+                segments.put(key, TableSegment.of(table, fingerprint));
+            }
+        }
+
+        return new SchemaAutocompleteIndex(version, segments);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Suggest identifiers for what the user typed: exact and prefix matches first, then names
+     * containing or resembling the query. With a table, only that table's columns are considered.
+     */
+    public List<Identifier> suggest(String query, String table, int limit) {
+        String lowerQuery = query == null ? "" : query.toLowerCase(Locale.ROOT);
+
+        if (table != null && !table.isBlank()) {
+            return suggestColumns(lowerQuery, table.toLowerCase(Locale.ROOT), limit);
+        }
+        if (lowerQuery.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Rank distinct names first; the best limit names always hold the best limit identifiers
+        PriorityQueue<Match> best = new PriorityQueue<>(Comparator.reverseOrder());
+        tables.prefix(lowerQuery, best, limit);
+        columns.prefix(lowerQuery, best, limit);
+
+        if (best.size() < limit && lowerQuery.length() >= 3) {
+            Set<String> queryTrigrams = new HashSet<>();
+            for (int i = 0; i + 3 <= lowerQuery.length(); i++) {
+                queryTrigrams.add(lowerQuery.substring(i, i + 3));
+            }
+            tables.fuzzy(lowerQuery, queryTrigrams, best, limit);
+            columns.fuzzy(lowerQuery, queryTrigrams, best, limit);
+        }
+
+        List<Match> matches = new ArrayList<>(best);
+        Collections.sort(matches);
+
+        List<Identifier> suggestions = new ArrayList<>(limit);
+        for (Match match : matches) {
+            for (Identifier identifier : match.identifiers) {
+                if (suggestions.size() == limit) {
+                    return suggestions;
+                }
+                suggestions.add(identifier);
+            }
+        }
+        return suggestions;
+    }
+
+    private List<Identifier> suggestColumns(String lowerQuery, String lowerTable, int limit) {
+        List<Identifier> tableColumns = columnsByTable.getOrDefault(lowerTable, List.of());
+        PriorityQueue<Match> best = new PriorityQueue<>(Comparator.reverseOrder());
+
+        for (Identifier column : tableColumns) {
+            if (column.lowerName.startsWith(lowerQuery)) {
+                int tier = column.lowerName.length() == lowerQuery.length() ? 0 : 1;
+                offer(best, new Match(Kind.COLUMN, column.lowerName, tier, 1.0, List.of(column)), limit);
+            } else if (!lowerQuery.isEmpty() && column.lowerName.contains(lowerQuery)) {
+                offer(best, new Match(Kind.COLUMN, column.lowerName, 2, 1.0, List.of(column)), limit);
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(best);
+        Collections.sort(matches);
+        return matches.stream().map(match -> match.identifiers.get(0)).toList();
+    }
+
+    private static void offer(PriorityQueue<Match> best, Match match, int limit) {
+        best.add(match);
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    /**
+     * Trigrams of a lower-cased name, padded so that leading characters carry extra weight
+     */
+    private static String[] trigrams(String lowerName) {
+        String padded = "  " + lowerName + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams.toArray(new String[0]);
+    }
+
+    /**
+     * Sorted distinct names of one kind with their identifiers and trigram postings
+     */
+    private static class NameIndex {
+
+        private final Kind kind;
+        private final String[] names;
+        private final List<Identifier>[] identifiers;
+        private final Map<String, int[]> postings;
+
+        @SuppressWarnings("unchecked")
+        NameIndex(Kind kind, List<Identifier> all) {
+            this.kind = kind;
+
+            Map<String, List<Identifier>> byName = new HashMap<>();
+            for (Identifier identifier : all) {
+                byName.computeIfAbsent(identifier.lowerName, k -> new ArrayList<>(1)).add(identifier);
+            }
+
+            this.names = byName.keySet().toArray(new String[0]);
+            Arrays.sort(names);
+            this.identifiers = new List[names.length];
+
+            // Two passes over the trigrams so each posting list is allocated once at its final size
+            String[][] nameTrigrams = new String[names.length][];
+            Map<String, int[]> counts = new HashMap<>();
+            for (int id = 0; id < names.length; id++) {
+                List<Identifier> sameName = byName.get(names[id]);
+                if (sameName.size() > 1) {
+                    sameName.sort(Comparator.comparing(identifier -> String.valueOf(identifier.table)));
+                }
+                identifiers[id] = sameName;
+
+                nameTrigrams[id] = trigrams(names[id]);
+                for (String trigram : nameTrigrams[id]) {
+                    counts.computeIfAbsent(trigram, k -> new int[1])[0]++;
+                }
+            }
+
+            this.postings = new HashMap<>(counts.size() * 2);
+            counts.forEach((trigram, count) -> postings.put(trigram, new int[count[0]]));
+            for (int id = 0; id < names.length; id++) {
+                for (String trigram : nameTrigrams[id]) {
+                    int[] count = counts.get(trigram);
+                    int[] ids = postings.get(trigram);
+                    ids[ids.length - count[0]--] = id;
+                }
+            }
+        }
+
+        void prefix(String lowerQuery, PriorityQueue<Match> best, int limit) {
+            int from = lowerBound(lowerQuery);
+            for (int i = from; i < names.length && i - from < MAX_PREFIX_SCAN; i++) {
+                if (!names[i].startsWith(lowerQuery)) {
+                    break;
+                }
+                int tier = names[i].length() == lowerQuery.length() ? 0 : 1;
+                if (best.size() == limit && !best.peek().worseThan(tier, 1.0, kind, names[i])) {
+                    continue;   // cannot enter the top list; skip allocating a match
+                }
+                offer(best, new Match(kind, names[i], tier, 1.0, identifiers[i]), limit);
+            }
+        }
+
+        /**
+         * Score names by the share of the query's trigrams they contain; a substring scores 1.0.
+         * Names that already matched as a prefix are skipped.
+         */
+        void fuzzy(String lowerQuery, Set<String> queryTrigrams, PriorityQueue<Match> best, int limit) {
+            int[] hits = new int[names.length];
+            int[] touched = new int[names.length];
+            int touchedCount = 0;
+            for (String trigram : queryTrigrams) {
+                for (int id : postings.getOrDefault(trigram, new int[0])) {
+                    if (hits[id]++ == 0) {
+                        touched[touchedCount++] = id;
+                    }
+                }
+            }
+
+            for (int i = 0; i < touchedCount; i++) {
+                int id = touched[i];
+                double score = (double) hits[id] / queryTrigrams.size();
+                if (score >= MIN_FUZZY_SCORE && !names[id].startsWith(lowerQuery)
+                        && (best.size() < limit || best.peek().worseThan(2, score, kind, names[id]))) {
+                    offer(best, new Match(kind, names[id], 2, score, identifiers[id]), limit);
+                }
+            }
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = names.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (names[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * One table or column name
+     */
+    @Getter
+    public static class Identifier {
+
+        private final Kind kind;
+        private final String name;
+        private final String table;
+        private final String schema;
+        private final String dataType;
+        private final String lowerName;
+
+        Identifier(Kind kind, String name, String table, String schema, String dataType) {
+            this.kind = kind;
+            this.name = name;
+            this.table = table;
+            this.schema = schema;
+            this.dataType = dataType;
+            this.lowerName = name.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * A table's own identifier and its columns
+     */
+    @AllArgsConstructor
+    private static class TableSegment {
+
+        private final Map<String, Object> source;
+        private final String fingerprint;
+        private final Identifier table;
+        private final List<Identifier> columns;
+
+        @SuppressWarnings("unchecked")
+        static TableSegment of(Map<String, Object> table, String fingerprint) {
+            String tableName = (String) table.get("name");
+            String schema = (String) table.get("schema");
+
+            List<Identifier> columns = new ArrayList<>();
+            for (Map<String, Object> column : (List<Map<String, Object>>) table.getOrDefault("columns", List.of())) {
+                columns.add(new Identifier(Kind.COLUMN, (String) column.get("name"), tableName, schema,
+                        (String) column.get("type")));
+            }
+
+            Identifier tableIdentifier = new Identifier(Kind.TABLE, tableName, tableName, schema,
+                    (String) table.get("type"));
+            return new TableSegment(table, fingerprint, tableIdentifier, columns);
+        }
+    }
+
+    /**
+     * One distinct name and its identifiers. Ordered best first: exact, then prefix, then fuzzy
+     * by score; tables before columns; shorter names first.
+     */
+    @AllArgsConstructor
+    private static class Match implements Comparable<Match> {
+
+        private final Kind kind;
+        private final String lowerName;
+        private final int tier;
+        private final double score;
+        private final List<Identifier> identifiers;
+
+        /**
+         * Whether this match ranks below a candidate with the given attributes
+         */
+        boolean worseThan(int otherTier, double otherScore, Kind otherKind, String otherName) {
+            return compareTo(new Match(otherKind, otherName, otherTier, otherScore, List.of())) > 0;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            int result = Integer.compare(tier, other.tier);
+            if (result == 0) {
+                result = Double.compare(other.score, score);
+            }
+            if (result == 0) {
+                result = kind.compareTo(other.kind);
+            }
+            if (result == 0) {
+                result = Integer.compare(lowerName.length(), other.lowerName.length());
+            }
+            if (result == 0) {
+                result = lowerName.compareTo(other.lowerName);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.querybuilder.backend.datasource.service;
+
+import com.querybuilder.backend.datasource.dto.AutocompleteSuggestion;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.service.SchemaMemoryCache.CachedSchema;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Table and column suggestions for the SQL editor, served from a per-data-source identifier
+ * index that follows the cached schema version
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaAutocompleteService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final SchemaDiscoveryService schemaDiscoveryService;
+
+    @Value("${app.schema.autocomplete.max-indexes}")
+    private int maxIndexes;
+
+    // Access order, so the least recently used index is dropped first
+    private final LinkedHashMap<UUID, SchemaAutocompleteIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Set<UUID> rebuildsInFlight = ConcurrentHashMap.newKeySet();
+    private ExecutorService rebuildExecutor;
+
+    @PostConstruct
+    void startRebuildExecutor() {
+        rebuildExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @PreDestroy
+    void stopRebuildExecutor() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * Suggest identifiers matching the query; with a table, suggest that table's columns
+     */
+    public List<AutocompleteSuggestion> suggest(DataSource dataSource, String query, String table, int limit) {
+        SchemaAutocompleteIndex index = getIndex(dataSource);
+
+        return index.suggest(query, table, Math.max(0, Math.min(limit, MAX_LIMIT))).stream()
+                .map(identifier -> AutocompleteSuggestion.builder()
+                        .name(identifier.getName())
+                        .kind(identifier.getKind())
+                        .table(identifier.getTable())
+                        .schema(identifier.getSchema())
+                        .dataType(identifier.getDataType())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Index for the current schema version. The first index of a data source is built inline;
+     * after that a new version is indexed in the background from the previous index, reusing
+     * every unchanged table, while lookups keep using the previous one.
+     */
+    private SchemaAutocompleteIndex getIndex(DataSource dataSource) {
+        CachedSchema cached = schemaDiscoveryService.getCachedSchema(dataSource);
+
+        SchemaAutocompleteIndex current;
+        synchronized (indexes) {
+            current = indexes.get(dataSource.getId());
+        }
+        if (current == null) {
+            return buildIndex(dataSource.getId(), cached, null);
+        }
+
+        if (current.getVersion() < cached.getVersion() && rebuildsInFlight.add(dataSource.getId())) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    buildIndex(dataSource.getId(), cached, current);
+                } catch (RuntimeException e) {
+                    log.warn("Autocomplete index rebuild failed for data source: {}", dataSource.getId(), e);
+                } finally {
+                    rebuildsInFlight.remove(dataSource.getId());
+                }
+            });
+        }
+        return current;
+    }
+
+    private SchemaAutocompleteIndex buildIndex(UUID dataSourceId, CachedSchema cached,
+                                               SchemaAutocompleteIndex previous) {
+        long start = System.nanoTime();
+        SchemaAutocompleteIndex built = SchemaAutocompleteIndex.build(
+                cached.getVersion(), cached.getSchema(), cached.getTableFingerprints(), previous);
+        log.info("Autocomplete index built for data source: {} - Version: {}, Identifiers: {}, Time: {}ms",
+                dataSourceId, built.getVersion(), built.size(), (System.nanoTime() - start) / 1_000_000);
+
+        synchronized (indexes) {
+            SchemaAutocompleteIndex latest = indexes.get(dataSourceId);
+            if (latest == null || latest.getVersion() < built.getVersion()) {
+                indexes.put(dataSourceId, built);
+            }
+
+            Iterator<UUID> eldest = indexes.keySet().iterator();
+            while (indexes.size() > maxIndexes && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return built;
+    }
+}
@@ -0,0 +1,180 @@
+package com.querybuilder.backend.datasource.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.service.SchemaMemoryCache.CachedSchema;
+import com.querybuilder.backend.shared.exception.ResourceNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Lazy schema browsing: schema names, paged table lists and single-table details, each read
+ * on demand and cached on its own so a schema tree opens without a full discovery. Table lists
+ * come from the full cached schema when one exists, even an expired one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaBrowserService {
+
+    private final DataSourceConnectionFactory connectionFactory;
+    private final SchemaMetadataReader metadataReader;
+    private final SchemaMemoryCache schemaMemoryCache;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.schema.browse.max-entries}")
+    private int maxEntries;
+
+    @Value("${app.schema.browse.ttl-minutes}")
+    private long ttlMinutes;
+
+    // Keyed by data source id + "|" + what was read; access order for LRU eviction
+    private final LinkedHashMap<String, BrowseEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * List schema names of a data source
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> listSchemas(DataSource dataSource) {
+        Optional<CachedSchema> cached = schemaMemoryCache.get(dataSource.getId());
+        if (cached.isPresent()) {
+            return ((List<Map<String, Object>>) cached.get().getSchema().get("tables")).stream()
+                    .map(table -> (String) table.get("schema"))
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .sorted()
+                    .toList();
+        }
+
+        return cachedRead(dataSource, "schemas", connection -> metadataReader.readSchemaNames(
+                connection, dataSource.getDatabaseType(), dataSource.getDatabaseName(),
+                SchemaFilter.of(dataSource, objectMapper)));
+    }
+
+    /**
+     * Page through tables, optionally within one schema and filtered by a case-insensitive name fragment
+     */
+    @SuppressWarnings("unchecked")
+    public Page<Map<String, Object>> listTables(DataSource dataSource, String schema, String nameFilter,
+                                                Pageable pageable) {
+
+        List<Map<String, Object>> tables;
+        Optional<CachedSchema> cached = schemaMemoryCache.get(dataSource.getId());
+
+        if (cached.isPresent()) {
+            tables = ((List<Map<String, Object>>) cached.get().getSchema().get("tables")).stream()
+                    .filter(table -> schema == null || schema.equals(table.get("schema")))
+                    .map(this::summarize)
+                    .toList();
+        } else {
+            tables = cachedRead(dataSource, "tables|" + schema, connection -> metadataReader.readTableNames(
+                    connection, dataSource.getDatabaseType(), dataSource.getDatabaseName(),
+                    SchemaFilter.of(dataSource, objectMapper), schema));
+        }
+
+        String filter = nameFilter == null || nameFilter.isBlank() ? null : nameFilter.toLowerCase(Locale.ROOT);
+        List<Map<String, Object>> matching = tables.stream()
+                .filter(table -> filter == null
+                        || ((String) table.get("name")).toLowerCase(Locale.ROOT).contains(filter))
+                .sorted(Comparator.comparing(table -> (String) table.get("name")))
+                .toList();
+
+        int from = (int) Math.min(pageable.getOffset(), matching.size());
+        int to = Math.min(from + pageable.getPageSize(), matching.size());
+        return new PageImpl<>(matching.subList(from, to), pageable, matching.size());
+    }
+
+    /**
+     * Get one table with its columns, primary and foreign keys and indexes. Keyed by the cached
+     * schema's version when there is one, so a refresh that finds the table changed also
+     * replaces its details.
+     */
+    public Map<String, Object> getTable(DataSource dataSource, String schema, String tableName) {
+        String version = schemaMemoryCache.get(dataSource.getId())
+                .map(cached -> String.valueOf(cached.getVersion()))
+                .orElse("-");
+        String what = "table|" + version + "|" + schema + "." + tableName;
+        Optional<Map<String, Object>> table = cachedRead(dataSource, what,
+                connection -> metadataReader.readTableDetail(connection, dataSource.getDatabaseType(),
+                        dataSource.getDatabaseName(), SchemaFilter.of(dataSource, objectMapper), schema, tableName));
+
+        if (table.isEmpty()) {
+            // Not cached as missing, so a table created a moment later is found
+            synchronized (this) {
+                entries.remove(dataSource.getId() + "|" + what);
+            }
+            throw new ResourceNotFoundException("Table", "name", tableName);
+        }
+        return table.get();
+    }
+
+    /**
+     * Drop everything cached for a data source
+     */
+    public synchronized void evict(UUID dataSourceId) {
+        String prefix = dataSourceId + "|";
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cachedRead(DataSource dataSource, String what, MetadataRead<T> read) {
+        String key = dataSource.getId() + "|" + what;
+
+        synchronized (this) {
+            BrowseEntry entry = entries.get(key);
+            if (entry != null && entry.expiresAt.isAfter(Instant.now())) {
+                return (T) entry.value;
+            }
+        }
+
+        T value;
+        try (Connection connection = connectionFactory.getConnection(dataSource)) {
+            value = read.read(connection);
+        } catch (SQLException e) {
+            log.error("Failed to browse schema for data source: {} - {}", dataSource.getId(), what, e);
+            throw new RuntimeException("Failed to read schema metadata: " + e.getMessage(), e);
+        }
+
+        synchronized (this) {
+            entries.put(key, new BrowseEntry(value, Instant.now().plus(Duration.ofMinutes(ttlMinutes))));
+            Iterator<String> eldest = entries.keySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return value;
+    }
+
+    private Map<String, Object> summarize(Map<String, Object> table) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("name", table.get("name"));
+        summary.put("schema", table.get("schema"));
+        summary.put("type", table.get("type"));
+        return summary;
+    }
+
+    @FunctionalInterface
+    private interface MetadataRead<T> {
+        T read(Connection connection) throws SQLException;
+    }
+
+    @AllArgsConstructor
+    private static class BrowseEntry {
+
+        private final Object value;
+        private final Instant expiresAt;
+    }
+}
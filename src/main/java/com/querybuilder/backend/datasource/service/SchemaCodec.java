@@ -0,0 +1,50 @@
+package com.querybuilder.backend.datasource.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.github.luben.zstd.Zstd;
+import com.querybuilder.backend.datasource.model.SchemaSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Binary storage format for cached schemas: the typed snapshot as Smile (binary JSON with
+ * shared property names and string values), compressed with zstd
+ */
+@Component
+public class SchemaCodec {
+
+    private static final int ZSTD_LEVEL = 3;
+
+    private final ObjectMapper smileMapper = new ObjectMapper(SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build());
+
+    public byte[] encode(Map<String, Object> schema) {
+        try {
+            byte[] smile = smileMapper.writeValueAsBytes(SchemaSnapshot.fromMap(schema));
+            return Zstd.compress(smile, ZSTD_LEVEL);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode schema", e);
+        }
+    }
+
+    public Map<String, Object> decode(byte[] encoded) {
+        try {
+            byte[] smile = Zstd.decompress(encoded, uncompressedSize(encoded));
+            return smileMapper.readValue(smile, SchemaSnapshot.class).toMap();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode cached schema", e);
+        }
+    }
+
+    /**
+     * Size of the Smile payload, recorded in the zstd frame header
+     */
+    public int uncompressedSize(byte[] encoded) {
+        return (int) Zstd.getFrameContentSize(encoded);
+    }
+}
@@ -0,0 +1,62 @@
+package com.querybuilder.backend.datasource.service;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live progress of one schema discovery, readable while metadata is still being fetched
+ */
+@Getter
+public class SchemaDiscoveryProgress {
+
+    public enum Phase {
+        LISTING_TABLES,
+        READING_METADATA,
+        COMPLETED
+    }
+
+    private final UUID dataSourceId;
+    private final Instant startedAt = Instant.now();
+    private volatile Phase phase = Phase.LISTING_TABLES;
+    private volatile boolean parallel;
+    private volatile int totalTables;
+    private volatile int totalUnits;
+    private final AtomicInteger completedUnits = new AtomicInteger();
+
+    public SchemaDiscoveryProgress(UUID dataSourceId) {
+        this.dataSourceId = dataSourceId;
+    }
+
+    /**
+     * Called once the table list is known and the remaining work is split into units
+     */
+    void start(int totalTables, int totalUnits, boolean parallel) {
+        this.totalTables = totalTables;
+        this.totalUnits = totalUnits;
+        this.parallel = parallel;
+        this.phase = Phase.READING_METADATA;
+    }
+
+    /**
+     * Record a finished unit of work; returns the number completed so far
+     */
+    int unitCompleted() {
+        return completedUnits.incrementAndGet();
+    }
+
+    void complete() {
+        this.phase = Phase.COMPLETED;
+    }
+
+    public int getCompletedUnits() {
+        return completedUnits.get();
+    }
+
+    public int getPercentComplete() {
+        int total = totalUnits;
+        return total == 0 ? 0 : Math.min(100, completedUnits.get() * 100 / total);
+    }
+}
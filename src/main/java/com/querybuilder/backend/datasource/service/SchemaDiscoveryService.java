@@ -1,19 +1,42 @@
 package com.querybuilder.backend.datasource.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querybuilder.backend.datasource.dto.SchemaDiscoveryProgressResponse;
 import com.querybuilder.backend.datasource.model.DataSource;
 import com.querybuilder.backend.datasource.model.SchemaCache;
+import com.querybuilder.backend.datasource.repository.DataSourceRepository;
 import com.querybuilder.backend.datasource.repository.SchemaCacheRepository;
-import com.querybuilder.backend.shared.util.EncryptionUtil;
+import com.querybuilder.backend.datasource.service.SchemaMemoryCache.CachedSchema;
+import com.querybuilder.backend.shared.exception.ServiceUnavailableException;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.sql.*;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service for discovering and caching database schemas
@@ -24,167 +47,441 @@ import java.util.*;
 public class SchemaDiscoveryService {
 
     private final SchemaCacheRepository schemaCacheRepository;
-    private final EncryptionUtil encryptionUtil;
+    private final DataSourceRepository dataSourceRepository;
+    private final DataSourceConnectionFactory connectionFactory;
+    private final SchemaMetadataReader metadataReader;
+    private final SchemaCodec schemaCodec;
+    private final SchemaMemoryCache schemaMemoryCache;
+    private final SchemaBrowserService schemaBrowserService;
     private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
     private final ConnectionTestService connectionTestService;
 
     private static final int CACHE_DURATION_HOURS = 1;
 
+    @Value("${app.schema.discovery.max-concurrency}")
+    private int discoveryMaxConcurrency;
+
+    @Value("${app.schema.discovery.parallel-min-tables}")
+    private int parallelMinTables;
+
+    @Value("${app.schema.discovery.await-timeout-seconds}")
+    private long awaitTimeoutSeconds;
+
+    @Value("${app.schema.cache.refresh-threads}")
+    private int refreshThreads;
+
+    private final Map<UUID, SchemaDiscoveryProgress> discoveriesInProgress = new ConcurrentHashMap<>();
+
+    // At most one discovery per data source; every caller that needs it joins the same future
+    private final Map<UUID, CompletableFuture<CachedSchema>> refreshesInFlight = new ConcurrentHashMap<>();
+
+    // Bumped by evict(); a discovery started under an older generation read the old connection
+    private final Map<UUID, Long> generations = new ConcurrentHashMap<>();
+
+    @Value("${app.schema.cache.refresh-ahead-seconds}")
+    private long refreshAheadSeconds;
+
+    @Value("${app.schema.cache.refresh-jitter-seconds}")
+    private long refreshJitterSeconds;
+
+    @Value("${app.schema.cache.refresh-idle-minutes}")
+    private long refreshIdleMinutes;
+
+    // Last schema read per data source; only these are refreshed ahead of expiry
+    private final Map<UUID, Instant> lastAccessed = new ConcurrentHashMap<>();
+
+    // Refresh-ahead runs waiting out their jitter delay
+    private final Set<UUID> refreshesScheduled = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService refreshExecutor;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void startRefreshExecutor() {
+        refreshExecutor = Executors.newScheduledThreadPool(refreshThreads);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void stopRefreshExecutor() {
+        refreshExecutor.shutdownNow();
+    }
+
     /**
      * Get database schema (from cache or fetch fresh)
      */
-    @Transactional
     public Map<String, Object> getSchema(DataSource dataSource) {
+        return getCachedSchema(dataSource).getSchema();
+    }
+
+    /**
+     * Get the parsed schema together with its version, for callers that derive their own caches from it.
+     * An expired schema is returned as-is while a single background discovery refreshes it;
+     * only when nothing is cached at all does the caller wait for discovery.
+     */
+    public CachedSchema getCachedSchema(DataSource dataSource) {
+        lastAccessed.put(dataSource.getId(), Instant.now());
+
+        // In-process cache first: no database round trip and no JSON parsing
+        CachedSchema current = schemaMemoryCache.get(dataSource.getId()).orElse(null);
+        if (current != null && !current.isExpired()) {
+            log.debug("Returning in-memory schema for data source: {}", dataSource.getId());
+            return current;
+        }
+
+        // Already refreshing: serve the stale copy without touching the database
+        if (current != null && refreshesInFlight.containsKey(dataSource.getId())) {
+            return current;
+        }
+
         log.info("Getting schema for data source: {}", dataSource.getId());
 
-        // Try to get from cache first
+        // The row may be newer than the in-memory copy, e.g. refreshed by another instance
         Optional<SchemaCache> cachedSchema = schemaCacheRepository
-                .findValidCacheByDataSource(dataSource, LocalDateTime.now());
+                .findFirstByDataSourceOrderBySchemaVersionDesc(dataSource);
+
+        if (cachedSchema.isPresent() && (current == null
+                || cachedSchema.get().getSchemaVersion() > current.getVersion())) {
+            SchemaCache cache = cachedSchema.get();
+            Map<String, Object> schema = decodeSchema(cache);
+            current = schemaMemoryCache.put(dataSource.getId(), cache.getSchemaVersion(),
+                    schema, parseFingerprintsJson(cache.getTableFingerprints()),
+                    cache.getExpiresAt(), schemaCodec.uncompressedSize(cache.getSchemaBlob()));
+        }
 
-        if (cachedSchema.isPresent()) {
+        if (current != null && !current.isExpired()) {
             log.info("Returning cached schema for data source: {}", dataSource.getId());
-            return parseSchemaJson(cachedSchema.get().getSchemaData());
+            return current;
         }
 
-        // Fetch fresh schema
-        log.info("Cache miss - fetching fresh schema for data source: {}", dataSource.getId());
-        Map<String, Object> schema = discoverSchema(dataSource);
+        CompletableFuture<CachedSchema> refresh = refreshSchema(dataSource);
 
-        // Cache the schema
-        cacheSchema(dataSource, schema);
+        if (current != null) {
+            log.info("Returning stale schema for data source: {} - Version: {}, refresh in background",
+                    dataSource.getId(), current.getVersion());
+            return current;
+        }
 
-        return schema;
+        log.info("Cache miss - waiting for schema discovery for data source: {}", dataSource.getId());
+        return await(refresh);
     }
 
     /**
-     * Discover database schema by connecting to database
+     * Start a discovery for the data source unless one is already running, and return its result
      */
-    private Map<String, Object> discoverSchema(DataSource dataSource) {
-        String decryptedPassword = encryptionUtil.decrypt(dataSource.getPassword());
+    private CompletableFuture<CachedSchema> refreshSchema(DataSource dataSource) {
+        UUID dataSourceId = dataSource.getId();
+        long generation = generation(dataSourceId);
+        CompletableFuture<CachedSchema> created = new CompletableFuture<>();
+        CompletableFuture<CachedSchema> existing = refreshesInFlight.putIfAbsent(dataSourceId, created);
+        if (existing != null) {
+            return existing;
+        }
 
-        String jdbcUrl = buildJdbcUrl(dataSource);
+        refreshExecutor.execute(() -> {
+            try {
+                CachedSchema previous = schemaMemoryCache.get(dataSourceId).orElse(null);
+                CachedSchema refreshed = previous != null && previous.getTableFingerprints() != null
+                        && !predatesConstraintNames(previous.getSchema())
+                        ? refreshChangedTables(dataSource, previous, generation)
+                        : rediscoverSchema(dataSource, generation);
+
+                // Evicted while the result was being stored: remove it again
+                if (generation(dataSourceId) != generation) {
+                    discard(dataSource, refreshed);
+                    throw new CancellationException("Data source changed during schema discovery");
+                }
+                created.complete(refreshed);
+            } catch (CancellationException e) {
+                log.info("Schema refresh discarded for data source: {} - {}", dataSourceId, e.getMessage());
+                created.completeExceptionally(e);
+            } catch (Throwable e) {
+                log.warn("Schema refresh failed for data source: {} - {}", dataSourceId, e.getMessage());
+                created.completeExceptionally(e);
+            } finally {
+                refreshesInFlight.remove(dataSourceId, created);
+            }
+        });
 
-        try (Connection connection = DriverManager.getConnection(
-                jdbcUrl, dataSource.getUsername(), decryptedPassword)) {
+        return created;
+    }
 
-            DatabaseMetaData metaData = connection.getMetaData();
+    /**
+     * Full discovery. Fingerprints are read first, so a change made while discovery runs
+     * still shows up as a change on the next refresh.
+     */
+    private CachedSchema rediscoverSchema(DataSource dataSource, long generation) {
+        Map<String, String> fingerprints = null;
+        try (Connection connection = connectionFactory.getConnection(dataSource)) {
+            fingerprints = metadataReader.readTableFingerprints(connection, dataSource.getDatabaseType(),
+                    dataSource.getDatabaseName(), SchemaFilter.of(dataSource, objectMapper));
+        } catch (SQLException e) {
+            log.warn("Table fingerprints not readable for data source: {} ({}), refreshes will re-discover fully",
+                    dataSource.getId(), e.getMessage());
+        }
 
-            Map<String, Object> schema = new HashMap<>();
-            schema.put("databaseType", dataSource.getDatabaseType().name());
-            schema.put("databaseName", dataSource.getDatabaseName());
-            schema.put("tables", discoverTables(metaData, dataSource.getDatabaseName()));
-            schema.put("discoveredAt", LocalDateTime.now().toString());
+        Map<String, String> tableFingerprints = fingerprints;
+        Map<String, Object> schema = discoverSchema(dataSource);
+        return transactionTemplate.execute(status -> cacheSchema(dataSource, schema, tableFingerprints, generation));
+    }
+
+    /**
+     * Schemas cached before foreign keys carried their constraint name. Their fingerprints still
+     * match, so an incremental refresh would only renew them and the join graph would keep
+     * merging two keys to the same table into one edge; they are re-discovered instead.
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean predatesConstraintNames(Map<String, Object> schema) {
+        for (Map<String, Object> table : (List<Map<String, Object>>) schema.getOrDefault("tables", List.of())) {
+            for (Map<String, Object> fk : (List<Map<String, Object>>) table.getOrDefault("foreignKeys", List.of())) {
+                if (fk.get("constraintName") == null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 
-            log.info("Schema discovery completed for data source: {}", dataSource.getId());
+    /**
+     * Compare per-table fingerprints with the cached ones and re-read only the tables that were
+     * added or changed. An unchanged catalog keeps its version and only has its expiry extended.
+     */
+    private CachedSchema refreshChangedTables(DataSource dataSource, CachedSchema previous, long generation) {
+        Map<String, String> before = previous.getTableFingerprints();
+        Map<String, String> after;
+        Map<String, Map<String, Object>> changedTables;
+
+        try (Connection connection = connectionFactory.getConnection(dataSource)) {
+            after = metadataReader.readTableFingerprints(connection, dataSource.getDatabaseType(),
+                    dataSource.getDatabaseName(), SchemaFilter.of(dataSource, objectMapper));
+
+            Set<String> changed = new HashSet<>();
+            after.forEach((key, fingerprint) -> {
+                if (!fingerprint.equals(before.get(key))) {
+                    changed.add(key);
+                }
+            });
+
+            if (changed.isEmpty() && after.keySet().containsAll(before.keySet())) {
+                log.info("Schema unchanged for data source: {} - Version: {}",
+                        dataSource.getId(), previous.getVersion());
+                return transactionTemplate.execute(status -> renewSchema(dataSource, previous, generation));
+            }
 
-            return schema;
+            changedTables = changed.isEmpty()
+                    ? Map.of()
+                    : metadataReader.readChangedTables(connection, dataSource.getDatabaseType(),
+                            dataSource.getDatabaseName(), SchemaFilter.of(dataSource, objectMapper), changed);
 
         } catch (SQLException e) {
-            log.error("Failed to discover schema for data source: {}", dataSource.getId(), e);
-            throw new RuntimeException("Failed to discover schema: " + e.getMessage(), e);
+            log.warn("Incremental schema refresh failed for data source: {} ({}), re-discovering",
+                    dataSource.getId(), e.getMessage());
+            return rediscoverSchema(dataSource, generation);
         }
+
+        Map<String, Object> schema = applyTableChanges(previous.getSchema(), before, after, changedTables);
+        log.info("Schema changed for data source: {} - Re-read tables: {}, Previous version: {}",
+                dataSource.getId(), changedTables.size(), previous.getVersion());
+
+        return transactionTemplate.execute(status -> cacheSchema(dataSource, schema, after, generation));
     }
 
     /**
-     * Discover all tables in the database
+     * Build the next schema from the previous one: changed tables are replaced, new ones appended,
+     * and tables whose fingerprint changed or disappeared without being re-read are dropped
      */
-    private List<Map<String, Object>> discoverTables(DatabaseMetaData metaData, String databaseName)
-            throws SQLException {
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> applyTableChanges(Map<String, Object> previous, Map<String, String> before,
+                                                  Map<String, String> after,
+                                                  Map<String, Map<String, Object>> changedTables) {
 
+        Map<String, Map<String, Object>> remaining = new LinkedHashMap<>(changedTables);
         List<Map<String, Object>> tables = new ArrayList<>();
 
-        try (ResultSet tablesResultSet = metaData.getTables(
-                databaseName, null, "%", new String[]{"TABLE"})) {
-
-            while (tablesResultSet.next()) {
-                String tableName = tablesResultSet.getString("TABLE_NAME");
-
-                Map<String, Object> tableInfo = new HashMap<>();
-                tableInfo.put("name", tableName);
-                tableInfo.put("type", tablesResultSet.getString("TABLE_TYPE"));
-                tableInfo.put("columns", discoverColumns(metaData, databaseName, tableName));
-                tableInfo.put("primaryKeys", discoverPrimaryKeys(metaData, databaseName, tableName));
-                tableInfo.put("foreignKeys", discoverForeignKeys(metaData, databaseName, tableName));
-
-                tables.add(tableInfo);
+        for (Map<String, Object> table : (List<Map<String, Object>>) previous.get("tables")) {
+            String key = table.get("schema") + "." + table.get("name");
+            if (remaining.containsKey(key)) {
+                tables.add(remaining.remove(key));
+            } else if (!before.containsKey(key) || Objects.equals(before.get(key), after.get(key))) {
+                tables.add(table);
             }
         }
+        tables.addAll(remaining.values());
 
-        log.debug("Discovered {} tables", tables.size());
-        return tables;
+        Map<String, Object> schema = new HashMap<>(previous);
+        schema.put("tables", tables);
+        schema.put("discoveredAt", LocalDateTime.now().toString());
+        return schema;
     }
 
     /**
-     * Discover columns for a table
+     * Re-discover schemas of recently used data sources shortly before they expire, so no request
+     * ever finds them expired. Each run is delayed by a random jitter to spread load on the pool
+     * and on target databases; data sources idle past the threshold are dropped and not polled.
      */
-    private List<Map<String, Object>> discoverColumns(
-            DatabaseMetaData metaData, String databaseName, String tableName) throws SQLException {
+    @Scheduled(fixedDelayString = "${app.schema.cache.refresh-check-interval-ms}")
+    public void refreshAhead() {
+        Instant idleCutoff = Instant.now().minus(Duration.ofMinutes(refreshIdleMinutes));
+        LocalDateTime refreshFrom = LocalDateTime.now().plusSeconds(refreshAheadSeconds);
+
+        lastAccessed.forEach((dataSourceId, accessedAt) -> {
+            if (accessedAt.isBefore(idleCutoff)) {
+                lastAccessed.remove(dataSourceId, accessedAt);
+                log.debug("Data source idle, no longer refreshing schema: {}", dataSourceId);
+                return;
+            }
 
-        List<Map<String, Object>> columns = new ArrayList<>();
+            Optional<CachedSchema> cached = schemaMemoryCache.get(dataSourceId);
+            if (cached.isEmpty() || cached.get().getExpiresAt().isAfter(refreshFrom)
+                    || refreshesInFlight.containsKey(dataSourceId)
+                    || !refreshesScheduled.add(dataSourceId)) {
+                return;
+            }
 
-        try (ResultSet columnsResultSet = metaData.getColumns(
-                databaseName, null, tableName, "%")) {
+            long jitterMs = ThreadLocalRandom.current().nextLong(refreshJitterSeconds * 1000 + 1);
+            refreshExecutor.schedule(() -> {
+                try {
+                    dataSourceRepository.findByIdAndDeletedFalse(dataSourceId).ifPresentOrElse(
+                            dataSource -> {
+                                log.info("Refreshing schema ahead of expiry for data source: {}", dataSourceId);
+                                refreshSchema(dataSource);
+                            },
+                            () -> lastAccessed.remove(dataSourceId));
+                } catch (RuntimeException e) {
+                    log.warn("Schema refresh-ahead failed for data source: {} - {}", dataSourceId, e.getMessage());
+                } finally {
+                    refreshesScheduled.remove(dataSourceId);
+                }
+            }, jitterMs, TimeUnit.MILLISECONDS);
+        });
+    }
 
-            while (columnsResultSet.next()) {
-                Map<String, Object> columnInfo = new HashMap<>();
-                columnInfo.put("name", columnsResultSet.getString("COLUMN_NAME"));
-                columnInfo.put("type", columnsResultSet.getString("TYPE_NAME"));
-                columnInfo.put("size", columnsResultSet.getInt("COLUMN_SIZE"));
-                columnInfo.put("nullable", columnsResultSet.getInt("NULLABLE") == DatabaseMetaData.columnNullable);
-                columnInfo.put("defaultValue", columnsResultSet.getString("COLUMN_DEF"));
+    /**
+     * Abandon discovery in flight for a data source whose connection details changed or which was
+     * deleted: waiting callers fail instead of getting the old schema, and its result is not kept.
+     * Call before the cached rows are deleted, so a result stored in between is deleted with them.
+     */
+    public void evict(UUID dataSourceId) {
+        generations.merge(dataSourceId, 1L, Long::sum);
 
-                columns.add(columnInfo);
-            }
+        CompletableFuture<CachedSchema> inFlight = refreshesInFlight.remove(dataSourceId);
+        if (inFlight != null) {
+            inFlight.cancel(false);
+            log.info("Abandoned schema discovery in flight for data source: {}", dataSourceId);
         }
+    }
 
-        return columns;
+    private long generation(UUID dataSourceId) {
+        return generations.getOrDefault(dataSourceId, 0L);
     }
 
     /**
-     * Discover primary keys for a table
+     * Remove a schema stored by a discovery that was evicted while it ran
      */
-    private List<String> discoverPrimaryKeys(
-            DatabaseMetaData metaData, String databaseName, String tableName) throws SQLException {
-
-        List<String> primaryKeys = new ArrayList<>();
+    private void discard(DataSource dataSource, CachedSchema stale) {
+        if (stale == null) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                schemaCacheRepository.deleteByDataSourceAndSchemaVersion(dataSource, stale.getVersion()));
+        schemaMemoryCache.evict(dataSource.getId());
+        schemaBrowserService.evict(dataSource.getId());
+    }
 
-        try (ResultSet pkResultSet = metaData.getPrimaryKeys(databaseName, null, tableName)) {
-            while (pkResultSet.next()) {
-                primaryKeys.add(pkResultSet.getString("COLUMN_NAME"));
+    /**
+     * Wait for a discovery, at most await-timeout-seconds; the discovery itself keeps running
+     * and later callers join it
+     */
+    private CachedSchema await(CompletableFuture<CachedSchema> refresh) {
+        try {
+            return refresh.get(awaitTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException(
+                    "Schema discovery is taking longer than " + awaitTimeoutSeconds + "s, try again shortly");
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Schema discovery was abandoned because the data source changed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for schema discovery", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                throw new IllegalStateException("Schema discovery was abandoned because the data source changed");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw new RuntimeException("Failed to discover schema: " + e.getCause().getMessage(), e.getCause());
         }
-
-        return primaryKeys;
     }
 
     /**
-     * Discover foreign keys for a table
+     * Discover database schema by connecting to database
      */
-    private List<Map<String, Object>> discoverForeignKeys(
-            DatabaseMetaData metaData, String databaseName, String tableName) throws SQLException {
+    private Map<String, Object> discoverSchema(DataSource dataSource) {
+        SchemaDiscoveryProgress progress = new SchemaDiscoveryProgress(dataSource.getId());
+        discoveriesInProgress.put(dataSource.getId(), progress);
 
-        List<Map<String, Object>> foreignKeys = new ArrayList<>();
+        // The pool size is the per-data-source cap on concurrent metadata connections
+        try (HikariDataSource pool = connectionFactory.createPool(
+                dataSource, discoveryMaxConcurrency, "schema-discovery")) {
 
-        try (ResultSet fkResultSet = metaData.getImportedKeys(databaseName, null, tableName)) {
-            while (fkResultSet.next()) {
-                Map<String, Object> fkInfo = new HashMap<>();
-                fkInfo.put("columnName", fkResultSet.getString("FKCOLUMN_NAME"));
-                fkInfo.put("referencedTable", fkResultSet.getString("PKTABLE_NAME"));
-                fkInfo.put("referencedColumn", fkResultSet.getString("PKCOLUMN_NAME"));
+            Map<String, Object> schema = new HashMap<>();
+            schema.put("databaseType", dataSource.getDatabaseType().name());
+            schema.put("databaseName", dataSource.getDatabaseName());
+            schema.put("tables", metadataReader.readTables(
+                    pool, dataSource.getDatabaseType(), dataSource.getDatabaseName(),
+                    SchemaFilter.of(dataSource, objectMapper), discoveryMaxConcurrency, parallelMinTables, progress));
+            schema.put("discoveredAt", LocalDateTime.now().toString());
 
-                foreignKeys.add(fkInfo);
-            }
+            log.info("Schema discovery completed for data source: {} - Tables: {}, Parallel: {}",
+                    dataSource.getId(), progress.getTotalTables(), progress.isParallel());
+
+            return schema;
+
+        } catch (SQLException e) {
+            log.error("Failed to discover schema for data source: {}", dataSource.getId(), e);
+            throw new RuntimeException("Failed to discover schema: " + e.getMessage(), e);
+        } finally {
+            discoveriesInProgress.remove(dataSource.getId(), progress);
         }
+    }
 
-        return foreignKeys;
+    /**
+     * Get progress of an in-flight schema discovery, if any
+     */
+    public Optional<SchemaDiscoveryProgressResponse> getDiscoveryProgress(DataSource dataSource) {
+        return Optional.ofNullable(discoveriesInProgress.get(dataSource.getId()))
+                .map(progress -> SchemaDiscoveryProgressResponse.builder()
+                        .dataSourceId(progress.getDataSourceId().toString())
+                        .phase(progress.getPhase())
+                        .parallel(progress.isParallel())
+                        .totalTables(progress.getTotalTables())
+                        .totalUnits(progress.getTotalUnits())
+                        .completedUnits(progress.getCompletedUnits())
+                        .percentComplete(progress.getPercentComplete())
+                        .startedAt(progress.getStartedAt())
+                        .elapsedMs(Duration.between(progress.getStartedAt(), Instant.now()).toMillis())
+                        .build());
     }
 
     /**
-     * Cache schema in database
+     * Cache schema in database, unless the data source was evicted since the discovery started
      */
-    private void cacheSchema(DataSource dataSource, Map<String, Object> schema) {
+    private CachedSchema cacheSchema(DataSource dataSource, Map<String, Object> schema,
+                                     Map<String, String> tableFingerprints, long generation) {
+        if (generation(dataSource.getId()) != generation) {
+            throw new CancellationException("Data source changed during schema discovery");
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(CACHE_DURATION_HOURS);
+        long version = nextSchemaVersion(dataSource);
+
         try {
-            String schemaJson = objectMapper.writeValueAsString(schema);
+            byte[] schemaBlob = schemaCodec.encode(schema);
+            String fingerprintsJson = tableFingerprints == null
+                    ? null
+                    : objectMapper.writeValueAsString(tableFingerprints);
 
             // Delete old cache if exists
             schemaCacheRepository.deleteByDataSource(dataSource);
@@ -192,17 +489,75 @@ public class SchemaDiscoveryService {
             // Create new cache
             SchemaCache schemaCache = SchemaCache.builder()
                     .dataSource(dataSource)
-                    .schemaData(schemaJson)
+                    .schemaBlob(schemaBlob)
+                    .schemaVersion(version)
+                    .tableFingerprints(fingerprintsJson)
                     .cachedAt(LocalDateTime.now())
-                    .expiresAt(LocalDateTime.now().plusHours(CACHE_DURATION_HOURS))
+                    .expiresAt(expiresAt)
                     .build();
 
             schemaCacheRepository.save(schemaCache);
-            log.info("Schema cached for data source: {}", dataSource.getId());
+            log.info("Schema cached for data source: {} - Version: {}, Stored bytes: {}",
+                    dataSource.getId(), version, schemaBlob.length);
+
+            return schemaMemoryCache.put(dataSource.getId(), version, schema, tableFingerprints,
+                    expiresAt, schemaCodec.uncompressedSize(schemaBlob));
 
         } catch (JsonProcessingException e) {
             log.error("Failed to serialize schema to JSON", e);
+            return schemaMemoryCache.put(dataSource.getId(), version, schema, tableFingerprints, expiresAt, 0);
+        }
+    }
+
+    /**
+     * Extend the expiry of an unchanged schema in place; rewrite it when its row is gone
+     */
+    private CachedSchema renewSchema(DataSource dataSource, CachedSchema previous, long generation) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(CACHE_DURATION_HOURS);
+
+        int renewed = schemaCacheRepository.renewCache(
+                dataSource, previous.getVersion(), LocalDateTime.now(), expiresAt);
+        if (renewed == 0) {
+            return cacheSchema(dataSource, previous.getSchema(), previous.getTableFingerprints(), generation);
+        }
+
+        return schemaMemoryCache.renew(previous, expiresAt);
+    }
+
+    /**
+     * Versions are epoch millis of the discovery, kept strictly increasing per data source
+     * so they never repeat even after the cache row is cleared
+     */
+    private long nextSchemaVersion(DataSource dataSource) {
+        long previous = schemaMemoryCache.get(dataSource.getId())
+                .map(CachedSchema::getVersion)
+                .orElseGet(() -> schemaCacheRepository.findFirstByDataSourceOrderBySchemaVersionDesc(dataSource)
+                        .map(SchemaCache::getSchemaVersion)
+                        .orElse(0L));
+
+        return Math.max(previous + 1, System.currentTimeMillis());
+    }
+
+    /**
+     * Decode a cached schema. Rows written before the binary format still hold JSON; they are
+     * converted on first read so every row ends up in the compact format.
+     */
+    private Map<String, Object> decodeSchema(SchemaCache cache) {
+        if (cache.getSchemaBlob() != null) {
+            return schemaCodec.decode(cache.getSchemaBlob());
         }
+
+        Map<String, Object> schema = parseSchemaJson(cache.getSchemaData());
+        cache.setSchemaBlob(schemaCodec.encode(schema));
+        cache.setSchemaData(null);
+        try {
+            schemaCacheRepository.save(cache);
+            log.info("Migrated cached schema to binary format - Cache: {}", cache.getId());
+        } catch (RuntimeException e) {
+            // Still usable from memory; the row is converted again on a later read
+            log.warn("Failed to migrate cached schema to binary format - Cache: {}", cache.getId(), e);
+        }
+        return schema;
     }
 
     /**
@@ -218,35 +573,18 @@ public class SchemaDiscoveryService {
     }
 
     /**
-     * Build JDBC URL
+     * Parse table fingerprints JSON; rows cached before fingerprints existed have none
      */
-    private String buildJdbcUrl(DataSource dataSource) {
-        String sslParam = Boolean.TRUE.equals(dataSource.getSslEnabled()) ? "&useSSL=true" : "&useSSL=false";
-
-        return switch (dataSource.getDatabaseType()) {
-            case MYSQL -> String.format(
-                    "jdbc:mysql://%s:%d/%s?serverTimezone=UTC%s",
-                    dataSource.getHost(), dataSource.getPort(),
-                    dataSource.getDatabaseName(), sslParam
-            );
-
-            case POSTGRESQL -> String.format(
-                    "jdbc:postgresql://%s:%d/%s?ssl=%s",
-                    dataSource.getHost(), dataSource.getPort(),
-                    dataSource.getDatabaseName(), dataSource.getSslEnabled() ? "true" : "false"
-            );
-
-            case SQLSERVER -> String.format(
-                    "jdbc:sqlserver://%s:%d;databaseName=%s;encrypt=%s",
-                    dataSource.getHost(), dataSource.getPort(),
-                    dataSource.getDatabaseName(), dataSource.getSslEnabled() ? "true" : "false"
-            );
-
-            case ORACLE -> String.format(
-                    "jdbc:oracle:thin:@%s:%d:%s",
-                    dataSource.getHost(), dataSource.getPort(), dataSource.getDatabaseName()
-            );
-        };
+    private Map<String, String> parseFingerprintsJson(String fingerprintsJson) {
+        if (fingerprintsJson == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(fingerprintsJson, new TypeReference<Map<String, String>>() {});
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to parse cached table fingerprints, next refresh re-discovers fully", e);
+            return null;
+        }
     }
 
     /**
@@ -255,6 +593,8 @@ public class SchemaDiscoveryService {
     @Transactional
     public void clearCache(DataSource dataSource) {
         schemaCacheRepository.deleteByDataSource(dataSource);
+        schemaMemoryCache.evict(dataSource.getId());
+        schemaBrowserService.evict(dataSource.getId());
         log.info("Cache cleared for data source: {}", dataSource.getId());
     }
 }
\ No newline at end of file
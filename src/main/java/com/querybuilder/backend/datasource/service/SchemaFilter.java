@@ -0,0 +1,237 @@
+package com.querybuilder.backend.datasource.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.model.DatabaseType;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Which schemas and tables of a data source are discovered, read from the "schemaFilter" object
+ * of its connectionParams JSON:
+ * <pre>
+ * {"schemaFilter": {"includeSchemas": ["sales", "hr"], "excludeSchemas": ["*_archive"],
+ *                   "includeTables": ["fact_*", "dim_*"], "excludeTables": ["*_bak", "tmp?"]}}
+ * </pre>
+ * Patterns are case-insensitive globs ({@code *} any run of characters, {@code ?} one character).
+ * Empty include lists include everything, except on Oracle where the default remains the
+ * connected user's schema. The same rules are pushed into the catalog queries as LIKE
+ * predicates and checked on JDBC metadata results.
+ */
+@Slf4j
+public class SchemaFilter {
+
+    public static final SchemaFilter NONE = new SchemaFilter(List.of(), List.of(), List.of(), List.of());
+
+    private static final String CONNECTION_PARAMS_KEY = "schemaFilter";
+
+    @Getter
+    private final List<String> includeSchemas;
+    private final List<String> excludeSchemas;
+    private final List<String> includeTables;
+    private final List<String> excludeTables;
+
+    private final List<Pattern> includeSchemaPatterns;
+    private final List<Pattern> excludeSchemaPatterns;
+    private final List<Pattern> includeTablePatterns;
+    private final List<Pattern> excludeTablePatterns;
+
+    public SchemaFilter(List<String> includeSchemas, List<String> excludeSchemas,
+                        List<String> includeTables, List<String> excludeTables) {
+        this.includeSchemas = List.copyOf(includeSchemas);
+        this.excludeSchemas = List.copyOf(excludeSchemas);
+        this.includeTables = List.copyOf(includeTables);
+        this.excludeTables = List.copyOf(excludeTables);
+        this.includeSchemaPatterns = compile(includeSchemas);
+        this.excludeSchemaPatterns = compile(excludeSchemas);
+        this.includeTablePatterns = compile(includeTables);
+        this.excludeTablePatterns = compile(excludeTables);
+    }
+
+    /**
+     * Read the filter from connectionParams; no params or no "schemaFilter" object means no filter
+     *
+     * @throws IllegalArgumentException when the JSON or the filter is malformed
+     */
+    public static SchemaFilter fromConnectionParams(String connectionParams, ObjectMapper objectMapper) {
+        if (connectionParams == null || connectionParams.isBlank()) {
+            return NONE;
+        }
+
+        JsonNode filter;
+        try {
+            filter = objectMapper.readTree(connectionParams).path(CONNECTION_PARAMS_KEY);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("connectionParams must be a JSON object");
+        }
+        if (filter.isMissingNode() || filter.isNull()) {
+            return NONE;
+        }
+        if (!filter.isObject()) {
+            throw new IllegalArgumentException("schemaFilter must be a JSON object");
+        }
+
+        return new SchemaFilter(patterns(filter, "includeSchemas"), patterns(filter, "excludeSchemas"),
+                patterns(filter, "includeTables"), patterns(filter, "excludeTables"));
+    }
+
+    /**
+     * The data source's filter. Params are validated when saved; anything stored before that
+     * which does not parse means no filter rather than a failed discovery.
+     */
+    public static SchemaFilter of(DataSource dataSource, ObjectMapper objectMapper) {
+        try {
+            return fromConnectionParams(dataSource.getConnectionParams(), objectMapper);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring schema filter of data source: {} - {}", dataSource.getId(), e.getMessage());
+            return NONE;
+        }
+    }
+
+    public boolean isEmpty() {
+        return includeSchemas.isEmpty() && excludeSchemas.isEmpty()
+                && includeTables.isEmpty() && excludeTables.isEmpty();
+    }
+
+    public boolean includesSchema(String schema) {
+        return schema == null
+                || (matchesAny(includeSchemaPatterns, schema, true) && !matchesAny(excludeSchemaPatterns, schema, false));
+    }
+
+    public boolean includesTable(String schema, String tableName) {
+        return includesSchema(schema)
+                && matchesAny(includeTablePatterns, tableName, true)
+                && !matchesAny(excludeTablePatterns, tableName, false);
+    }
+
+    /**
+     * Add this filter to a catalog query as a predicate on its schema and table-name expressions.
+     * The predicate goes into the outermost WHERE clause (or becomes it), ahead of a trailing
+     * GROUP BY or ORDER BY. Its parameters are bound with {@link #bind}.
+     */
+    public String apply(String sql, DatabaseType databaseType, String schemaExpression, String tableExpression) {
+        List<String> conditions = new ArrayList<>();
+        if (databaseType == DatabaseType.ORACLE && includeSchemas.isEmpty()) {
+            conditions.add(schemaExpression + " = USER");
+        }
+        addConditions(conditions, includeSchemas, schemaExpression, false);
+        addConditions(conditions, excludeSchemas, schemaExpression, true);
+        addConditions(conditions, includeTables, tableExpression, false);
+        addConditions(conditions, excludeTables, tableExpression, true);
+
+        if (conditions.isEmpty()) {
+            return sql;
+        }
+
+        String predicate = String.join("\n  AND ", conditions);
+        int end = Math.max(sql.lastIndexOf("\nGROUP BY "), sql.lastIndexOf("\nORDER BY "));
+        if (end < 0) {
+            end = sql.length();
+        }
+        String keyword = sql.lastIndexOf("\nWHERE ", end) >= 0 ? "\n  AND " : "\nWHERE ";
+        return sql.substring(0, end) + keyword + predicate + sql.substring(end);
+    }
+
+    /**
+     * Number of parameters {@link #apply} adds to a query
+     */
+    public int parameterCount() {
+        return includeSchemas.size() + excludeSchemas.size() + includeTables.size() + excludeTables.size();
+    }
+
+    /**
+     * Bind the parameters of a query built with {@link #apply}, starting at the given index
+     */
+    public void bind(PreparedStatement statement, int firstIndex) throws SQLException {
+        int index = firstIndex;
+        for (List<String> patterns : List.of(includeSchemas, excludeSchemas, includeTables, excludeTables)) {
+            for (String pattern : patterns) {
+                statement.setString(index++, toLike(pattern));
+            }
+        }
+    }
+
+    private void addConditions(List<String> conditions, List<String> patterns, String expression, boolean exclude) {
+        if (patterns.isEmpty()) {
+            return;
+        }
+
+        List<String> likes = new ArrayList<>();
+        for (int i = 0; i < patterns.size(); i++) {
+            likes.add("UPPER(" + expression + ") LIKE UPPER(?) ESCAPE '!'");
+        }
+        String anyMatch = "(" + String.join(" OR ", likes) + ")";
+        conditions.add(exclude ? "NOT " + anyMatch : anyMatch);
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String value, boolean whenEmpty) {
+        if (patterns.isEmpty()) {
+            return whenEmpty;
+        }
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(value).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> patterns(JsonNode filter, String field) {
+        JsonNode values = filter.path(field);
+        if (values.isMissingNode() || values.isNull()) {
+            return List.of();
+        }
+        if (!values.isArray()) {
+            throw new IllegalArgumentException("schemaFilter." + field + " must be an array of patterns");
+        }
+
+        List<String> patterns = new ArrayList<>();
+        for (JsonNode value : values) {
+            if (!value.isTextual() || value.asText().isBlank()) {
+                throw new IllegalArgumentException("schemaFilter." + field + " must only contain non-empty strings");
+            }
+            patterns.add(value.asText().trim());
+        }
+        return patterns;
+    }
+
+    private static List<Pattern> compile(List<String> globs) {
+        List<Pattern> patterns = new ArrayList<>(globs.size());
+        for (String glob : globs) {
+            StringBuilder regex = new StringBuilder();
+            for (char c : glob.toCharArray()) {
+                switch (c) {
+                    case '*' -> regex.append(".*");
+                    case '?' -> regex.append('.');
+                    default -> regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            patterns.add(Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL));
+        }
+        return patterns;
+    }
+
+    /**
+     * Glob to a LIKE pattern with '!' as escape character, so literal % and _ stay literal
+     */
+    private static String toLike(String glob) {
+        StringBuilder like = new StringBuilder(glob.length());
+        for (char c : glob.toCharArray()) {
+            switch (c) {
+                case '*' -> like.append('%');
+                case '?' -> like.append('_');
+                case '%', '_', '!' -> like.append('!').append(c);
+                default -> like.append(c);
+            }
+        }
+        return like.toString();
+    }
+}
@@ -0,0 +1,321 @@
+package com.querybuilder.backend.datasource.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * Immutable join graph of one schema version: tables are nodes, foreign keys are edges that
+ * can be walked in either direction. Paths between two tables are ranked with Yen's
+ * k-shortest loopless paths over breadth-first search; more tables are connected with a
+ * greedy Steiner tree (repeatedly attach the nearest remaining table).
+ */
+public class SchemaJoinGraph {
+
+    @Getter
+    private final long version;
+    private final List<TableNode> nodes = new ArrayList<>();
+    private final Map<String, TableNode> nodesByKey = new HashMap<>();
+    private final Map<String, List<TableNode>> nodesByName = new HashMap<>();
+    private final List<List<Step>> adjacency = new ArrayList<>();
+    private int edgeCount;
+
+    @SuppressWarnings("unchecked")
+    public SchemaJoinGraph(long version, Map<String, Object> schema) {
+        this.version = version;
+
+        List<Map<String, Object>> tables = (List<Map<String, Object>>) schema.getOrDefault("tables", List.of());
+        for (Map<String, Object> table : tables) {
+            TableNode node = new TableNode(nodes.size(), (String) table.get("schema"), (String) table.get("name"));
+            nodes.add(node);
+            adjacency.add(new ArrayList<>());
+            nodesByKey.put(node.key(), node);
+            nodesByName.computeIfAbsent(node.name.toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(node);
+        }
+
+        for (int i = 0; i < tables.size(); i++) {
+            TableNode from = nodes.get(i);
+
+            // One edge per constraint; multi-column keys arrive as one entry per column, and two keys
+            // to the same table (billing and shipping address) stay separate edges. Schemas cached
+            // before constraint names were read group by referenced table until their next refresh,
+            // which re-discovers them.
+            List<Map<String, Object>> foreignKeys = new ArrayList<>(
+                    (List<Map<String, Object>>) tables.get(i).getOrDefault("foreignKeys", List.of()));
+            foreignKeys.sort(Comparator.comparingInt(fk -> fk.get("keySequence") == null
+                    ? 0 : ((Number) fk.get("keySequence")).intValue()));
+
+            Map<String, ForeignKey> keys = new LinkedHashMap<>();
+            for (Map<String, Object> fk : foreignKeys) {
+                TableNode to = resolveReferenced(from, (String) fk.get("referencedTable"));
+                if (to == null) {
+                    continue;   // references a table outside the discovered schema
+                }
+                String constraint = (String) fk.get("constraintName");
+                ForeignKey key = keys.computeIfAbsent(constraint != null ? constraint : "-> " + to.key(),
+                        name -> new ForeignKey(edgeCount++, from, to, new ArrayList<>(), new ArrayList<>()));
+                key.columns.add((String) fk.get("columnName"));
+                key.referencedColumns.add((String) fk.get("referencedColumn"));
+            }
+
+            for (ForeignKey key : keys.values()) {
+                adjacency.get(from.id).add(new Step(key, from, key.to));
+                if (key.to != from) {
+                    adjacency.get(key.to.id).add(new Step(key, key.to, from));
+                }
+            }
+        }
+    }
+
+    public int tableCount() {
+        return nodes.size();
+    }
+
+    public int foreignKeyCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Find a table by "schema.table" or by bare name, case-insensitively
+     */
+    public Optional<TableNode> findTable(String name) {
+        TableNode exact = nodesByKey.get(name);
+        if (exact != null) {
+            return Optional.of(exact);
+        }
+
+        List<TableNode> byName = nodesByName.get(name.toLowerCase(Locale.ROOT));
+        if (byName != null) {
+            return Optional.of(byName.get(0));
+        }
+
+        int dot = name.indexOf('.');
+        if (dot > 0) {
+            String schema = name.substring(0, dot);
+            List<TableNode> candidates = nodesByName.getOrDefault(name.substring(dot + 1).toLowerCase(Locale.ROOT), List.of());
+            return candidates.stream().filter(node -> schema.equalsIgnoreCase(node.schema)).findFirst();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Up to limit loopless join paths between two tables, shortest first
+     */
+    public List<List<Step>> rankedPaths(TableNode source, TableNode target, int limit, int maxHops) {
+        List<List<Step>> accepted = new ArrayList<>();
+        if (source == target || limit <= 0) {
+            return accepted;
+        }
+
+        List<Step> shortest = shortestPath(source, target, Set.of(), Set.of(), maxHops);
+        if (shortest == null) {
+            return accepted;
+        }
+        accepted.add(shortest);
+
+        PriorityQueue<List<Step>> candidates = new PriorityQueue<>(Comparator.comparingInt(List::size));
+        Set<List<Integer>> known = new HashSet<>();
+        known.add(edgeIds(shortest));
+
+        while (accepted.size() < limit) {
+            List<Step> previous = accepted.get(accepted.size() - 1);
+
+            for (int i = 0; i < previous.size(); i++) {
+                TableNode spur = previous.get(i).from;
+                List<Step> root = previous.subList(0, i);
+
+                // Leave the root path and every edge an accepted path already took from this root
+                Set<Integer> blockedEdges = new HashSet<>();
+                for (List<Step> path : accepted) {
+                    if (path.size() > i && edgeIds(path.subList(0, i)).equals(edgeIds(root))) {
+                        blockedEdges.add(path.get(i).key.id);
+                    }
+                }
+                Set<TableNode> blockedNodes = new HashSet<>();
+                for (Step step : root) {
+                    blockedNodes.add(step.from);
+                }
+
+                List<Step> spurPath = shortestPath(spur, target, blockedNodes, blockedEdges, maxHops - i);
+                if (spurPath != null) {
+                    List<Step> candidate = new ArrayList<>(root);
+                    candidate.addAll(spurPath);
+                    if (known.add(edgeIds(candidate))) {
+                        candidates.add(candidate);
+                    }
+                }
+            }
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+            accepted.add(candidates.poll());
+        }
+
+        return accepted;
+    }
+
+    /**
+     * Join steps connecting all tables, found by attaching the nearest remaining table to the
+     * tree one at a time; null when some table cannot be reached
+     */
+    public List<Step> connect(List<TableNode> tables, int maxHops) {
+        Set<TableNode> tree = new LinkedHashSet<>();
+        tree.add(tables.get(0));
+        Set<TableNode> remaining = new LinkedHashSet<>(tables.subList(1, tables.size()));
+        remaining.removeAll(tree);
+
+        List<Step> steps = new ArrayList<>();
+        while (!remaining.isEmpty()) {
+            List<Step> path = nearest(tree, remaining, maxHops);
+            if (path == null) {
+                return null;
+            }
+            for (Step step : path) {
+                tree.add(step.to);
+                remaining.remove(step.to);
+            }
+            steps.addAll(path);
+        }
+        return steps;
+    }
+
+    /**
+     * Breadth-first search from every tree node at once to the closest remaining table
+     */
+    private List<Step> nearest(Set<TableNode> tree, Set<TableNode> targets, int maxHops) {
+        Map<TableNode, Step> via = new HashMap<>();
+        Map<TableNode, Integer> depth = new HashMap<>();
+        Deque<TableNode> queue = new ArrayDeque<>();
+        for (TableNode node : tree) {
+            depth.put(node, 0);
+            queue.add(node);
+        }
+
+        while (!queue.isEmpty()) {
+            TableNode node = queue.poll();
+            if (targets.contains(node)) {
+                return backtrack(via, node);
+            }
+            if (depth.get(node) >= maxHops) {
+                continue;
+            }
+            for (Step step : adjacency.get(node.id)) {
+                if (!depth.containsKey(step.to)) {
+                    depth.put(step.to, depth.get(node) + 1);
+                    via.put(step.to, step);
+                    queue.add(step.to);
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<Step> shortestPath(TableNode source, TableNode target, Set<TableNode> blockedNodes,
+                                    Set<Integer> blockedEdges, int maxHops) {
+        Map<TableNode, Step> via = new HashMap<>();
+        Map<TableNode, Integer> depth = new HashMap<>();
+        Deque<TableNode> queue = new ArrayDeque<>();
+        depth.put(source, 0);
+        queue.add(source);
+
+        while (!queue.isEmpty()) {
+            TableNode node = queue.poll();
+            if (node == target) {
+                return backtrack(via, node);
+            }
+            if (depth.get(node) >= maxHops) {
+                continue;
+            }
+            for (Step step : adjacency.get(node.id)) {
+                if (blockedEdges.contains(step.key.id) || blockedNodes.contains(step.to)
+                        || depth.containsKey(step.to)) {
+                    continue;
+                }
+                depth.put(step.to, depth.get(node) + 1);
+                via.put(step.to, step);
+                queue.add(step.to);
+            }
+        }
+        return null;
+    }
+
+    private List<Step> backtrack(Map<TableNode, Step> via, TableNode end) {
+        LinkedList<Step> path = new LinkedList<>();
+        for (Step step = via.get(end); step != null; step = via.get(step.from)) {
+            path.addFirst(step);
+        }
+        return new ArrayList<>(path);
+    }
+
+    private List<Integer> edgeIds(List<Step> path) {
+        List<Integer> ids = new ArrayList<>(path.size());
+        for (Step step : path) {
+            ids.add(step.key.id);
+        }
+        return ids;
+    }
+
+    /**
+     * Referenced tables carry only a name; prefer the referencing table's own schema
+     */
+    private TableNode resolveReferenced(TableNode from, String referencedTable) {
+        if (referencedTable == null) {
+            return null;
+        }
+        TableNode sameSchema = nodesByKey.get(from.schema + "." + referencedTable);
+        if (sameSchema != null) {
+            return sameSchema;
+        }
+        List<TableNode> byName = nodesByName.get(referencedTable.toLowerCase(Locale.ROOT));
+        return byName == null ? null : byName.get(0);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class TableNode {
+
+        private final int id;
+        private final String schema;
+        private final String name;
+
+        public String key() {
+            return schema + "." + name;
+        }
+    }
+
+    /**
+     * One foreign key from a table to the table it references, possibly over several columns
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ForeignKey {
+
+        private final int id;
+        private final TableNode from;
+        private final TableNode to;
+        private final List<String> columns;
+        private final List<String> referencedColumns;
+    }
+
+    /**
+     * A foreign key walked in one direction: from the table already joined to the next one
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Step {
+
+        private final ForeignKey key;
+        private final TableNode from;
+        private final TableNode to;
+
+        public List<String> getFromColumns() {
+            return key.from == from ? key.columns : key.referencedColumns;
+        }
+
+        public List<String> getToColumns() {
+            return key.from == from ? key.referencedColumns : key.columns;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.querybuilder.backend.datasource.service;
+
+import com.querybuilder.backend.shared.exception.ResourceNotFoundException;
+import com.querybuilder.backend.datasource.dto.JoinPathResponse;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.service.SchemaJoinGraph.Step;
+import com.querybuilder.backend.datasource.service.SchemaJoinGraph.TableNode;
+import com.querybuilder.backend.datasource.service.SchemaMemoryCache.CachedSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Join suggestions between tables, served from a per-data-source foreign-key graph that
+ * follows the cached schema version
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaJoinGraphService {
+
+    private static final int MAX_LIMIT = 20;
+    private static final int MAX_HOPS = 8;
+
+    private final SchemaDiscoveryService schemaDiscoveryService;
+
+    @Value("${app.schema.join-graph.max-graphs}")
+    private int maxGraphs;
+
+    // Access order, so the least recently used graph is dropped first
+    private final LinkedHashMap<UUID, SchemaJoinGraph> graphs = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Join paths connecting the given tables. Two tables get up to limit paths, shortest
+     * first; three or more get a single join tree spanning all of them.
+     */
+    public List<JoinPathResponse> findJoinPaths(DataSource dataSource, List<String> tableNames, int limit, int maxHops) {
+        if (tableNames.size() < 2) {
+            throw new IllegalArgumentException("At least two tables are required");
+        }
+
+        SchemaJoinGraph graph = getGraph(dataSource);
+        List<TableNode> tables = new ArrayList<>();
+        for (String name : tableNames) {
+            TableNode table = graph.findTable(name.trim())
+                    .orElseThrow(() -> new ResourceNotFoundException("Table", "name", name));
+            if (!tables.contains(table)) {
+                tables.add(table);
+            }
+        }
+
+        int hops = Math.max(1, Math.min(maxHops, MAX_HOPS));
+        if (tables.size() == 1) {
+            return List.of(toResponse(tables, List.of()));
+        }
+        if (tables.size() == 2) {
+            return graph.rankedPaths(tables.get(0), tables.get(1), Math.max(0, Math.min(limit, MAX_LIMIT)), hops)
+                    .stream()
+                    .map(path -> toResponse(tables, path))
+                    .toList();
+        }
+
+        List<Step> tree = graph.connect(tables, hops);
+        return tree == null ? List.of() : List.of(toResponse(tables, tree));
+    }
+
+    /**
+     * Graph for the current schema version, rebuilt when the schema changes. Building only
+     * walks the foreign keys of the cached schema, so it happens inline.
+     */
+    private SchemaJoinGraph getGraph(DataSource dataSource) {
+        CachedSchema cached = schemaDiscoveryService.getCachedSchema(dataSource);
+
+        synchronized (graphs) {
+            SchemaJoinGraph current = graphs.get(dataSource.getId());
+            if (current != null && current.getVersion() >= cached.getVersion()) {
+                return current;
+            }
+        }
+
+        long start = System.nanoTime();
+        SchemaJoinGraph built = new SchemaJoinGraph(cached.getVersion(), cached.getSchema());
+        log.info("Join graph built for data source: {} - Version: {}, Tables: {}, Foreign keys: {}, Time: {}ms",
+                dataSource.getId(), built.getVersion(), built.tableCount(), built.foreignKeyCount(),
+                (System.nanoTime() - start) / 1_000_000);
+
+        synchronized (graphs) {
+            SchemaJoinGraph latest = graphs.get(dataSource.getId());
+            if (latest == null || latest.getVersion() < built.getVersion()) {
+                graphs.put(dataSource.getId(), built);
+            }
+
+            Iterator<UUID> eldest = graphs.keySet().iterator();
+            while (graphs.size() > maxGraphs && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return built;
+    }
+
+    private JoinPathResponse toResponse(List<TableNode> requested, List<Step> steps) {
+        List<String> tables = new ArrayList<>();
+        tables.add(requested.get(0).getName());
+        List<JoinPathResponse.JoinStep> joins = new ArrayList<>();
+
+        for (Step step : steps) {
+            tables.add(step.getTo().getName());
+
+            List<String> conditions = new ArrayList<>();
+            for (int i = 0; i < step.getFromColumns().size(); i++) {
+                conditions.add(step.getFrom().getName() + "." + step.getFromColumns().get(i)
+                        + " = " + step.getTo().getName() + "." + step.getToColumns().get(i));
+            }
+
+            joins.add(JoinPathResponse.JoinStep.builder()
+                    .fromTable(step.getFrom().getName())
+                    .toTable(step.getTo().getName())
+                    .fromColumns(step.getFromColumns())
+                    .toColumns(step.getToColumns())
+                    .condition(String.join(" AND ", conditions))
+                    .build());
+        }
+
+        return JoinPathResponse.builder()
+                .tables(tables)
+                .joins(joins)
+                .hops(steps.size())
+                .build();
+    }
+}
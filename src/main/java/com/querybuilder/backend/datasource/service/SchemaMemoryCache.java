@@ -0,0 +1,169 @@
+package com.querybuilder.backend.datasource.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * In-process LRU cache of parsed schemas, layered in front of the schema_cache table so
+ * hot reads skip both the database round trip and decoding. Bounded by entry count
+ * and by total weight, measured as the size of each schema's Smile encoding before
+ * compression (SchemaCodec.uncompressedSize), a stable proxy for its size on the heap.
+ */
+@Component
+@Slf4j
+public class SchemaMemoryCache {
+
+    @Value("${app.schema.cache.max-entries}")
+    private int maxEntries;
+
+    @Value("${app.schema.cache.max-weight-mb}")
+    private long maxWeightMb;
+
+    private final LinkedHashMap<UUID, CachedSchema> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+
+    /**
+     * Get the cached schema for a data source, including an expired one; callers decide what to do with it
+     */
+    public synchronized Optional<CachedSchema> get(UUID dataSourceId) {
+        return Optional.ofNullable(entries.get(dataSourceId));
+    }
+
+    /**
+     * Cache a schema version. An older version never replaces a newer one.
+     */
+    public synchronized CachedSchema put(UUID dataSourceId, long version, Map<String, Object> schema,
+                                         Map<String, String> tableFingerprints, LocalDateTime expiresAt, long weight) {
+        CachedSchema existing = entries.get(dataSourceId);
+        if (existing != null && existing.getVersion() > version) {
+            return existing;
+        }
+
+        CachedSchema entry = new CachedSchema(dataSourceId, version, freeze(schema),
+                tableFingerprints == null ? null : Map.copyOf(tableFingerprints), expiresAt, weight);
+        if (existing != null) {
+            totalWeight -= existing.getWeight();
+        }
+        entries.put(dataSourceId, entry);
+        totalWeight += weight;
+
+        evictOverflow(dataSourceId);
+        return entry;
+    }
+
+    /**
+     * Extend the expiry of an unchanged schema version without copying it again
+     */
+    public synchronized CachedSchema renew(CachedSchema cached, LocalDateTime expiresAt) {
+        CachedSchema existing = entries.get(cached.getDataSourceId());
+        if (existing != null && existing.getVersion() > cached.getVersion()) {
+            return existing;
+        }
+
+        CachedSchema entry = new CachedSchema(cached.getDataSourceId(), cached.getVersion(), cached.getSchema(),
+                cached.getTableFingerprints(), expiresAt, cached.getWeight());
+        if (existing != null) {
+            totalWeight -= existing.getWeight();
+        }
+        entries.put(cached.getDataSourceId(), entry);
+        totalWeight += entry.getWeight();
+
+        evictOverflow(cached.getDataSourceId());
+        return entry;
+    }
+
+    /**
+     * Evict a data source now and again after the surrounding transaction commits,
+     * so a concurrent reader cannot re-populate the entry from the old row
+     */
+    public void evict(UUID dataSourceId) {
+        remove(dataSourceId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(dataSourceId);
+                }
+            });
+        }
+    }
+
+    private synchronized void remove(UUID dataSourceId) {
+        CachedSchema removed = entries.remove(dataSourceId);
+        if (removed != null) {
+            totalWeight -= removed.getWeight();
+            log.debug("Evicted in-memory schema for data source: {}", dataSourceId);
+        }
+    }
+
+    /**
+     * Drop least recently used entries until within bounds; the entry just added is always kept
+     */
+    private void evictOverflow(UUID keep) {
+        long maxWeight = maxWeightMb * 1024 * 1024;
+        Iterator<Map.Entry<UUID, CachedSchema>> iterator = entries.entrySet().iterator();
+
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && iterator.hasNext()) {
+            Map.Entry<UUID, CachedSchema> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            totalWeight -= eldest.getValue().getWeight();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Deep-copy into unmodifiable collections so a shared cached schema cannot be changed by a caller
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T freeze(T value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((k, v) -> copy.put(k, freeze(v)));
+            return (T) Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(v -> copy.add(freeze(v)));
+            return (T) Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+
+    /**
+     * Immutable parsed schema for one data source at one version
+     */
+    @Getter
+    public static class CachedSchema {
+
+        private final UUID dataSourceId;
+        private final long version;
+        private final Map<String, Object> schema;
+        private final Map<String, String> tableFingerprints;    // null when the dialect query was not readable
+        private final LocalDateTime expiresAt;
+        private final long weight;
+
+        CachedSchema(UUID dataSourceId, long version, Map<String, Object> schema,
+                     Map<String, String> tableFingerprints, LocalDateTime expiresAt, long weight) {
+            this.dataSourceId = dataSourceId;
+            this.version = version;
+            this.schema = schema;
+            this.tableFingerprints = tableFingerprints;
+            this.expiresAt = expiresAt;
+            this.weight = weight;
+        }
+
+        public boolean isExpired() {
+            return LocalDateTime.now().isAfter(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,846 @@
+package com.querybuilder.backend.datasource.service;
+
+import com.querybuilder.backend.datasource.model.DatabaseType;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads table, column and key metadata for a whole catalog with a fixed number of
+ * round trips. Columns come from one pattern-based getColumns call; primary and
+ * foreign keys come from one dialect catalog query each, falling back to per-table
+ * JDBC calls only when the catalog views are not readable. Large catalogs can also
+ * be read in parallel over a small connection pool. Per-table fingerprints from the same
+ * catalog views let a refresh re-read only the tables whose structure changed. A data source's
+ * SchemaFilter narrows every read: catalog queries get it as a predicate, and JDBC metadata
+ * calls are scoped to the included schemas and to the included tables' names.
+ */
+@Component
+@Slf4j
+public class SchemaMetadataReader {
+
+    static final String MYSQL_PRIMARY_KEYS = """
+            SELECT TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME
+            FROM information_schema.KEY_COLUMN_USAGE
+            WHERE TABLE_SCHEMA = ? AND CONSTRAINT_NAME = 'PRIMARY'
+            ORDER BY TABLE_NAME, ORDINAL_POSITION""";
+
+    static final String MYSQL_FOREIGN_KEYS = """
+            SELECT TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME, REFERENCED_TABLE_NAME, REFERENCED_COLUMN_NAME,
+                   CONSTRAINT_NAME, ORDINAL_POSITION
+            FROM information_schema.KEY_COLUMN_USAGE
+            WHERE TABLE_SCHEMA = ? AND REFERENCED_TABLE_NAME IS NOT NULL
+            ORDER BY TABLE_NAME, CONSTRAINT_NAME, ORDINAL_POSITION""";
+
+    static final String POSTGRESQL_PRIMARY_KEYS = """
+            SELECT kcu.table_schema, kcu.table_name, kcu.column_name
+            FROM information_schema.table_constraints tc
+            JOIN information_schema.key_column_usage kcu
+              ON kcu.constraint_schema = tc.constraint_schema
+             AND kcu.constraint_name = tc.constraint_name
+             AND kcu.table_name = tc.table_name
+            WHERE tc.constraint_type = 'PRIMARY KEY'
+              AND tc.table_schema NOT IN ('pg_catalog', 'information_schema')
+            ORDER BY kcu.table_schema, kcu.table_name, kcu.ordinal_position""";
+
+    static final String POSTGRESQL_FOREIGN_KEYS = """
+            SELECT kcu.table_schema, kcu.table_name, kcu.column_name, ref.table_name, ref.column_name,
+                   kcu.constraint_name, kcu.ordinal_position
+            FROM information_schema.referential_constraints rc
+            JOIN information_schema.key_column_usage kcu
+              ON kcu.constraint_schema = rc.constraint_schema
+             AND kcu.constraint_name = rc.constraint_name
+            JOIN information_schema.key_column_usage ref
+              ON ref.constraint_schema = rc.unique_constraint_schema
+             AND ref.constraint_name = rc.unique_constraint_name
+             AND ref.ordinal_position = kcu.position_in_unique_constraint
+            WHERE kcu.table_schema NOT IN ('pg_catalog', 'information_schema')
+            ORDER BY kcu.table_schema, kcu.table_name, kcu.constraint_name, kcu.ordinal_position""";
+
+    static final String SQLSERVER_PRIMARY_KEYS = """
+            SELECT SCHEMA_NAME(t.schema_id), t.name, c.name
+            FROM sys.indexes i
+            JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id
+            JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+            JOIN sys.tables t ON t.object_id = i.object_id
+            WHERE i.is_primary_key = 1
+            ORDER BY t.schema_id, t.name, ic.key_ordinal""";
+
+    static final String SQLSERVER_FOREIGN_KEYS = """
+            SELECT SCHEMA_NAME(tp.schema_id), tp.name, cp.name, tr.name, cr.name,
+                   OBJECT_NAME(fkc.constraint_object_id), fkc.constraint_column_id
+            FROM sys.foreign_key_columns fkc
+            JOIN sys.tables tp ON tp.object_id = fkc.parent_object_id
+            JOIN sys.columns cp ON cp.object_id = fkc.parent_object_id AND cp.column_id = fkc.parent_column_id
+            JOIN sys.tables tr ON tr.object_id = fkc.referenced_object_id
+            JOIN sys.columns cr ON cr.object_id = fkc.referenced_object_id AND cr.column_id = fkc.referenced_column_id
+            ORDER BY tp.schema_id, tp.name, fkc.constraint_object_id, fkc.constraint_column_id""";
+
+    static final String ORACLE_PRIMARY_KEYS = """
+            SELECT cc.owner, cc.table_name, cc.column_name
+            FROM all_constraints c
+            JOIN all_cons_columns cc ON cc.owner = c.owner AND cc.constraint_name = c.constraint_name
+            WHERE c.constraint_type = 'P'
+            ORDER BY cc.table_name, cc.position""";
+
+    static final String ORACLE_FOREIGN_KEYS = """
+            SELECT cc.owner, cc.table_name, cc.column_name, rc.table_name, rc.column_name,
+                   c.constraint_name, cc.position
+            FROM all_constraints c
+            JOIN all_cons_columns cc ON cc.owner = c.owner AND cc.constraint_name = c.constraint_name
+            JOIN all_cons_columns rc ON rc.owner = c.r_owner AND rc.constraint_name = c.r_constraint_name
+                                    AND rc.position = cc.position
+            WHERE c.constraint_type = 'R'
+            ORDER BY cc.table_name, c.constraint_name, cc.position""";
+
+    // Fingerprints change whenever a table's columns or keys change. Data changes must not move them,
+    // so UPDATE_TIME and relfilenode (rewritten by TRUNCATE / VACUUM FULL) are deliberately left out.
+
+    static final String MYSQL_TABLE_FINGERPRINTS = """
+            SELECT t.TABLE_SCHEMA, t.TABLE_NAME,
+                   CONCAT_WS('|', t.CREATE_TIME, COUNT(c.COLUMN_NAME),
+                             SUM(CRC32(CONCAT_WS(':', c.ORDINAL_POSITION, c.COLUMN_NAME, c.COLUMN_TYPE,
+                                                 c.IS_NULLABLE, c.COLUMN_KEY, c.COLUMN_DEFAULT))),
+                             MAX(k.key_sum))
+            FROM information_schema.TABLES t
+            LEFT JOIN information_schema.COLUMNS c
+              ON c.TABLE_SCHEMA = t.TABLE_SCHEMA AND c.TABLE_NAME = t.TABLE_NAME
+            LEFT JOIN (SELECT TABLE_NAME,
+                              SUM(CRC32(CONCAT_WS(':', CONSTRAINT_NAME, COLUMN_NAME,
+                                                  REFERENCED_TABLE_NAME, REFERENCED_COLUMN_NAME))) AS key_sum
+                       FROM information_schema.KEY_COLUMN_USAGE
+                       WHERE TABLE_SCHEMA = ?
+                       GROUP BY TABLE_NAME) k
+              ON k.TABLE_NAME = t.TABLE_NAME
+            WHERE t.TABLE_SCHEMA = ? AND t.TABLE_TYPE = 'BASE TABLE'
+            GROUP BY t.TABLE_SCHEMA, t.TABLE_NAME, t.CREATE_TIME""";
+
+    static final String POSTGRESQL_TABLE_FINGERPRINTS = """
+            SELECT n.nspname, c.relname,
+                   md5(coalesce((SELECT string_agg(a.attname || ':' || format_type(a.atttypid, a.atttypmod)
+                                                   || ':' || a.attnotnull
+                                                   || ':' || coalesce(pg_get_expr(d.adbin, d.adrelid), ''),
+                                                   ',' ORDER BY a.attnum)
+                                 FROM pg_attribute a
+                                 LEFT JOIN pg_attrdef d ON d.adrelid = a.attrelid AND d.adnum = a.attnum
+                                 WHERE a.attrelid = c.oid AND a.attnum > 0 AND NOT a.attisdropped), '')
+                       || '|' ||
+                       coalesce((SELECT string_agg(co.conname || ':' || pg_get_constraintdef(co.oid),
+                                                   ',' ORDER BY co.conname)
+                                 FROM pg_constraint co
+                                 WHERE co.conrelid = c.oid AND co.contype IN ('p', 'f')), ''))
+            FROM pg_class c
+            JOIN pg_namespace n ON n.oid = c.relnamespace
+            WHERE c.relkind = 'r'
+              AND n.nspname NOT IN ('pg_catalog', 'information_schema')
+              AND n.nspname NOT LIKE 'pg_toast%'""";
+
+    static final String SQLSERVER_TABLE_FINGERPRINTS = """
+            SELECT SCHEMA_NAME(t.schema_id), t.name, CONVERT(varchar(33), t.modify_date, 126)
+            FROM sys.tables t
+            WHERE t.is_ms_shipped = 0""";
+
+    static final String ORACLE_TABLE_FINGERPRINTS = """
+            SELECT owner, object_name, TO_CHAR(last_ddl_time, 'YYYY-MM-DD HH24:MI:SS')
+            FROM all_objects
+            WHERE object_type = 'TABLE'""";
+
+    // Up to this many changed tables get their own exact-name getColumns call; more share one catalog-wide call
+    private static final int MAX_PER_TABLE_COLUMN_READS = 50;
+
+    /**
+     * Read all tables with their columns, primary keys and foreign keys
+     */
+    public List<Map<String, Object>> readTables(Connection connection, DatabaseType databaseType, String databaseName,
+                                                SchemaFilter filter) throws SQLException {
+
+        DatabaseMetaData metaData = connection.getMetaData();
+
+        // Keyed by schema + table name so same-named tables in different schemas stay apart
+        Map<String, Map<String, Object>> tables = readTableList(metaData, databaseType, databaseName, filter);
+
+        readAllColumns(metaData, databaseType, databaseName, filter, tables);
+        readKeys(connection, databaseType, databaseName, filter, tables);
+
+        log.debug("Discovered {} tables", tables.size());
+        return new ArrayList<>(tables.values());
+    }
+
+    /**
+     * Read all tables using connections from the pool. Catalogs with at least parallelMinTables
+     * tables are split into partitions (schema + table-name prefix for columns, plus one unit per
+     * key query) fetched concurrently on up to maxConcurrency connections. Each table's metadata
+     * comes from exactly one partition, so the merged result is the same as a sequential read.
+     */
+    public List<Map<String, Object>> readTables(javax.sql.DataSource pool, DatabaseType databaseType,
+                                                String databaseName, SchemaFilter filter, int maxConcurrency,
+                                                int parallelMinTables, SchemaDiscoveryProgress progress)
+            throws SQLException {
+
+        Map<String, Map<String, Object>> tables;
+        String schemaPattern;
+        String escape;
+
+        try (Connection connection = pool.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            schemaPattern = schemaPattern(metaData, databaseType);
+            escape = metaData.getSearchStringEscape();
+            tables = readTableList(metaData, databaseType, databaseName, filter);
+
+            if (maxConcurrency <= 1 || tables.size() < parallelMinTables) {
+                progress.start(tables.size(), 1, false);
+                readAllColumns(metaData, databaseType, databaseName, filter, tables);
+                readKeys(connection, databaseType, databaseName, filter, tables);
+                progress.unitCompleted();
+                progress.complete();
+
+                log.debug("Discovered {} tables", tables.size());
+                return new ArrayList<>(tables.values());
+            }
+        }
+
+        List<ColumnPartition> partitions = partitionColumns(tables, databaseType, schemaPattern, escape);
+        progress.start(tables.size(), partitions.size() + 2, true);
+
+        log.info("Parallel schema discovery for data source {}: {} tables in {} column partitions, {} connections",
+                progress.getDataSourceId(), tables.size(), partitions.size(), maxConcurrency);
+
+        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrency);
+        try {
+            List<Future<Void>> columnFutures = new ArrayList<>();
+            for (ColumnPartition partition : partitions) {
+                columnFutures.add(executor.submit(() -> {
+                    try (Connection connection = pool.getConnection()) {
+                        readColumns(connection.getMetaData(), databaseName, partition.schemaPattern,
+                                partition.tableNamePattern, tables, partition.tableKeys);
+                    }
+                    reportProgress(progress);
+                    return null;
+                }));
+            }
+
+            Future<Void> primaryKeys = executor.submit(() -> {
+                try (Connection connection = pool.getConnection()) {
+                    readPrimaryKeys(connection, databaseType, databaseName, filter, tables);
+                }
+                reportProgress(progress);
+                return null;
+            });
+
+            Future<Void> foreignKeys = executor.submit(() -> {
+                try (Connection connection = pool.getConnection()) {
+                    readForeignKeys(connection, databaseType, databaseName, filter, tables);
+                }
+                reportProgress(progress);
+                return null;
+            });
+
+            for (Future<Void> future : columnFutures) {
+                await(future);
+            }
+
+            // Let both key queries settle before a fallback starts rewriting the key lists
+            SQLException keyFailure = null;
+            for (Future<Void> future : List.of(primaryKeys, foreignKeys)) {
+                try {
+                    await(future);
+                } catch (SQLException e) {
+                    keyFailure = e;
+                }
+            }
+
+            if (keyFailure != null) {
+                log.warn("Bulk key discovery failed ({}), falling back to per-table metadata calls",
+                        keyFailure.getMessage());
+                readKeysPerTableParallel(executor, pool, databaseName, tables, maxConcurrency);
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+
+        progress.complete();
+        log.debug("Discovered {} tables", tables.size());
+        return new ArrayList<>(tables.values());
+    }
+
+    /**
+     * Read a structural fingerprint for every table, keyed like the table maps (owner + "." + name),
+     * in one catalog query
+     */
+    public Map<String, String> readTableFingerprints(Connection connection, DatabaseType databaseType,
+                                                     String databaseName, SchemaFilter filter) throws SQLException {
+
+        String sql = switch (databaseType) {
+            case MYSQL -> filter.apply(MYSQL_TABLE_FINGERPRINTS, databaseType, "t.TABLE_SCHEMA", "t.TABLE_NAME");
+            case POSTGRESQL -> filter.apply(POSTGRESQL_TABLE_FINGERPRINTS, databaseType, "n.nspname", "c.relname");
+            case SQLSERVER -> filter.apply(SQLSERVER_TABLE_FINGERPRINTS, databaseType, "SCHEMA_NAME(t.schema_id)", "t.name");
+            case ORACLE -> filter.apply(ORACLE_TABLE_FINGERPRINTS, databaseType, "owner", "object_name");
+        };
+
+        Map<String, String> fingerprints = new HashMap<>();
+
+        try (PreparedStatement statement = prepareCatalogQuery(connection, databaseType, databaseName, sql, filter);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                fingerprints.put(tableKey(resultSet.getString(1), resultSet.getString(2)),
+                        Objects.toString(resultSet.getString(3), ""));
+            }
+        }
+
+        return fingerprints;
+    }
+
+    /**
+     * Re-read only the given tables, keyed like readTableFingerprints. Keys that no longer name a
+     * table are absent from the result.
+     */
+    public Map<String, Map<String, Object>> readChangedTables(Connection connection, DatabaseType databaseType,
+                                                             String databaseName, SchemaFilter filter,
+                                                             Set<String> tableKeys) throws SQLException {
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        String schemaPattern = schemaPattern(metaData, databaseType);
+        String escape = metaData.getSearchStringEscape();
+
+        Map<String, Map<String, Object>> tables = readTableList(metaData, databaseType, databaseName, filter);
+        tables.keySet().retainAll(tableKeys);
+
+        if (tables.size() <= MAX_PER_TABLE_COLUMN_READS && escape != null && !escape.isEmpty()) {
+            for (Map.Entry<String, Map<String, Object>> entry : tables.entrySet()) {
+                String owner = (String) entry.getValue().get("schema");
+                String tableSchema = databaseType == DatabaseType.MYSQL || owner == null
+                        ? schemaPattern
+                        : escapePattern(owner, escape);
+                readColumns(metaData, databaseName, tableSchema,
+                        escapePattern((String) entry.getValue().get("name"), escape), tables, Set.of(entry.getKey()));
+            }
+        } else {
+            readAllColumns(metaData, databaseType, databaseName, filter, tables);
+        }
+
+        readKeys(connection, databaseType, databaseName, filter, tables);
+
+        log.debug("Re-read {} changed tables", tables.size());
+        return tables;
+    }
+
+    /**
+     * List the schemas a browser can open. MySQL databases are a single schema; Oracle is the
+     * connected user's schema unless the filter includes others.
+     */
+    public List<String> readSchemaNames(Connection connection, DatabaseType databaseType, String databaseName,
+                                        SchemaFilter filter) throws SQLException {
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        if (databaseType == DatabaseType.MYSQL) {
+            return filter.includesSchema(databaseName) ? List.of(databaseName) : List.of();
+        }
+        if (databaseType == DatabaseType.ORACLE && filter.getIncludeSchemas().isEmpty()) {
+            return filter.includesSchema(metaData.getUserName()) ? List.of(metaData.getUserName()) : List.of();
+        }
+
+        List<String> schemas = new ArrayList<>();
+        try (ResultSet schemasResultSet = metaData.getSchemas()) {
+            while (schemasResultSet.next()) {
+                String schema = schemasResultSet.getString("TABLE_SCHEM");
+                if (!isSystemSchema(databaseType, schema) && filter.includesSchema(schema)) {
+                    schemas.add(schema);
+                }
+            }
+        }
+        return schemas;
+    }
+
+    /**
+     * List table names, schemas and types without columns or keys; a null schema lists every schema
+     */
+    public List<Map<String, Object>> readTableNames(Connection connection, DatabaseType databaseType,
+                                                    String databaseName, SchemaFilter filter, String schema)
+            throws SQLException {
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        List<String> schemaPatterns = databaseType == DatabaseType.MYSQL || schema == null
+                ? schemaPatterns(metaData, databaseType, filter)
+                : List.of(escapePattern(schema, metaData.getSearchStringEscape()));
+
+        List<Map<String, Object>> tables = new ArrayList<>();
+        for (Map<String, Object> table : readTableList(metaData, databaseName, schemaPatterns, filter).values()) {
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("name", table.get("name"));
+            summary.put("schema", table.get("schema"));
+            summary.put("type", table.get("type"));
+            tables.add(summary);
+        }
+        return tables;
+    }
+
+    /**
+     * Read one table with its columns, keys and indexes, or empty when it does not exist
+     */
+    public Optional<Map<String, Object>> readTableDetail(Connection connection, DatabaseType databaseType,
+                                                         String databaseName, SchemaFilter filter, String schema,
+                                                         String tableName) throws SQLException {
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        String escape = metaData.getSearchStringEscape();
+        String schemaPattern = databaseType == DatabaseType.MYSQL || schema == null
+                ? schemaPattern(metaData, databaseType)
+                : escapePattern(schema, escape);
+
+        Map<String, Map<String, Object>> tables = new LinkedHashMap<>();
+        try (ResultSet tablesResultSet = metaData.getTables(
+                databaseName, schemaPattern, escapePattern(tableName, escape), new String[]{"TABLE"})) {
+
+            while (tablesResultSet.next()) {
+                // Without a search escape the pattern may also match similar names
+                String owner = owner(tablesResultSet);
+                if (!tableName.equals(tablesResultSet.getString("TABLE_NAME"))
+                        || !filter.includesTable(owner, tableName)) {
+                    continue;
+                }
+
+                Map<String, Object> tableInfo = new HashMap<>();
+                tableInfo.put("name", tableName);
+                tableInfo.put("schema", owner);
+                tableInfo.put("type", tablesResultSet.getString("TABLE_TYPE"));
+                tableInfo.put("columns", new ArrayList<Map<String, Object>>());
+                tableInfo.put("primaryKeys", new ArrayList<String>());
+                tableInfo.put("foreignKeys", new ArrayList<Map<String, Object>>());
+
+                tables.put(tableKey(owner, tableName), tableInfo);
+                break;
+            }
+        }
+
+        if (tables.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map.Entry<String, Map<String, Object>> entry = tables.entrySet().iterator().next();
+        Map<String, Object> table = entry.getValue();
+
+        readColumns(metaData, databaseName, schemaPattern, escapePattern(tableName, escape), tables,
+                Set.of(entry.getKey()));
+        readKeysPerTable(metaData, databaseName, tables.values());
+        table.put("indexes", readIndexes(metaData, databaseName, (String) table.get("schema"), tableName));
+
+        return Optional.of(table);
+    }
+
+    /**
+     * Indexes of one table, each with its columns in key order
+     */
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> readIndexes(DatabaseMetaData metaData, String databaseName,
+                                                  String owner, String tableName) throws SQLException {
+
+        String schema = Objects.equals(owner, databaseName) ? null : owner;
+        Map<String, Map<String, Object>> indexes = new LinkedHashMap<>();
+
+        try (ResultSet indexResultSet = metaData.getIndexInfo(databaseName, schema, tableName, false, true)) {
+            while (indexResultSet.next()) {
+                String indexName = indexResultSet.getString("INDEX_NAME");
+                if (indexName == null || indexResultSet.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    continue;
+                }
+
+                boolean unique = !indexResultSet.getBoolean("NON_UNIQUE");
+                Map<String, Object> index = indexes.computeIfAbsent(indexName, name -> {
+                    Map<String, Object> indexInfo = new HashMap<>();
+                    indexInfo.put("name", name);
+                    indexInfo.put("unique", unique);
+                    indexInfo.put("columns", new ArrayList<String>());
+                    return indexInfo;
+                });
+                ((List<String>) index.get("columns")).add(indexResultSet.getString("COLUMN_NAME"));
+            }
+        }
+
+        return new ArrayList<>(indexes.values());
+    }
+
+    private boolean isSystemSchema(DatabaseType databaseType, String schema) {
+        return switch (databaseType) {
+            case POSTGRESQL -> schema.equals("information_schema") || schema.startsWith("pg_");
+            case SQLSERVER -> schema.equals("sys") || schema.equals("INFORMATION_SCHEMA")
+                    || schema.equals("guest") || schema.startsWith("db_");
+            default -> false;
+        };
+    }
+
+    /**
+     * Oracle exposes every accessible schema through a null pattern, so restrict it to the connected user
+     */
+    private String schemaPattern(DatabaseMetaData metaData, DatabaseType databaseType) throws SQLException {
+        return databaseType == DatabaseType.ORACLE ? metaData.getUserName() : null;
+    }
+
+    /**
+     * getTables schema patterns for a filter: the default scope without schema includes, otherwise
+     * one exact pattern per included schema. MySQL databases have no schemas to narrow by.
+     */
+    private List<String> schemaPatterns(DatabaseMetaData metaData, DatabaseType databaseType, SchemaFilter filter)
+            throws SQLException {
+
+        if (filter.getIncludeSchemas().isEmpty() || databaseType == DatabaseType.MYSQL) {
+            return Collections.singletonList(schemaPattern(metaData, databaseType));
+        }
+
+        List<String> patterns = new ArrayList<>();
+        for (String schema : readSchemaNames(metaData.getConnection(), databaseType, null, filter)) {
+            patterns.add(escapePattern(schema, metaData.getSearchStringEscape()));
+        }
+        return patterns;
+    }
+
+    private Map<String, Map<String, Object>> readTableList(DatabaseMetaData metaData, DatabaseType databaseType,
+                                                           String databaseName, SchemaFilter filter)
+            throws SQLException {
+        return readTableList(metaData, databaseName, schemaPatterns(metaData, databaseType, filter), filter);
+    }
+
+    private Map<String, Map<String, Object>> readTableList(DatabaseMetaData metaData, String databaseName,
+                                                           List<String> schemaPatterns, SchemaFilter filter)
+            throws SQLException {
+        Map<String, Map<String, Object>> tables = new LinkedHashMap<>();
+
+        for (String schemaPattern : schemaPatterns) {
+            readTableList(metaData, databaseName, schemaPattern, filter, tables);
+        }
+
+        return tables;
+    }
+
+    private void readTableList(DatabaseMetaData metaData, String databaseName, String schemaPattern,
+                               SchemaFilter filter, Map<String, Map<String, Object>> tables) throws SQLException {
+
+        try (ResultSet tablesResultSet = metaData.getTables(
+                databaseName, schemaPattern, "%", new String[]{"TABLE"})) {
+
+            while (tablesResultSet.next()) {
+                String tableName = tablesResultSet.getString("TABLE_NAME");
+                String owner = owner(tablesResultSet);
+                if (!filter.includesTable(owner, tableName)) {
+                    continue;
+                }
+
+                Map<String, Object> tableInfo = new HashMap<>();
+                tableInfo.put("name", tableName);
+                tableInfo.put("schema", owner);
+                tableInfo.put("type", tablesResultSet.getString("TABLE_TYPE"));
+                tableInfo.put("columns", new ArrayList<Map<String, Object>>());
+                tableInfo.put("primaryKeys", new ArrayList<String>());
+                tableInfo.put("foreignKeys", new ArrayList<Map<String, Object>>());
+
+                tables.put(tableKey(owner, tableName), tableInfo);
+            }
+        }
+    }
+
+    /**
+     * Columns of every listed table. Unfiltered, one catalog-wide call; filtered, calls scoped to the
+     * listed tables' schemas and name prefixes so excluded parts of the catalog are never read.
+     */
+    private void readAllColumns(DatabaseMetaData metaData, DatabaseType databaseType, String databaseName,
+                                SchemaFilter filter, Map<String, Map<String, Object>> tables) throws SQLException {
+
+        String schemaPattern = schemaPattern(metaData, databaseType);
+        if (filter.isEmpty()) {
+            readColumns(metaData, databaseName, schemaPattern, "%", tables, null);
+            return;
+        }
+
+        for (ColumnPartition partition : partitionColumns(
+                tables, databaseType, schemaPattern, metaData.getSearchStringEscape())) {
+            readColumns(metaData, databaseName, partition.schemaPattern, partition.tableNamePattern,
+                    tables, partition.tableKeys);
+        }
+    }
+
+    /**
+     * Read columns matching the table pattern; when onlyTableKeys is set, columns of any other
+     * table are ignored so overlapping patterns never fill a table twice
+     */
+    @SuppressWarnings("unchecked")
+    private void readColumns(DatabaseMetaData metaData, String databaseName, String schemaPattern,
+                             String tableNamePattern, Map<String, Map<String, Object>> tables,
+                             Set<String> onlyTableKeys) throws SQLException {
+
+        try (ResultSet columnsResultSet = metaData.getColumns(databaseName, schemaPattern, tableNamePattern, "%")) {
+            while (columnsResultSet.next()) {
+                String key = tableKey(owner(columnsResultSet), columnsResultSet.getString("TABLE_NAME"));
+                Map<String, Object> table = tables.get(key);
+                if (table == null || (onlyTableKeys != null && !onlyTableKeys.contains(key))) {
+                    continue;   // views, system tables or another partition's table
+                }
+
+                Map<String, Object> columnInfo = new HashMap<>();
+                columnInfo.put("name", columnsResultSet.getString("COLUMN_NAME"));
+                columnInfo.put("type", columnsResultSet.getString("TYPE_NAME"));
+                columnInfo.put("size", columnsResultSet.getInt("COLUMN_SIZE"));
+                columnInfo.put("nullable", columnsResultSet.getInt("NULLABLE") == DatabaseMetaData.columnNullable);
+                columnInfo.put("defaultValue", columnsResultSet.getString("COLUMN_DEF"));
+
+                ((List<Map<String, Object>>) table.get("columns")).add(columnInfo);
+            }
+        }
+    }
+
+    private void readKeys(Connection connection, DatabaseType databaseType, String databaseName,
+                          SchemaFilter filter, Map<String, Map<String, Object>> tables) throws SQLException {
+        try {
+            readPrimaryKeys(connection, databaseType, databaseName, filter, tables);
+            readForeignKeys(connection, databaseType, databaseName, filter, tables);
+        } catch (SQLException e) {
+            log.warn("Bulk key discovery failed ({}), falling back to per-table metadata calls", e.getMessage());
+            readKeysPerTable(connection.getMetaData(), databaseName, tables.values());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readPrimaryKeys(Connection connection, DatabaseType databaseType, String databaseName,
+                                 SchemaFilter filter, Map<String, Map<String, Object>> tables) throws SQLException {
+
+        String sql = switch (databaseType) {
+            case MYSQL -> filter.apply(MYSQL_PRIMARY_KEYS, databaseType, "TABLE_SCHEMA", "TABLE_NAME");
+            case POSTGRESQL -> filter.apply(POSTGRESQL_PRIMARY_KEYS, databaseType, "kcu.table_schema", "kcu.table_name");
+            case SQLSERVER -> filter.apply(SQLSERVER_PRIMARY_KEYS, databaseType, "SCHEMA_NAME(t.schema_id)", "t.name");
+            case ORACLE -> filter.apply(ORACLE_PRIMARY_KEYS, databaseType, "c.owner", "cc.table_name");
+        };
+
+        try (PreparedStatement statement = prepareCatalogQuery(connection, databaseType, databaseName, sql, filter);
+             ResultSet pkResultSet = statement.executeQuery()) {
+
+            while (pkResultSet.next()) {
+                Map<String, Object> table = tables.get(tableKey(pkResultSet.getString(1), pkResultSet.getString(2)));
+                if (table != null) {
+                    ((List<String>) table.get("primaryKeys")).add(pkResultSet.getString(3));
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readForeignKeys(Connection connection, DatabaseType databaseType, String databaseName,
+                                 SchemaFilter filter, Map<String, Map<String, Object>> tables) throws SQLException {
+
+        String sql = switch (databaseType) {
+            case MYSQL -> filter.apply(MYSQL_FOREIGN_KEYS, databaseType, "TABLE_SCHEMA", "TABLE_NAME");
+            case POSTGRESQL -> filter.apply(POSTGRESQL_FOREIGN_KEYS, databaseType, "kcu.table_schema", "kcu.table_name");
+            case SQLSERVER -> filter.apply(SQLSERVER_FOREIGN_KEYS, databaseType, "SCHEMA_NAME(tp.schema_id)", "tp.name");
+            case ORACLE -> filter.apply(ORACLE_FOREIGN_KEYS, databaseType, "c.owner", "cc.table_name");
+        };
+
+        try (PreparedStatement statement = prepareCatalogQuery(connection, databaseType, databaseName, sql, filter);
+             ResultSet fkResultSet = statement.executeQuery()) {
+
+            while (fkResultSet.next()) {
+                Map<String, Object> table = tables.get(tableKey(fkResultSet.getString(1), fkResultSet.getString(2)));
+                if (table != null) {
+                    Map<String, Object> fkInfo = new HashMap<>();
+                    fkInfo.put("columnName", fkResultSet.getString(3));
+                    fkInfo.put("referencedTable", fkResultSet.getString(4));
+                    fkInfo.put("referencedColumn", fkResultSet.getString(5));
+                    fkInfo.put("constraintName", fkResultSet.getString(6));
+                    fkInfo.put("keySequence", fkResultSet.getInt(7));
+
+                    ((List<Map<String, Object>>) table.get("foreignKeys")).add(fkInfo);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fallback: the original one-call-per-table discovery, used when catalog views are not readable
+     */
+    @SuppressWarnings("unchecked")
+    private void readKeysPerTable(DatabaseMetaData metaData, String databaseName,
+                                  Collection<Map<String, Object>> tables) throws SQLException {
+
+        for (Map<String, Object> table : tables) {
+            String tableName = (String) table.get("name");
+            String owner = (String) table.get("schema");
+            String schema = Objects.equals(owner, databaseName) ? null : owner;
+
+            List<String> primaryKeys = (List<String>) table.get("primaryKeys");
+            List<Map<String, Object>> foreignKeys = (List<Map<String, Object>>) table.get("foreignKeys");
+            primaryKeys.clear();
+            foreignKeys.clear();
+
+            try (ResultSet pkResultSet = metaData.getPrimaryKeys(databaseName, schema, tableName)) {
+                while (pkResultSet.next()) {
+                    primaryKeys.add(pkResultSet.getString("COLUMN_NAME"));
+                }
+            }
+
+            // Rows come ordered by referenced table and key sequence, so the n-th row with a given
+            // referenced table and sequence belongs to the n-th key to that table
+            Map<String, Integer> unnamedKeys = new HashMap<>();
+            try (ResultSet fkResultSet = metaData.getImportedKeys(databaseName, schema, tableName)) {
+                while (fkResultSet.next()) {
+                    String referencedTable = fkResultSet.getString("PKTABLE_NAME");
+                    int keySequence = fkResultSet.getInt("KEY_SEQ");
+                    String constraintName = fkResultSet.getString("FK_NAME");
+                    if (constraintName == null) {
+                        // FK_NAME may be null; every discovered key still gets a name
+                        constraintName = "fk:" + referencedTable + "#"
+                                + unnamedKeys.merge(referencedTable + "#" + keySequence, 1, Integer::sum);
+                    }
+
+                    Map<String, Object> fkInfo = new HashMap<>();
+                    fkInfo.put("columnName", fkResultSet.getString("FKCOLUMN_NAME"));
+                    fkInfo.put("referencedTable", referencedTable);
+                    fkInfo.put("referencedColumn", fkResultSet.getString("PKCOLUMN_NAME"));
+                    fkInfo.put("constraintName", constraintName);
+                    fkInfo.put("keySequence", keySequence);
+
+                    foreignKeys.add(fkInfo);
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-table fallback split into one slice per connection
+     */
+    private void readKeysPerTableParallel(ExecutorService executor, javax.sql.DataSource pool, String databaseName,
+                                          Map<String, Map<String, Object>> tables, int slices) throws SQLException {
+
+        List<Map<String, Object>> tableList = new ArrayList<>(tables.values());
+        int sliceSize = (tableList.size() + slices - 1) / slices;
+
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int start = 0; start < tableList.size(); start += sliceSize) {
+            List<Map<String, Object>> slice = tableList.subList(start, Math.min(start + sliceSize, tableList.size()));
+            futures.add(executor.submit(() -> {
+                try (Connection connection = pool.getConnection()) {
+                    readKeysPerTable(connection.getMetaData(), databaseName, slice);
+                }
+                return null;
+            }));
+        }
+
+        for (Future<Void> future : futures) {
+            await(future);
+        }
+    }
+
+    /**
+     * Split the column read by schema and first character of the table name. Drivers without a
+     * search escape cannot match a literal prefix safely, so they get one partition per schema.
+     */
+    private List<ColumnPartition> partitionColumns(Map<String, Map<String, Object>> tables,
+                                                   DatabaseType databaseType, String schemaPattern, String escape) {
+
+        Map<String, ColumnPartition> partitions = new TreeMap<>();
+
+        for (Map.Entry<String, Map<String, Object>> entry : tables.entrySet()) {
+            String owner = (String) entry.getValue().get("schema");
+            String tableName = (String) entry.getValue().get("name");
+
+            // MySQL owners are catalogs, so there is no schema to narrow by
+            String partitionSchema = databaseType == DatabaseType.MYSQL || owner == null
+                    ? schemaPattern
+                    : escapePattern(owner, escape);
+            String prefix = escape == null || escape.isEmpty() || tableName.isEmpty()
+                    ? ""
+                    : escapePattern(tableName.substring(0, 1), escape);
+
+            String partitionKey = partitionSchema + "/" + prefix;
+            partitions.computeIfAbsent(partitionKey,
+                            k -> new ColumnPartition(partitionSchema, prefix + "%", new HashSet<>()))
+                    .tableKeys.add(entry.getKey());
+        }
+
+        return new ArrayList<>(partitions.values());
+    }
+
+    private String escapePattern(String value, String escape) {
+        if (value == null || escape == null || escape.isEmpty()) {
+            return value;
+        }
+
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '_' || c == '%' || escape.indexOf(c) >= 0) {
+                escaped.append(escape);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private void reportProgress(SchemaDiscoveryProgress progress) {
+        int done = progress.unitCompleted();
+        int total = progress.getTotalUnits();
+        int step = Math.max(1, total / 10);
+        if (done % step == 0 || done == total) {
+            log.info("Schema discovery for data source {}: {}/{} units ({}%)",
+                    progress.getDataSourceId(), done, total, progress.getPercentComplete());
+        }
+    }
+
+    private void await(Future<Void> future) throws SQLException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Schema discovery interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Schema discovery failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * MySQL catalog queries are scoped to the database: every placeholder ahead of the filter
+     * predicate binds its name. The filter's own parameters follow.
+     */
+    private PreparedStatement prepareCatalogQuery(Connection connection, DatabaseType databaseType,
+                                                  String databaseName, String sql, SchemaFilter filter)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        int placeholders = (int) sql.chars().filter(c -> c == '?').count() - filter.parameterCount();
+        if (databaseType == DatabaseType.MYSQL) {
+            for (int i = 1; i <= placeholders; i++) {
+                statement.setString(i, databaseName);
+            }
+        }
+        filter.bind(statement, placeholders + 1);
+        return statement;
+    }
+
+    /**
+     * MySQL reports databases as catalogs with no schema; everything else reports schemas
+     */
+    private String owner(ResultSet metadataRow) throws SQLException {
+        String schema = metadataRow.getString("TABLE_SCHEM");
+        return schema != null ? schema : metadataRow.getString("TABLE_CAT");
+    }
+
+    private String tableKey(String owner, String tableName) {
+        return owner + "." + tableName;
+    }
+
+    /**
+     * One getColumns call: a schema and table-name pattern plus the tables it is responsible for
+     */
+    @AllArgsConstructor
+    private static class ColumnPartition {
+
+        private final String schemaPattern;
+        private final String tableNamePattern;
+        private final Set<String> tableKeys;
+    }
+}
@@ -0,0 +1,282 @@
+package com.querybuilder.backend.datasource.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querybuilder.backend.datasource.model.DatabaseType;
+import com.querybuilder.backend.datasource.model.TableStatistics;
+import com.querybuilder.backend.datasource.model.TableStatistics.ColumnStatistics;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads row counts and column statistics from the statistics the target database already
+ * keeps for its optimizer, never from the tables themselves. Values are as fresh as the
+ * database's last ANALYZE and are missing for anything it has not analyzed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaStatisticsReader {
+
+    static final String MYSQL_TABLE_ROWS = """
+            SELECT TABLE_SCHEMA, TABLE_NAME, TABLE_ROWS
+            FROM information_schema.TABLES
+            WHERE TABLE_SCHEMA = ? AND TABLE_TYPE = 'BASE TABLE'""";
+
+    // Cardinality of the leading column of each index
+    static final String MYSQL_INDEX_CARDINALITY = """
+            SELECT TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME, MAX(CARDINALITY)
+            FROM information_schema.STATISTICS
+            WHERE TABLE_SCHEMA = ? AND SEQ_IN_INDEX = 1
+            GROUP BY TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME""";
+
+    // MySQL 8.0+: columns with a histogram from ANALYZE TABLE ... UPDATE HISTOGRAM
+    static final String MYSQL_COLUMN_HISTOGRAMS = """
+            SELECT SCHEMA_NAME, TABLE_NAME, COLUMN_NAME, HISTOGRAM
+            FROM information_schema.COLUMN_STATISTICS
+            WHERE SCHEMA_NAME = ?""";
+
+    // reltuples is -1 for tables never vacuumed or analyzed
+    static final String POSTGRESQL_TABLE_ROWS = """
+            SELECT n.nspname, c.relname, CASE WHEN c.reltuples < 0 THEN NULL ELSE c.reltuples::bigint END
+            FROM pg_class c
+            JOIN pg_namespace n ON n.oid = c.relnamespace
+            WHERE c.relkind IN ('r', 'p')
+              AND n.nspname NOT IN ('pg_catalog', 'information_schema')
+              AND n.nspname NOT LIKE 'pg_toast%'""";
+
+    // Negative n_distinct is a fraction of the row count; histogram bounds give min and max
+    static final String POSTGRESQL_COLUMN_STATISTICS = """
+            SELECT schemaname, tablename, attname, n_distinct, null_frac,
+                   (histogram_bounds::text::text[])[1],
+                   (histogram_bounds::text::text[])[array_upper(histogram_bounds::text::text[], 1)]
+            FROM pg_stats
+            WHERE NOT inherited
+              AND schemaname NOT IN ('pg_catalog', 'information_schema')""";
+
+    static final String SQLSERVER_TABLE_ROWS = """
+            SELECT SCHEMA_NAME(t.schema_id), t.name, MAX(sp.rows)
+            FROM sys.tables t
+            JOIN sys.stats s ON s.object_id = t.object_id
+            CROSS APPLY sys.dm_db_stats_properties(s.object_id, s.stats_id) sp
+            WHERE t.is_ms_shipped = 0
+            GROUP BY t.schema_id, t.name""";
+
+    // SQL Server 2016 SP1+: histogram of the most recently updated statistics object led by each column
+    static final String SQLSERVER_COLUMN_STATISTICS = """
+            WITH leading_stats AS (
+                SELECT s.object_id, s.stats_id, sc.column_id,
+                       ROW_NUMBER() OVER (PARTITION BY s.object_id, sc.column_id ORDER BY sp.last_updated DESC) AS rn
+                FROM sys.stats s
+                JOIN sys.stats_columns sc
+                  ON sc.object_id = s.object_id AND sc.stats_id = s.stats_id AND sc.stats_column_id = 1
+                JOIN sys.tables t ON t.object_id = s.object_id
+                CROSS APPLY sys.dm_db_stats_properties(s.object_id, s.stats_id) sp
+                WHERE t.is_ms_shipped = 0)
+            SELECT SCHEMA_NAME(t.schema_id), t.name, c.name,
+                   CAST(SUM(h.distinct_range_rows) AS bigint) + COUNT(h.range_high_key),
+                   SUM(CASE WHEN h.range_high_key IS NULL THEN h.equal_rows ELSE 0 END),
+                   CONVERT(nvarchar(4000), MIN(h.range_high_key)),
+                   CONVERT(nvarchar(4000), MAX(h.range_high_key))
+            FROM leading_stats l
+            JOIN sys.tables t ON t.object_id = l.object_id
+            JOIN sys.columns c ON c.object_id = l.object_id AND c.column_id = l.column_id
+            CROSS APPLY sys.dm_db_stats_histogram(l.object_id, l.stats_id) h
+            WHERE l.rn = 1
+            GROUP BY t.schema_id, t.name, c.name""";
+
+    static final String ORACLE_TABLE_ROWS = """
+            SELECT owner, table_name, num_rows
+            FROM all_tables""";
+
+    // LOW_VALUE and HIGH_VALUE are stored in the internal type encoding, so min and max are not read
+    static final String ORACLE_COLUMN_STATISTICS = """
+            SELECT owner, table_name, column_name, num_distinct, num_nulls
+            FROM all_tab_col_statistics""";
+
+    private static final int MAX_VALUE_LENGTH = 200;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Read statistics of every table the filter includes, keyed like the schema's tables
+     * ("schema.table"). Row counts are required; column statistics are skipped when their views
+     * are missing or not readable.
+     */
+    public Map<String, TableStatistics> readStatistics(Connection connection, DatabaseType databaseType,
+                                                       String databaseName, SchemaFilter filter,
+                                                       int queryTimeoutSeconds) throws SQLException {
+
+        Map<String, TableStatistics> tables = new LinkedHashMap<>();
+        StatisticsQuery query = new StatisticsQuery(connection, databaseType, databaseName, filter, queryTimeoutSeconds);
+
+        switch (databaseType) {
+            case MYSQL -> {
+                query.readRows(MYSQL_TABLE_ROWS, "TABLE_SCHEMA", "TABLE_NAME", tables);
+                query.readOptional(MYSQL_INDEX_CARDINALITY, "TABLE_SCHEMA", "TABLE_NAME",
+                        row -> column(tables, row).setDistinctCount(nullableLong(row, 4)));
+                query.readOptional(MYSQL_COLUMN_HISTOGRAMS, "SCHEMA_NAME", "TABLE_NAME",
+                        row -> applyMySqlHistogram(column(tables, row), row.getString(4)));
+            }
+            case POSTGRESQL -> {
+                query.readRows(POSTGRESQL_TABLE_ROWS, "n.nspname", "c.relname", tables);
+                query.readOptional(POSTGRESQL_COLUMN_STATISTICS, "schemaname", "tablename",
+                        row -> {
+                            ColumnStatistics column = column(tables, row);
+                            double distinct = row.getDouble(4);
+                            Long rows = table(tables, row).getRowCount();
+                            if (distinct >= 0) {
+                                column.setDistinctCount(Math.round(distinct));
+                            } else if (rows != null) {
+                                column.setDistinctCount(Math.round(-distinct * rows));
+                            }
+                            column.setNullFraction(row.getDouble(5));
+                            column.setMinValue(truncate(row.getString(6)));
+                            column.setMaxValue(truncate(row.getString(7)));
+                        });
+            }
+            case SQLSERVER -> {
+                query.readRows(SQLSERVER_TABLE_ROWS, "SCHEMA_NAME(t.schema_id)", "t.name", tables);
+                query.readOptional(SQLSERVER_COLUMN_STATISTICS, "SCHEMA_NAME(t.schema_id)", "t.name",
+                        row -> {
+                            ColumnStatistics column = column(tables, row);
+                            column.setDistinctCount(nullableLong(row, 4));
+                            column.setNullFraction(fraction(row.getDouble(5), table(tables, row).getRowCount()));
+                            column.setMinValue(truncate(row.getString(6)));
+                            column.setMaxValue(truncate(row.getString(7)));
+                        });
+            }
+            case ORACLE -> {
+                query.readRows(ORACLE_TABLE_ROWS, "owner", "table_name", tables);
+                query.readOptional(ORACLE_COLUMN_STATISTICS, "owner", "table_name",
+                        row -> {
+                            ColumnStatistics column = column(tables, row);
+                            column.setDistinctCount(nullableLong(row, 4));
+                            Long nulls = nullableLong(row, 5);
+                            if (nulls != null) {
+                                column.setNullFraction(fraction(nulls, table(tables, row).getRowCount()));
+                            }
+                        });
+            }
+        }
+
+        return tables;
+    }
+
+    /**
+     * MySQL histograms are JSON: singleton buckets are [value, cumulative frequency], equi-height
+     * buckets are [lower, upper, cumulative frequency, distinct values]
+     */
+    private void applyMySqlHistogram(ColumnStatistics column, String histogramJson) {
+        try {
+            JsonNode histogram = objectMapper.readTree(histogramJson);
+            JsonNode buckets = histogram.path("buckets");
+            column.setNullFraction(histogram.path("null-values").asDouble());
+            if (buckets.isEmpty()) {
+                return;
+            }
+
+            boolean singleton = "singleton".equals(histogram.path("histogram-type").asText());
+            long distinct = 0;
+            for (JsonNode bucket : buckets) {
+                distinct += singleton ? 1 : bucket.path(3).asLong();
+            }
+            column.setDistinctCount(distinct);
+            column.setMinValue(histogramValue(buckets.get(0).get(0)));
+            column.setMaxValue(histogramValue(buckets.get(buckets.size() - 1).get(singleton ? 0 : 1)));
+        } catch (Exception e) {
+            log.debug("Unreadable MySQL histogram, skipping it: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * String values in MySQL histograms are written as "base64:type<n>:<payload>"
+     */
+    private String histogramValue(JsonNode value) {
+        String text = value.asText();
+        if (text.startsWith("base64:")) {
+            String payload = text.substring(text.indexOf(':', "base64:".length()) + 1);
+            text = new String(Base64.getDecoder().decode(payload), StandardCharsets.UTF_8);
+        }
+        return truncate(text);
+    }
+
+    private TableStatistics table(Map<String, TableStatistics> tables, ResultSet row) throws SQLException {
+        return tables.computeIfAbsent(row.getString(1) + "." + row.getString(2), key -> new TableStatistics());
+    }
+
+    private ColumnStatistics column(Map<String, TableStatistics> tables, ResultSet row) throws SQLException {
+        return table(tables, row).getColumns().computeIfAbsent(row.getString(3), name -> new ColumnStatistics());
+    }
+
+    private Long nullableLong(ResultSet row, int index) throws SQLException {
+        long value = row.getLong(index);
+        return row.wasNull() ? null : value;
+    }
+
+    private Double fraction(double count, Long rows) {
+        return rows == null || rows == 0 ? null : Math.min(1.0, count / rows);
+    }
+
+    private String truncate(String value) {
+        return value == null || value.length() <= MAX_VALUE_LENGTH ? value : value.substring(0, MAX_VALUE_LENGTH);
+    }
+
+    /**
+     * Runs the statistics queries of one collection, each narrowed by the data source's filter
+     */
+    @AllArgsConstructor
+    private class StatisticsQuery {
+
+        private final Connection connection;
+        private final DatabaseType databaseType;
+        private final String databaseName;
+        private final SchemaFilter filter;
+        private final int queryTimeoutSeconds;
+
+        void readRows(String sql, String schemaExpression, String tableExpression,
+                      Map<String, TableStatistics> tables) throws SQLException {
+            read(sql, schemaExpression, tableExpression, row -> table(tables, row).setRowCount(nullableLong(row, 3)));
+        }
+
+        void readOptional(String sql, String schemaExpression, String tableExpression, RowHandler handler) {
+            try {
+                read(sql, schemaExpression, tableExpression, handler);
+            } catch (SQLException e) {
+                log.debug("Column statistics not readable on {} ({}), continuing without them",
+                        databaseType, e.getMessage());
+            }
+        }
+
+        private void read(String sql, String schemaExpression, String tableExpression, RowHandler handler)
+                throws SQLException {
+            String filtered = filter.apply(sql, databaseType, schemaExpression, tableExpression);
+            try (PreparedStatement statement = connection.prepareStatement(filtered)) {
+                int firstFilterParameter = 1;
+                if (databaseType == DatabaseType.MYSQL) {
+                    statement.setString(firstFilterParameter++, databaseName);
+                }
+                filter.bind(statement, firstFilterParameter);
+                statement.setQueryTimeout(queryTimeoutSeconds);
+                try (ResultSet row = statement.executeQuery()) {
+                    while (row.next()) {
+                        handler.handle(row);
+                    }
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ResultSet row) throws SQLException;
+    }
+}
@@ -0,0 +1,260 @@
+package com.querybuilder.backend.datasource.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.model.SchemaStatistics;
+import com.querybuilder.backend.datasource.model.TableStatistics;
+import com.querybuilder.backend.datasource.repository.DataSourceRepository;
+import com.querybuilder.backend.datasource.repository.SchemaStatisticsRepository;
+import com.querybuilder.backend.query.service.RunningQueryRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Row counts and column statistics per data source, collected in the background from the
+ * target database's own statistics views. Collection is requested lazily by readers and
+ * rate-limited: one data source at a time, at most one per collect interval, on a
+ * low-priority thread, and never while a user query is running against that data source.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaStatisticsService {
+
+    private final SchemaStatisticsRepository schemaStatisticsRepository;
+    private final DataSourceRepository dataSourceRepository;
+    private final DataSourceConnectionFactory connectionFactory;
+    private final SchemaStatisticsReader statisticsReader;
+    private final RunningQueryRegistry runningQueryRegistry;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.schema.statistics.refresh-hours}")
+    private int refreshHours;
+
+    @Value("${app.schema.statistics.query-timeout-seconds}")
+    private int queryTimeoutSeconds;
+
+    @Value("${app.schema.statistics.max-entries}")
+    private int maxEntries;
+
+    // Access order, so the least recently used statistics are dropped first
+    private final LinkedHashMap<UUID, CollectedStatistics> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Data sources waiting for collection, oldest request first
+    private final Set<UUID> pending = Collections.synchronizedSet(new LinkedHashSet<>());
+    private final AtomicBoolean collecting = new AtomicBoolean();
+
+    // Bumped by evict(); a collection started under an older generation read the old connection
+    private final Map<UUID, Long> generations = new ConcurrentHashMap<>();
+
+    private ExecutorService collector;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void startCollector() {
+        collector = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schema-statistics");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void stopCollector() {
+        collector.shutdownNow();
+    }
+
+    /**
+     * Last collected statistics of the data source. Missing or outdated statistics are queued
+     * for collection and the current ones (possibly none) are returned without waiting.
+     */
+    public Optional<CollectedStatistics> getStatistics(DataSource dataSource) {
+        CollectedStatistics statistics;
+        synchronized (cache) {
+            statistics = cache.get(dataSource.getId());
+        }
+
+        if (statistics == null) {
+            statistics = schemaStatisticsRepository.findByDataSource(dataSource)
+                    .map(this::parse)
+                    .orElse(null);
+            if (statistics != null) {
+                remember(dataSource.getId(), statistics);
+            }
+        }
+
+        if (statistics == null || statistics.getCollectedAt().isBefore(LocalDateTime.now().minusHours(refreshHours))) {
+            if (pending.add(dataSource.getId())) {
+                log.debug("Statistics collection queued for data source: {}", dataSource.getId());
+            }
+        }
+        return Optional.ofNullable(statistics);
+    }
+
+    /**
+     * Whether a collection for the data source is waiting or running
+     */
+    public boolean isCollectionPending(DataSource dataSource) {
+        return pending.contains(dataSource.getId());
+    }
+
+    /**
+     * Start the next queued collection unless one is still running. Data sources with user
+     * queries in flight are passed over until they are idle.
+     */
+    @Scheduled(fixedDelayString = "${app.schema.statistics.collect-interval-ms}")
+    public void collectNext() {
+        if (pending.isEmpty() || !collecting.compareAndSet(false, true)) {
+            return;
+        }
+
+        UUID next;
+        synchronized (pending) {
+            next = pending.stream()
+                    .filter(dataSourceId -> runningQueryRegistry.findByDataSource(dataSourceId).isEmpty())
+                    .findFirst()
+                    .orElse(null);
+        }
+        if (next == null) {
+            collecting.set(false);
+            return;
+        }
+
+        UUID dataSourceId = next;
+        collector.execute(() -> {
+            try {
+                long generation = generation(dataSourceId);
+                dataSourceRepository.findByIdAndDeletedFalse(dataSourceId)
+                        .ifPresent(dataSource -> collect(dataSource, generation));
+            } catch (RuntimeException e) {
+                log.warn("Statistics collection failed for data source: {} - {}", dataSourceId, e.getMessage());
+            } finally {
+                pending.remove(dataSourceId);
+                collecting.set(false);
+            }
+        });
+    }
+
+    private void collect(DataSource dataSource, long generation) {
+        long start = System.nanoTime();
+        Map<String, TableStatistics> tables;
+
+        try (Connection connection = connectionFactory.getConnection(dataSource)) {
+            connection.setReadOnly(true);
+            tables = statisticsReader.readStatistics(connection, dataSource.getDatabaseType(),
+                    dataSource.getDatabaseName(), SchemaFilter.of(dataSource, objectMapper), queryTimeoutSeconds);
+        } catch (SQLException e) {
+            log.warn("Statistics not readable for data source: {} - {}", dataSource.getId(), e.getMessage());
+            return;
+        }
+
+        if (generation(dataSource.getId()) != generation) {
+            log.info("Statistics discarded for data source: {} - Data source changed during collection",
+                    dataSource.getId());
+            return;
+        }
+
+        CollectedStatistics statistics = new CollectedStatistics(LocalDateTime.now(), Collections.unmodifiableMap(tables));
+        try {
+            String statisticsJson = objectMapper.writeValueAsString(tables);
+            transactionTemplate.executeWithoutResult(status -> {
+                SchemaStatistics row = schemaStatisticsRepository.findByDataSource(dataSource)
+                        .orElseGet(() -> SchemaStatistics.builder().dataSource(dataSource).build());
+                row.setStatisticsData(statisticsJson);
+                row.setCollectedAt(statistics.getCollectedAt());
+                schemaStatisticsRepository.save(row);
+            });
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize statistics to JSON", e);
+        }
+
+        remember(dataSource.getId(), statistics);
+
+        // Evicted while the result was being stored: remove it again
+        if (generation(dataSource.getId()) != generation) {
+            synchronized (cache) {
+                cache.remove(dataSource.getId());
+            }
+            transactionTemplate.executeWithoutResult(status -> schemaStatisticsRepository.deleteByDataSource(dataSource));
+            log.info("Statistics discarded for data source: {} - Data source changed during collection",
+                    dataSource.getId());
+            return;
+        }
+        log.info("Statistics collected for data source: {} - Tables: {}, Time: {}ms",
+                dataSource.getId(), tables.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Drop stored statistics, e.g. when connection details change or the data source is deleted.
+     * A collection still running on the old connection details keeps nothing.
+     */
+    public void evict(DataSource dataSource) {
+        generations.merge(dataSource.getId(), 1L, Long::sum);
+        synchronized (cache) {
+            cache.remove(dataSource.getId());
+        }
+        pending.remove(dataSource.getId());
+        schemaStatisticsRepository.deleteByDataSource(dataSource);
+    }
+
+    private long generation(UUID dataSourceId) {
+        return generations.getOrDefault(dataSourceId, 0L);
+    }
+
+    private void remember(UUID dataSourceId, CollectedStatistics statistics) {
+        synchronized (cache) {
+            cache.put(dataSourceId, statistics);
+
+            Iterator<UUID> eldest = cache.keySet().iterator();
+            while (cache.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private CollectedStatistics parse(SchemaStatistics row) {
+        try {
+            Map<String, TableStatistics> tables = objectMapper.readValue(row.getStatisticsData(),
+                    new TypeReference<LinkedHashMap<String, TableStatistics>>() {});
+            return new CollectedStatistics(row.getCollectedAt(), Collections.unmodifiableMap(tables));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to parse stored statistics, they will be collected again", e);
+            return null;
+        }
+    }
+
+    /**
+     * Statistics of every table, keyed like the schema's tables ("schema.table")
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CollectedStatistics {
+
+        private final LocalDateTime collectedAt;
+        private final Map<String, TableStatistics> tables;
+    }
+}
@@ -0,0 +1,246 @@
+package com.querybuilder.backend.export.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.export.dto.ChunkedExtractionRequest;
+import com.querybuilder.backend.export.dto.CreateExportJobRequest;
+import com.querybuilder.backend.export.dto.ExportJobResponse;
+import com.querybuilder.backend.export.dto.ExtractionCheckpointResponse;
+import com.querybuilder.backend.export.service.ChunkedExtractionService;
+import com.querybuilder.backend.export.service.ChunkedExtractionService.ExtractionPlan;
+import com.querybuilder.backend.export.service.ExportJobService;
+import com.querybuilder.backend.export.service.ExportJobService.ExportDownload;
+import com.querybuilder.backend.export.writer.NdjsonResultWriter;
+import com.querybuilder.backend.shared.dto.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST Controller for large result exports
+ */
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+@Slf4j
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // Tomcat's sendfile request attributes (end is exclusive)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ChunkedExtractionService chunkedExtractionService;
+    private final ExportJobService exportJobService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Stream a table extracted in parallel primary-key chunks, in key order, as NDJSON.
+     * The X-Extraction-Id header identifies the checkpoint to resume from on failure.
+     * POST /api/exports/chunked
+     */
+    @PostMapping("/chunked")
+    public ResponseEntity<StreamingResponseBody> extractChunked(
+            @Valid @RequestBody ChunkedExtractionRequest request,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("POST /api/exports/chunked - User: {}", user.getEmail());
+
+        ExtractionPlan plan = chunkedExtractionService.plan(request, user);
+
+        StreamingResponseBody body = out -> {
+            try (NdjsonResultWriter writer = new NdjsonResultWriter(out, objectMapper)) {
+                chunkedExtractionService.execute(plan, writer);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header("X-Extraction-Id", plan.getCheckpointId().toString())
+                .body(body);
+    }
+
+    /**
+     * Get chunked extraction progress
+     * GET /api/exports/chunked/{id}
+     */
+    @GetMapping("/chunked/{id}")
+    public ResponseEntity<ApiResponse<ExtractionCheckpointResponse>> getExtraction(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("GET /api/exports/chunked/{} - User: {}", id, user.getEmail());
+        ExtractionCheckpointResponse checkpoint = chunkedExtractionService.getCheckpoint(id, user);
+        return ResponseEntity.ok(ApiResponse.success("Extraction retrieved successfully", checkpoint));
+    }
+
+    /**
+     * Start a background export job
+     * POST /api/exports/jobs
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ApiResponse<ExportJobResponse>> createExportJob(
+            @Valid @RequestBody CreateExportJobRequest request,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("POST /api/exports/jobs - User: {}", user.getEmail());
+        ExportJobResponse job = exportJobService.createExportJob(request, user);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success("Export job queued", job));
+    }
+
+    /**
+     * List recent export jobs
+     * GET /api/exports/jobs
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<ApiResponse<List<ExportJobResponse>>> getExportJobs(
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("GET /api/exports/jobs - User: {}", user.getEmail());
+        List<ExportJobResponse> jobs = exportJobService.getExportJobs(user);
+        return ResponseEntity.ok(ApiResponse.success("Export jobs retrieved successfully", jobs));
+    }
+
+    /**
+     * Get export job status
+     * GET /api/exports/jobs/{id}
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ApiResponse<ExportJobResponse>> getExportJob(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("GET /api/exports/jobs/{} - User: {}", id, user.getEmail());
+        ExportJobResponse job = exportJobService.getExportJob(id, user);
+        return ResponseEntity.ok(ApiResponse.success("Export job retrieved successfully", job));
+    }
+
+    /**
+     * Delete an export file before it expires
+     * DELETE /api/exports/jobs/{id}
+     */
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteExportJob(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("DELETE /api/exports/jobs/{} - User: {}", id, user.getEmail());
+        exportJobService.deleteExportJob(id, user);
+        return ResponseEntity.ok(ApiResponse.success("Export file deleted successfully", null));
+    }
+
+    /**
+     * Download a completed export. Supports single byte ranges (Range / If-Range),
+     * so interrupted downloads resume without re-running the query.
+     * GET /api/exports/jobs/{id}/download
+     */
+    @GetMapping("/jobs/{id}/download")
+    public void downloadExport(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @AuthenticationPrincipal User user,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        log.info("GET /api/exports/jobs/{}/download (Range: {}) - User: {}", id, range, user.getEmail());
+
+        ExportDownload download = exportJobService.prepareDownload(id, user);
+        long size = download.getSize();
+        String etag = "\"" + id + "-" + size + "\"";
+
+        long start = 0;
+        long end = size - 1;
+        boolean partial = false;
+
+        // A stale If-Range validator means the client must fetch the whole file again
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] parsed = parseRange(range, size);
+            if (parsed == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            start = parsed[0];
+            end = parsed[1];
+            partial = true;
+        }
+
+        long length = size == 0 ? 0 : end - start + 1;
+
+        response.setStatus(partial ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        response.setContentType(download.getContentType());
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + download.getFileName() + "\"");
+        if (partial) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        // Tomcat sends the range from the page cache to the socket itself once the response completes
+        // (not over TLS, where the attribute is false)
+        if (length > 0 && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, download.getPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        exportJobService.transfer(download, start, length, response.getOutputStream());
+    }
+
+    /**
+     * Parse the first range of a "bytes=" Range header into inclusive [start, end];
+     * returns null if it cannot be satisfied
+     */
+    private long[] parseRange(String range, long size) {
+        if (!range.startsWith("bytes=") || size == 0) {
+            return null;
+        }
+
+        String spec = range.substring("bytes=".length()).split(",")[0].trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        try {
+            String startPart = spec.substring(0, dash).trim();
+            String endPart = spec.substring(dash + 1).trim();
+
+            long start;
+            long end;
+            if (startPart.isEmpty()) {
+                // Suffix range: last N bytes
+                long suffixLength = Long.parseLong(endPart);
+                start = Math.max(0, size - suffixLength);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(startPart);
+                end = endPart.isEmpty() ? size - 1 : Math.min(Long.parseLong(endPart), size - 1);
+            }
+
+            return start <= end && start < size ? new long[]{start, end} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
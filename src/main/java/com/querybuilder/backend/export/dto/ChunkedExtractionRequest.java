@@ -0,0 +1,33 @@
+package com.querybuilder.backend.export.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkedExtractionRequest {
+
+    @NotBlank(message = "SQL query is required")
+    private String sqlQuery;  // Simple single-table SELECT, optionally with WHERE
+
+    @NotNull(message = "Data source ID is required")
+    private UUID dataSourceId;
+
+    @Min(value = 1, message = "Parallelism must be at least 1")
+    @Max(value = 16, message = "Parallelism must be at most 16")
+    private Integer parallelism = 4;  // Concurrent connections
+
+    @Min(value = 1000, message = "Chunk size must be at least 1000")
+    @Max(value = 1000000, message = "Chunk size must be at most 1000000")
+    private Long chunkSize = 100000L;  // Primary-key range width per chunk
+
+    private UUID resumeExtractionId;  // Continue a failed extraction after its last completed chunk
+}
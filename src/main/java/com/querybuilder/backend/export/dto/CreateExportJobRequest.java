@@ -0,0 +1,30 @@
+package com.querybuilder.backend.export.dto;
+
+import com.querybuilder.backend.export.model.ExportFormat;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateExportJobRequest {
+
+    @NotBlank(message = "SQL query is required")
+    private String sqlQuery;
+
+    @NotNull(message = "Data source ID is required")
+    private UUID dataSourceId;
+
+    private ExportFormat format = ExportFormat.CSV;
+
+    @Min(value = 1, message = "Parallelism must be at least 1")
+    @Max(value = 16, message = "Parallelism must be at most 16")
+    private Integer parallelism = 1;  // > 1 uses chunked primary-key extraction (simple SELECTs only)
+}
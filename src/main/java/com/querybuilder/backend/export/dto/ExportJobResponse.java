@@ -0,0 +1,31 @@
+package com.querybuilder.backend.export.dto;
+
+import com.querybuilder.backend.export.model.ExportFormat;
+import com.querybuilder.backend.export.model.ExportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobResponse {
+
+    private String id;
+    private String sqlQuery;
+    private ExportFormat format;
+    private ExportStatus status;
+    private Long fileSizeBytes;
+    private Long rowsExported;
+    private Integer executionTimeMs;
+    private String errorMessage;
+    private String downloadUrl;  // Only set once the job has completed
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+}
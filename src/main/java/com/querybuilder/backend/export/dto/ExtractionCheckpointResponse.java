@@ -0,0 +1,30 @@
+package com.querybuilder.backend.export.dto;
+
+import com.querybuilder.backend.export.model.ExtractionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractionCheckpointResponse {
+
+    private String id;
+    private String dataSourceId;
+    private String tableName;
+    private String keyColumn;
+    private Long lowerBound;
+    private Long upperBound;
+    private Integer chunkCount;
+    private Integer lastCompletedChunk;
+    private Long rowsExtracted;
+    private ExtractionStatus status;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
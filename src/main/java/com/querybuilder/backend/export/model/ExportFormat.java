@@ -0,0 +1,37 @@
+package com.querybuilder.backend.export.model;
+
+/**
+ * Supported export file formats
+ */
+public enum ExportFormat {
+    CSV("csv", "text/csv", false),
+    CSV_GZIP("csv.gz", "application/gzip", true),
+    NDJSON("ndjson", "application/x-ndjson", false),
+    NDJSON_GZIP("ndjson.gz", "application/gzip", true),
+    ARROW("arrow", "application/vnd.apache.arrow.stream", false),
+    // Parquet compresses internally per column chunk, so the file itself is never gzipped
+    PARQUET("parquet", "application/vnd.apache.parquet", false),
+    PARQUET_ZSTD("parquet", "application/vnd.apache.parquet", false);
+
+    private final String fileExtension;
+    private final String contentType;
+    private final boolean gzipped;
+
+    ExportFormat(String fileExtension, String contentType, boolean gzipped) {
+        this.fileExtension = fileExtension;
+        this.contentType = contentType;
+        this.gzipped = gzipped;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isGzipped() {
+        return gzipped;
+    }
+}
@@ -0,0 +1,80 @@
+package com.querybuilder.backend.export.model;
+
+import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.shared.model.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ExportJob entity for tracking background exports written to the local file store
+ */
+@Entity
+@Table(
+        name = "export_jobs",
+        indexes = {
+                @Index(name = "idx_user_id", columnList = "user_id"),
+                @Index(name = "idx_status", columnList = "status"),
+                @Index(name = "idx_expires_at", columnList = "expires_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportJob extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "datasource_id", nullable = false)
+    private DataSource dataSource;
+
+    @Column(name = "sql_query", columnDefinition = "TEXT", nullable = false)
+    private String sqlQuery;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false, length = 20)
+    private ExportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    @Builder.Default
+    private ExportStatus status = ExportStatus.QUEUED;
+
+    @Column(name = "file_path", length = 1000)
+    private String filePath;
+
+    @Column(name = "file_size_bytes")
+    private Long fileSizeBytes;
+
+    @Column(name = "rows_exported")
+    private Long rowsExported;
+
+    @Column(name = "execution_time_ms")
+    private Integer executionTimeMs;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    /**
+     * Check if the exported file has passed its retention period
+     */
+    public boolean isExpired() {
+        return expiresAt != null && LocalDateTime.now().isAfter(expiresAt);
+    }
+}
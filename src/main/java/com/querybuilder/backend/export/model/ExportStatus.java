@@ -0,0 +1,12 @@
+package com.querybuilder.backend.export.model;
+
+/**
+ * Status of a background export job
+ */
+public enum ExportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    EXPIRED     // File removed by the retention policy
+}
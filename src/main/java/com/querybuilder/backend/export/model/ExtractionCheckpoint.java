@@ -0,0 +1,78 @@
+package com.querybuilder.backend.export.model;
+
+import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.shared.model.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ExtractionCheckpoint entity tracking progress of a chunked primary-key range extraction.
+ * Chunks are emitted in key order, so everything up to lastCompletedChunk has been delivered.
+ */
+@Entity
+@Table(
+        name = "extraction_checkpoints",
+        indexes = {
+                @Index(name = "idx_user_id", columnList = "user_id"),
+                @Index(name = "idx_datasource_id", columnList = "datasource_id"),
+                @Index(name = "idx_status", columnList = "status")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExtractionCheckpoint extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "datasource_id", nullable = false)
+    private DataSource dataSource;
+
+    @Column(name = "sql_query", columnDefinition = "TEXT", nullable = false)
+    private String sqlQuery;
+
+    @Column(name = "table_name", nullable = false)
+    private String tableName;
+
+    @Column(name = "key_column", nullable = false)
+    private String keyColumn;
+
+    @Column(name = "lower_bound")
+    private Long lowerBound;  // Null when the table is empty
+
+    @Column(name = "upper_bound")
+    private Long upperBound;
+
+    @Column(name = "chunk_size", nullable = false)
+    private Long chunkSize;  // Key range width per chunk
+
+    @Column(name = "chunk_count", nullable = false)
+    private Integer chunkCount;
+
+    @Column(name = "last_completed_chunk", nullable = false)
+    @Builder.Default
+    private Integer lastCompletedChunk = -1;
+
+    @Column(name = "rows_extracted", nullable = false)
+    @Builder.Default
+    private Long rowsExtracted = 0L;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    @Builder.Default
+    private ExtractionStatus status = ExtractionStatus.RUNNING;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,10 @@
+package com.querybuilder.backend.export.model;
+
+/**
+ * Status of a chunked extraction
+ */
+public enum ExtractionStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
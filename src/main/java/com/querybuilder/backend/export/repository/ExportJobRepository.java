@@ -0,0 +1,37 @@
+package com.querybuilder.backend.export.repository;
+
+import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.export.model.ExportJob;
+import com.querybuilder.backend.export.model.ExportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ExportJobRepository extends JpaRepository<ExportJob, UUID> {
+
+    /**
+     * Find export job by ID and user
+     */
+    Optional<ExportJob> findByIdAndUser(UUID id, User user);
+
+    /**
+     * Find recent export jobs for a user
+     */
+    List<ExportJob> findTop50ByUserOrderByCreatedAtDesc(User user);
+
+    /**
+     * Find jobs whose files have passed their retention period
+     */
+    List<ExportJob> findByStatusInAndExpiresAtBefore(Collection<ExportStatus> statuses, LocalDateTime now);
+
+    /**
+     * Find jobs in the given states (e.g., left RUNNING by a restart)
+     */
+    List<ExportJob> findByStatusIn(Collection<ExportStatus> statuses);
+}
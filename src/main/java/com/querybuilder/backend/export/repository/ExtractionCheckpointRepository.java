@@ -0,0 +1,24 @@
+package com.querybuilder.backend.export.repository;
+
+import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.export.model.ExtractionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ExtractionCheckpointRepository extends JpaRepository<ExtractionCheckpoint, UUID> {
+
+    /**
+     * Find checkpoint by ID and user
+     */
+    Optional<ExtractionCheckpoint> findByIdAndUser(UUID id, User user);
+
+    /**
+     * Find checkpoint by ID, user and data source
+     */
+    Optional<ExtractionCheckpoint> findByIdAndUserAndDataSource(UUID id, User user, DataSource dataSource);
+}
@@ -0,0 +1,467 @@
+package com.querybuilder.backend.export.service;
+
+import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.repository.DataSourceRepository;
+import com.querybuilder.backend.datasource.service.DataSourceConnectionFactory;
+import com.querybuilder.backend.datasource.service.SchemaDiscoveryService;
+import com.querybuilder.backend.export.dto.ChunkedExtractionRequest;
+import com.querybuilder.backend.export.dto.ExtractionCheckpointResponse;
+import com.querybuilder.backend.export.model.ExtractionCheckpoint;
+import com.querybuilder.backend.export.model.ExtractionStatus;
+import com.querybuilder.backend.export.repository.ExtractionCheckpointRepository;
+import com.querybuilder.backend.export.writer.ResultColumn;
+import com.querybuilder.backend.export.writer.ResultWriter;
+import com.querybuilder.backend.shared.exception.ResourceNotFoundException;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service for extracting large tables in parallel by splitting the primary-key space into ranges.
+ * Chunks are read concurrently over a small connection pool and written out strictly in key order;
+ * progress is checkpointed per chunk so a failed extraction can resume where it stopped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedExtractionService {
+
+    private final DataSourceRepository dataSourceRepository;
+    private final DataSourceConnectionFactory connectionFactory;
+    private final SchemaDiscoveryService schemaDiscoveryService;
+    private final ExtractionCheckpointRepository checkpointRepository;
+
+    private static final Pattern SIMPLE_SELECT = Pattern.compile(
+            "^\\s*SELECT\\s+(?<columns>.+?)\\s+FROM\\s+(?<table>[\\w.$\"`\\[\\]]+)"
+                    + "(?:\\s+(?:AS\\s+)?(?!WHERE\\b)(?<alias>\\w+))?"
+                    + "(?:\\s+WHERE\\s+(?<where>.+?))?\\s*;?\\s*$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+    );
+    private static final Pattern UNSUPPORTED_CLAUSES = Pattern.compile(
+            "\\b(JOIN|GROUP\\s+BY|ORDER\\s+BY|HAVING|UNION|INTERSECT|EXCEPT|LIMIT|OFFSET|FETCH|TOP|DISTINCT)\\b"
+                    + "|\\(\\s*SELECT\\b",
+            Pattern.CASE_INSENSITIVE
+    );
+    private static final int MAX_CHUNKS = 100_000;
+    private static final int FETCH_SIZE = 5_000;
+    private static final int WINDOW_PER_WORKER = 2;  // Chunks buffered ahead of the writer per worker
+
+    /**
+     * Validate the request, resolve the key column and key bounds, and create (or load) the checkpoint
+     */
+    public ExtractionPlan plan(ChunkedExtractionRequest request, User user) {
+        DataSource dataSource = dataSourceRepository
+                .findByIdAndUserAndDeletedFalse(request.getDataSourceId(), user)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "DataSource", "id", request.getDataSourceId()));
+
+        if (request.getResumeExtractionId() != null) {
+            return resumePlan(request, dataSource, user);
+        }
+
+        SimpleSelect select = parseSimpleSelect(request.getSqlQuery());
+        String keyColumn = resolveKeyColumn(dataSource, select.getTable());
+
+        Long lowerBound = null;
+        Long upperBound = null;
+        try (Connection connection = connectionFactory.getConnection(dataSource);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(select.boundsSql(keyColumn))) {
+
+            if (resultSet.next()) {
+                lowerBound = toLongKey(resultSet.getObject(1));
+                upperBound = toLongKey(resultSet.getObject(2));
+            }
+        } catch (SQLException e) {
+            log.error("Failed to determine key bounds for extraction: {}", e.getMessage());
+            throw new RuntimeException("Failed to determine key bounds: " + e.getMessage(), e);
+        }
+
+        long chunkSize = request.getChunkSize();
+        int chunkCount = 0;
+        if (lowerBound != null && upperBound != null) {
+            // Keys can span more than a long holds (e.g. Long.MIN_VALUE to Long.MAX_VALUE)
+            BigInteger keySpan = BigInteger.valueOf(upperBound).subtract(BigInteger.valueOf(lowerBound))
+                    .add(BigInteger.ONE);
+            // Widen chunks for very sparse key spaces so the chunk count stays bounded
+            chunkSize = Math.max(chunkSize, ceilDiv(keySpan, MAX_CHUNKS).longValueExact());
+            chunkCount = ceilDiv(keySpan, chunkSize).intValueExact();
+        }
+
+        ExtractionCheckpoint checkpoint = ExtractionCheckpoint.builder()
+                .user(user)
+                .dataSource(dataSource)
+                .sqlQuery(request.getSqlQuery())
+                .tableName(select.getTable())
+                .keyColumn(keyColumn)
+                .lowerBound(lowerBound)
+                .upperBound(upperBound)
+                .chunkSize(chunkSize)
+                .chunkCount(chunkCount)
+                .build();
+
+        checkpoint = checkpointRepository.save(checkpoint);
+        log.info("Planned chunked extraction {} of {}: {} chunks of {} keys",
+                checkpoint.getId(), select.getTable(), chunkCount, chunkSize);
+
+        return new ExtractionPlan(checkpoint.getId(), dataSource, select, keyColumn,
+                lowerBound, chunkSize, chunkCount, 0, request.getParallelism());
+    }
+
+    /**
+     * Read all remaining chunks concurrently and write them to the writer in key order.
+     * Returns the total number of rows extracted, including chunks from earlier attempts.
+     */
+    public long execute(ExtractionPlan plan, ResultWriter writer) throws IOException {
+        ExtractionCheckpoint checkpoint = checkpointRepository.findById(plan.getCheckpointId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "ExtractionCheckpoint", "id", plan.getCheckpointId()));
+
+        int parallelism = plan.getParallelism();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+
+        try (HikariDataSource pool = connectionFactory.createPool(plan.getDataSource(), parallelism, "extract")) {
+            Deque<Future<ChunkResult>> window = new ArrayDeque<>();
+            int nextToSubmit = plan.getStartChunk();
+            boolean headerWritten = false;
+
+            for (int nextToWrite = plan.getStartChunk(); nextToWrite < plan.getChunkCount(); nextToWrite++) {
+                while (nextToSubmit < plan.getChunkCount() && window.size() < parallelism * WINDOW_PER_WORKER) {
+                    int chunk = nextToSubmit++;
+                    window.addLast(executor.submit(() -> readChunk(pool, plan, chunk)));
+                }
+
+                ChunkResult result = window.removeFirst().get();
+
+                if (!headerWritten) {
+                    writer.writeHeader(result.getColumns());
+                    headerWritten = true;
+                }
+                for (Object[] row : result.getRows()) {
+                    writer.writeRow(row);
+                }
+
+                // The chunk only counts as done once its rows have left the buffers, or a resume would skip them
+                writer.flush();
+
+                checkpoint.setLastCompletedChunk(nextToWrite);
+                checkpoint.setRowsExtracted(checkpoint.getRowsExtracted() + result.getRows().size());
+                checkpoint = checkpointRepository.save(checkpoint);
+            }
+
+            if (!headerWritten) {
+                writer.writeHeader(readColumns(pool, plan));
+            }
+            writer.finish();
+
+            checkpoint.setStatus(ExtractionStatus.COMPLETED);
+            checkpoint.setCompletedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+
+            log.info("Chunked extraction {} completed - Rows: {}",
+                    checkpoint.getId(), checkpoint.getRowsExtracted());
+
+            return checkpoint.getRowsExtracted();
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            markFailed(checkpoint, cause);
+            throw new RuntimeException("Chunked extraction failed: " + cause.getMessage(), cause);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            markFailed(checkpoint, e);
+            throw new RuntimeException("Chunked extraction interrupted", e);
+
+        } catch (IOException | RuntimeException e) {
+            // Client disconnects surface here as IOException
+            markFailed(checkpoint, e);
+            throw e;
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get checkpoint status
+     */
+    @Transactional(readOnly = true)
+    public ExtractionCheckpointResponse getCheckpoint(UUID id, User user) {
+        ExtractionCheckpoint checkpoint = checkpointRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("ExtractionCheckpoint", "id", id));
+
+        return mapToResponse(checkpoint);
+    }
+
+    /**
+     * Rebuild a plan from an existing checkpoint, starting after its last completed chunk
+     */
+    private ExtractionPlan resumePlan(ChunkedExtractionRequest request, DataSource dataSource, User user) {
+        UUID checkpointId = request.getResumeExtractionId();
+        ExtractionCheckpoint checkpoint = checkpointRepository
+                .findByIdAndUserAndDataSource(checkpointId, user, dataSource)
+                .orElseThrow(() -> new ResourceNotFoundException("ExtractionCheckpoint", "id", checkpointId));
+
+        if (checkpoint.getStatus() == ExtractionStatus.COMPLETED) {
+            throw new IllegalArgumentException("Extraction " + checkpointId + " has already completed");
+        }
+
+        checkpoint.setStatus(ExtractionStatus.RUNNING);
+        checkpoint.setErrorMessage(null);
+        checkpointRepository.save(checkpoint);
+
+        log.info("Resuming chunked extraction {} from chunk {}/{}",
+                checkpointId, checkpoint.getLastCompletedChunk() + 1, checkpoint.getChunkCount());
+
+        return new ExtractionPlan(checkpoint.getId(), dataSource,
+                parseSimpleSelect(checkpoint.getSqlQuery()), checkpoint.getKeyColumn(),
+                checkpoint.getLowerBound(), checkpoint.getChunkSize(), checkpoint.getChunkCount(),
+                checkpoint.getLastCompletedChunk() + 1, request.getParallelism());
+    }
+
+    /**
+     * Read a single key range
+     */
+    private ChunkResult readChunk(javax.sql.DataSource pool, ExtractionPlan plan, int chunk) throws SQLException {
+        // May wrap midway for key spans wider than a long; the result is exact since it never passes the upper bound
+        long from = plan.getLowerBound() + (long) chunk * plan.getChunkSize();
+        long to = from > Long.MAX_VALUE - (plan.getChunkSize() - 1) ? Long.MAX_VALUE : from + plan.getChunkSize() - 1;
+
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(plan.getChunkSql())) {
+
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setLong(1, from);
+            statement.setLong(2, to);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<ResultColumn> columns = ResultColumn.fromMetaData(resultSet.getMetaData());
+                int columnCount = columns.size();
+                List<Object[]> rows = new ArrayList<>();
+
+                while (resultSet.next()) {
+                    Object[] row = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        row[i] = resultSet.getObject(i + 1);
+                    }
+                    rows.add(row);
+                }
+
+                log.debug("Read chunk {} [{}, {}] - Rows: {}", chunk, from, to, rows.size());
+                return new ChunkResult(columns, rows);
+            }
+        }
+    }
+
+    /**
+     * Column metadata for an empty extraction
+     */
+    private List<ResultColumn> readColumns(javax.sql.DataSource pool, ExtractionPlan plan) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(plan.getSelect().emptySql())) {
+            return ResultColumn.fromMetaData(resultSet.getMetaData());
+        }
+    }
+
+    /**
+     * Parse a simple single-table SELECT
+     */
+    private SimpleSelect parseSimpleSelect(String sql) {
+        Matcher matcher = SIMPLE_SELECT.matcher(sql);
+
+        if (!matcher.matches() || UNSUPPORTED_CLAUSES.matcher(sql).find()) {
+            throw new IllegalArgumentException(
+                    "Chunked extraction supports only simple single-table SELECT ... FROM table [WHERE ...] queries");
+        }
+
+        return new SimpleSelect(
+                matcher.group("columns").trim(),
+                matcher.group("table"),
+                matcher.group("alias"),
+                matcher.group("where") != null ? matcher.group("where").trim() : null
+        );
+    }
+
+    /**
+     * Find the single-column primary key of the table from the discovered schema
+     */
+    @SuppressWarnings("unchecked")
+    private String resolveKeyColumn(DataSource dataSource, String table) {
+        String bareTable = table.substring(table.lastIndexOf('.') + 1).replaceAll("[\"`\\[\\]]", "");
+
+        Map<String, Object> schema = schemaDiscoveryService.getSchema(dataSource);
+        List<Map<String, Object>> tables = (List<Map<String, Object>>) schema.get("tables");
+
+        Map<String, Object> tableInfo = tables == null ? null : tables.stream()
+                .filter(t -> bareTable.equalsIgnoreCase((String) t.get("name")))
+                .findFirst()
+                .orElse(null);
+
+        if (tableInfo == null) {
+            throw new ResourceNotFoundException("Table", "name", bareTable);
+        }
+
+        List<String> primaryKeys = (List<String>) tableInfo.get("primaryKeys");
+        if (primaryKeys == null || primaryKeys.size() != 1) {
+            throw new IllegalArgumentException(
+                    "Chunked extraction requires a single-column primary key on table " + bareTable);
+        }
+
+        return primaryKeys.get(0);
+    }
+
+    /**
+     * Convert a MIN/MAX result to a long key, rejecting non-integer keys
+     */
+    private Long toLongKey(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigInteger bigInteger) {
+            return bigInteger.longValueExact();
+        }
+        if (value instanceof BigDecimal bigDecimal) {
+            return bigDecimal.longValueExact();  // Oracle NUMBER keys
+        }
+        throw new IllegalArgumentException(
+                "Chunked extraction requires an integer primary key, found " + value.getClass().getSimpleName());
+    }
+
+    private static BigInteger ceilDiv(BigInteger value, long divisor) {
+        BigInteger d = BigInteger.valueOf(divisor);
+        return value.add(d).subtract(BigInteger.ONE).divide(d);
+    }
+
+    private void markFailed(ExtractionCheckpoint checkpoint, Throwable cause) {
+        log.error("Chunked extraction {} failed after chunk {}: {}",
+                checkpoint.getId(), checkpoint.getLastCompletedChunk(), cause.getMessage());
+
+        checkpoint.setStatus(ExtractionStatus.FAILED);
+        checkpoint.setErrorMessage(cause.getMessage());
+        checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Map ExtractionCheckpoint entity to response DTO
+     */
+    private ExtractionCheckpointResponse mapToResponse(ExtractionCheckpoint checkpoint) {
+        return ExtractionCheckpointResponse.builder()
+                .id(checkpoint.getId().toString())
+                .dataSourceId(checkpoint.getDataSource().getId().toString())
+                .tableName(checkpoint.getTableName())
+                .keyColumn(checkpoint.getKeyColumn())
+                .lowerBound(checkpoint.getLowerBound())
+                .upperBound(checkpoint.getUpperBound())
+                .chunkCount(checkpoint.getChunkCount())
+                .lastCompletedChunk(checkpoint.getLastCompletedChunk())
+                .rowsExtracted(checkpoint.getRowsExtracted())
+                .status(checkpoint.getStatus())
+                .errorMessage(checkpoint.getErrorMessage())
+                .createdAt(checkpoint.getCreatedAt())
+                .completedAt(checkpoint.getCompletedAt())
+                .build();
+    }
+
+    /**
+     * Parsed parts of a simple single-table SELECT
+     */
+    @Getter
+    @AllArgsConstructor
+    static class SimpleSelect {
+        private final String columns;
+        private final String table;
+        private final String alias;
+        private final String where;
+
+        String qualifiedKey(String keyColumn) {
+            return (alias != null ? alias : table) + "." + keyColumn;
+        }
+
+        String fromClause() {
+            return " FROM " + table + (alias != null ? " " + alias : "");
+        }
+
+        String whereClause(String extraCondition) {
+            if (where == null) {
+                return " WHERE " + extraCondition;
+            }
+            return " WHERE (" + where + ") AND " + extraCondition;
+        }
+
+        String boundsSql(String keyColumn) {
+            String key = qualifiedKey(keyColumn);
+            return "SELECT MIN(" + key + "), MAX(" + key + ")" + fromClause()
+                    + (where != null ? " WHERE " + where : "");
+        }
+
+        String chunkSql(String keyColumn) {
+            String key = qualifiedKey(keyColumn);
+            return "SELECT " + columns + fromClause()
+                    + whereClause(key + " >= ? AND " + key + " <= ?")
+                    + " ORDER BY " + key;
+        }
+
+        String emptySql() {
+            return "SELECT " + columns + fromClause() + whereClause("1 = 0");
+        }
+    }
+
+    /**
+     * Everything needed to run (or resume) an extraction
+     */
+    @Getter
+    public static class ExtractionPlan {
+        private final UUID checkpointId;
+        private final DataSource dataSource;
+        private final SimpleSelect select;
+        private final String chunkSql;
+        private final Long lowerBound;
+        private final long chunkSize;
+        private final int chunkCount;
+        private final int startChunk;
+        private final int parallelism;
+
+        ExtractionPlan(UUID checkpointId, DataSource dataSource, SimpleSelect select, String keyColumn,
+                       Long lowerBound, long chunkSize, int chunkCount, int startChunk, int parallelism) {
+            this.checkpointId = checkpointId;
+            this.dataSource = dataSource;
+            this.select = select;
+            this.chunkSql = select.chunkSql(keyColumn);
+            this.lowerBound = lowerBound;
+            this.chunkSize = chunkSize;
+            this.chunkCount = chunkCount;
+            this.startChunk = startChunk;
+            this.parallelism = parallelism;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ChunkResult {
+        private final List<ResultColumn> columns;
+        private final List<Object[]> rows;
+    }
+}
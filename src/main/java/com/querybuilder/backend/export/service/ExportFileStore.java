@@ -0,0 +1,90 @@
+package com.querybuilder.backend.export.service;
+
+import com.querybuilder.backend.export.model.ExportFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Local file store for completed exports
+ */
+@Component
+@Slf4j
+public class ExportFileStore {
+
+    private final Path baseDirectory;
+
+    public ExportFileStore(@Value("${app.export.storage-dir}") String storageDir) throws IOException {
+        this.baseDirectory = Paths.get(storageDir).toAbsolutePath().normalize();
+        Files.createDirectories(baseDirectory);
+    }
+
+    /**
+     * Path for an export job's file
+     */
+    public Path resolve(UUID jobId, ExportFormat format) {
+        return baseDirectory.resolve(jobId + "." + format.getFileExtension());
+    }
+
+    /**
+     * Verify a stored path is inside the store and still present
+     */
+    public Path open(String storedPath) throws IOException {
+        Path path = Paths.get(storedPath).toAbsolutePath().normalize();
+
+        if (!path.startsWith(baseDirectory) || !Files.isRegularFile(path)) {
+            throw new IOException("Export file not found: " + path.getFileName());
+        }
+
+        return path;
+    }
+
+    /**
+     * Copy a byte range of a file to the output. The target is a plain stream, so
+     * transferTo copies through a heap buffer here; it is the fallback for containers
+     * that cannot sendfile (see ExportController.downloadExport).
+     */
+    public void transfer(Path path, long start, long length, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Delete a stored file, ignoring files that are already gone
+     */
+    public void delete(String storedPath) {
+        if (storedPath == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(Paths.get(storedPath));
+        } catch (IOException e) {
+            log.warn("Failed to delete export file {}: {}", storedPath, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.querybuilder.backend.export.service;
+
+import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.repository.DataSourceRepository;
+import com.querybuilder.backend.datasource.service.DataSourceConnectionFactory;
+import com.querybuilder.backend.export.dto.ChunkedExtractionRequest;
+import com.querybuilder.backend.export.dto.CreateExportJobRequest;
+import com.querybuilder.backend.export.dto.ExportJobResponse;
+import com.querybuilder.backend.export.model.ExportFormat;
+import com.querybuilder.backend.export.model.ExportJob;
+import com.querybuilder.backend.export.model.ExportStatus;
+import com.querybuilder.backend.export.repository.ExportJobRepository;
+import com.querybuilder.backend.export.service.ChunkedExtractionService.ExtractionPlan;
+import com.querybuilder.backend.export.writer.ResultColumn;
+import com.querybuilder.backend.export.writer.ResultWriter;
+import com.querybuilder.backend.export.writer.ResultWriterFactory;
+import com.querybuilder.backend.query.model.ExecutionPhase;
+import com.querybuilder.backend.query.service.RunningQueryRegistry;
+import com.querybuilder.backend.query.service.RunningQueryRegistry.RunningQuery;
+import com.querybuilder.backend.query.service.RunningQueryService;
+import com.querybuilder.backend.shared.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service for background export jobs. Results are written to the local file store
+ * so downloads can be resumed without re-running the query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportJobService {
+
+    private final ExportJobRepository exportJobRepository;
+    private final DataSourceRepository dataSourceRepository;
+    private final DataSourceConnectionFactory connectionFactory;
+    private final ChunkedExtractionService chunkedExtractionService;
+    private final RunningQueryRegistry runningQueryRegistry;
+    private final RunningQueryService runningQueryService;
+    private final ResultWriterFactory writerFactory;
+    private final ExportFileStore fileStore;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Value("${app.export.retention-hours}")
+    private int retentionHours;
+
+    @Value("${app.export.max-concurrent-jobs}")
+    private int maxConcurrentJobs;
+
+    private ExecutorService executor;
+
+    // Queued and running jobs, so deleting one can stop it
+    private final Map<UUID, ActiveExport> activeExports = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void startExecutor() {
+        executor = Executors.newFixedThreadPool(maxConcurrentJobs);
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Create an export job and queue it for background execution
+     */
+    public ExportJobResponse createExportJob(CreateExportJobRequest request, User user) {
+        log.info("Creating export job for user: {}", user.getEmail());
+
+        DataSource dataSource = dataSourceRepository
+                .findByIdAndUserAndDeletedFalse(request.getDataSourceId(), user)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "DataSource", "id", request.getDataSourceId()));
+
+        ExportFormat format = request.getFormat() != null ? request.getFormat() : ExportFormat.CSV;
+
+        // Plan chunked extraction up front so unsupported queries are rejected immediately
+        ExtractionPlan plan = null;
+        if (request.getParallelism() != null && request.getParallelism() > 1) {
+            ChunkedExtractionRequest chunkedRequest = new ChunkedExtractionRequest();
+            chunkedRequest.setSqlQuery(request.getSqlQuery());
+            chunkedRequest.setDataSourceId(request.getDataSourceId());
+            chunkedRequest.setParallelism(request.getParallelism());
+            plan = chunkedExtractionService.plan(chunkedRequest, user);
+        }
+
+        ExportJob job = ExportJob.builder()
+                .user(user)
+                .dataSource(dataSource)
+                .sqlQuery(request.getSqlQuery())
+                .format(format)
+                .build();
+
+        job = exportJobRepository.save(job);
+        log.info("Export job queued: {}", job.getId());
+
+        UUID jobId = job.getId();
+        ExtractionPlan chunkedPlan = plan;
+        ActiveExport active = new ActiveExport();
+        activeExports.put(jobId, active);
+        active.future = executor.submit(() ->
+                runExport(jobId, active, user, dataSource, request.getSqlQuery(), format, chunkedPlan));
+
+        return mapToResponse(job);
+    }
+
+    /**
+     * Get export jobs for a user
+     */
+    @Transactional(readOnly = true)
+    public List<ExportJobResponse> getExportJobs(User user) {
+        return exportJobRepository.findTop50ByUserOrderByCreatedAtDesc(user).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get export job by ID
+     */
+    @Transactional(readOnly = true)
+    public ExportJobResponse getExportJob(UUID id, User user) {
+        return mapToResponse(findJobByIdAndUser(id, user));
+    }
+
+    /**
+     * Delete an export job's file ahead of its retention period. A queued job never
+     * starts and a running one is cancelled.
+     */
+    @Transactional
+    public void deleteExportJob(UUID id, User user) {
+        ExportJob job = findJobByIdAndUser(id, user);
+
+        cancelExport(id);
+        fileStore.delete(job.getFilePath());
+        job.setFilePath(null);
+        job.setStatus(ExportStatus.EXPIRED);
+        exportJobRepository.save(job);
+
+        log.info("Export job file deleted: {}", id);
+    }
+
+    /**
+     * Resolve the file of a completed export for download
+     */
+    @Transactional(readOnly = true)
+    public ExportDownload prepareDownload(UUID id, User user) throws IOException {
+        ExportJob job = findJobByIdAndUser(id, user);
+
+        if (job.getStatus() != ExportStatus.COMPLETED || job.isExpired()) {
+            throw new IllegalArgumentException("Export job " + id + " is not available for download (status: "
+                    + job.getStatus() + ")");
+        }
+
+        Path path = fileStore.open(job.getFilePath());
+        String fileName = "export-" + id + "." + job.getFormat().getFileExtension();
+
+        return new ExportDownload(path, Files.size(path), job.getFormat().getContentType(), fileName);
+    }
+
+    /**
+     * Stream a byte range of a prepared download
+     */
+    public void transfer(ExportDownload download, long start, long length, OutputStream out) throws IOException {
+        fileStore.transfer(download.getPath(), start, length, out);
+    }
+
+    /**
+     * Remove files past their retention period
+     */
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval-ms}")
+    public void purgeExpiredExports() {
+        List<ExportJob> expired = exportJobRepository.findByStatusInAndExpiresAtBefore(
+                List.of(ExportStatus.COMPLETED, ExportStatus.FAILED), LocalDateTime.now());
+
+        for (ExportJob job : expired) {
+            fileStore.delete(job.getFilePath());
+            job.setFilePath(null);
+            job.setStatus(ExportStatus.EXPIRED);
+            exportJobRepository.save(job);
+        }
+
+        if (!expired.isEmpty()) {
+            log.info("Purged {} expired export files", expired.size());
+        }
+    }
+
+    /**
+     * Jobs that were queued or running when the application stopped will never finish
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        List<ExportJob> interrupted = exportJobRepository.findByStatusIn(
+                List.of(ExportStatus.QUEUED, ExportStatus.RUNNING));
+
+        for (ExportJob job : interrupted) {
+            fileStore.delete(job.getFilePath());
+            job.setFilePath(null);
+            job.setStatus(ExportStatus.FAILED);
+            job.setErrorMessage("Interrupted by application restart");
+            job.setExpiresAt(LocalDateTime.now());
+            exportJobRepository.save(job);
+        }
+    }
+
+    /**
+     * Run an export on the background executor. Jobs deleted while queued are skipped.
+     */
+    private void runExport(UUID jobId, ActiveExport active, User user, DataSource dataSource, String sql,
+                           ExportFormat format, ExtractionPlan plan) {
+        try {
+            ExportJob job = exportJobRepository.findById(jobId).orElse(null);
+            if (job != null) {
+                runExport(job, active, user, dataSource, sql, format, plan);
+            }
+        } finally {
+            activeExports.remove(jobId);
+        }
+    }
+
+    private void runExport(ExportJob job, ActiveExport active, User user, DataSource dataSource, String sql,
+                           ExportFormat format, ExtractionPlan plan) {
+        UUID jobId = job.getId();
+
+        long startTime = System.currentTimeMillis();
+        Path path = fileStore.resolve(jobId, format);
+
+        synchronized (active) {
+            if (active.cancelled || job.getStatus() != ExportStatus.QUEUED) {
+                log.info("Export job {} skipped, no longer queued", jobId);
+                return;
+            }
+            job.setStatus(ExportStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            job.setFilePath(path.toString());
+            job = exportJobRepository.save(job);
+        }
+
+        try {
+            long rows;
+            try (OutputStream out = openOutput(path, format);
+                 ResultWriter writer = writerFactory.create(format, out)) {
+                rows = plan != null
+                        ? chunkedExtractionService.execute(plan, writer)
+                        : streamQuery(user, dataSource, sql, writer, active);
+                writer.finish();
+            }
+
+            long executionTime = System.currentTimeMillis() - startTime;
+
+            synchronized (active) {
+                if (active.cancelled) {
+                    fileStore.delete(path.toString());
+                    return;
+                }
+                job.setStatus(ExportStatus.COMPLETED);
+                job.setRowsExported(rows);
+                job.setFileSizeBytes(Files.size(path));
+                job.setExecutionTimeMs((int) executionTime);
+                job.setCompletedAt(LocalDateTime.now());
+                job.setExpiresAt(LocalDateTime.now().plusHours(retentionHours));
+                exportJobRepository.save(job);
+            }
+
+            log.info("Export job {} completed - Rows: {}, Size: {} bytes, Time: {}ms",
+                    jobId, rows, job.getFileSizeBytes(), executionTime);
+
+        } catch (Exception e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+
+            fileStore.delete(path.toString());
+            if (active.cancelled) {
+                log.info("Export job {} cancelled", jobId);
+                return;
+            }
+
+            log.error("Export job {} failed: {}", jobId, e.getMessage());
+
+            job.setStatus(ExportStatus.FAILED);
+            job.setFilePath(null);
+            job.setErrorMessage(e.getMessage());
+            job.setExecutionTimeMs((int) executionTime);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setExpiresAt(LocalDateTime.now().plusHours(retentionHours));
+            exportJobRepository.save(job);
+        }
+    }
+
+    /**
+     * Execute the query on a single streaming statement, writing rows as they are fetched
+     */
+    private long streamQuery(User user, DataSource dataSource, String sql, ResultWriter writer, ActiveExport active)
+            throws SQLException, IOException {
+        RunningQuery runningQuery = runningQueryRegistry.register(user, dataSource, sql);
+        active.runningQuery = runningQuery;
+
+        try (Connection connection = connectionFactory.getConnection(dataSource)) {
+            Long serverSessionId = runningQueryService.lookupServerSessionId(
+                    connection, dataSource.getDatabaseType());
+
+            try (Statement statement = connectionFactory.createStreamingStatement(
+                    connection, dataSource.getDatabaseType())) {
+
+                runningQuery.attach(statement, serverSessionId);
+                runningQuery.setPhase(ExecutionPhase.EXECUTING);
+
+                try (ResultSet resultSet = statement.executeQuery(sql)) {
+                    runningQuery.setPhase(ExecutionPhase.FETCHING);
+
+                    List<ResultColumn> columns = ResultColumn.fromMetaData(resultSet.getMetaData());
+                    writer.writeHeader(columns);
+
+                    int columnCount = columns.size();
+                    long rows = 0;
+                    while (resultSet.next()) {
+                        Object[] row = new Object[columnCount];
+                        for (int i = 0; i < columnCount; i++) {
+                            row[i] = resultSet.getObject(i + 1);
+                        }
+                        writer.writeRow(row);
+                        rows++;
+                        runningQuery.rowFetched();
+                    }
+
+                    return rows;
+                }
+            }
+        } finally {
+            runningQueryRegistry.deregister(runningQuery);
+        }
+    }
+
+    /**
+     * Stop a queued or running export: a queued one never starts, a chunked extraction is
+     * interrupted and a streaming query is killed through the running query registry
+     */
+    private void cancelExport(UUID jobId) {
+        ActiveExport active = activeExports.remove(jobId);
+        if (active == null) {
+            return;
+        }
+
+        synchronized (active) {
+            active.cancelled = true;
+        }
+        log.info("Cancelling export job {}", jobId);
+
+        if (active.future != null) {
+            active.future.cancel(true);
+        }
+        RunningQuery runningQuery = active.runningQuery;
+        if (runningQuery != null) {
+            try {
+                runningQueryService.killQuery(runningQuery.getId());
+            } catch (ResourceNotFoundException e) {
+                // Already finished
+            }
+        }
+    }
+
+    /**
+     * Open the export file, gzip-compressed if the format requires it
+     */
+    private OutputStream openOutput(Path path, ExportFormat format) throws IOException {
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE);
+        return format.isGzipped() ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+    }
+
+    /**
+     * Helper: Find export job by ID and user
+     */
+    private ExportJob findJobByIdAndUser(UUID id, User user) {
+        return exportJobRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("ExportJob", "id", id));
+    }
+
+    /**
+     * Map ExportJob entity to response DTO
+     */
+    private ExportJobResponse mapToResponse(ExportJob job) {
+        return ExportJobResponse.builder()
+                .id(job.getId().toString())
+                .sqlQuery(job.getSqlQuery())
+                .format(job.getFormat())
+                .status(job.getStatus())
+                .fileSizeBytes(job.getFileSizeBytes())
+                .rowsExported(job.getRowsExported())
+                .executionTimeMs(job.getExecutionTimeMs())
+                .errorMessage(job.getErrorMessage())
+                .downloadUrl(job.getStatus() == ExportStatus.COMPLETED
+                        ? "/api/exports/jobs/" + job.getId() + "/download"
+                        : null)
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .expiresAt(job.getExpiresAt())
+                .build();
+    }
+
+    /**
+     * Handle on a queued or running export. Starting and completing are saved under its
+     * lock, so a cancelled job is never marked running or completed afterwards.
+     */
+    private static class ActiveExport {
+        private volatile Future<?> future;
+        private volatile RunningQuery runningQuery;
+        private volatile boolean cancelled;
+    }
+
+    /**
+     * A completed export file ready to be served
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ExportDownload {
+        private final Path path;
+        private final long size;
+        private final String contentType;
+        private final String fileName;
+    }
+}
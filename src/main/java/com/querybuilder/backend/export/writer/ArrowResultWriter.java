@@ -0,0 +1,200 @@
+package com.querybuilder.backend.export.writer;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.*;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes results as an Apache Arrow IPC stream. Column vectors are typed from the
+ * JDBC column types and flushed as a record batch every BATCH_SIZE rows, so memory
+ * is bounded by one batch regardless of result size.
+ */
+public class ArrowResultWriter implements ResultWriter {
+
+    public static final String CONTENT_TYPE = "application/vnd.apache.arrow.stream";
+
+    private static final int BATCH_SIZE = 8192;
+    private static final int MAX_DECIMAL_PRECISION = 38;
+
+    private final OutputStream out;
+    private final BufferAllocator allocator = new RootAllocator();
+    private VectorSchemaRoot root;
+    private ArrowStreamWriter writer;
+    private List<FieldVector> vectors;
+    private int batchRows;
+    private boolean finished;
+
+    public ArrowResultWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader(List<ResultColumn> columns) throws IOException {
+        List<Field> fields = new ArrayList<>(columns.size());
+        for (ResultColumn column : columns) {
+            fields.add(new Field(column.getName(), FieldType.nullable(toArrowType(column)), null));
+        }
+
+        root = VectorSchemaRoot.create(new Schema(fields), allocator);
+        vectors = root.getFieldVectors();
+        writer = new ArrowStreamWriter(root, null, Channels.newChannel(out));
+        writer.start();
+        startBatch();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            // Validity bits start cleared after allocateNew(), so nulls need no explicit write
+            if (values[i] != null) {
+                setValue(vectors.get(i), batchRows, values[i]);
+            }
+        }
+
+        batchRows++;
+        if (batchRows == BATCH_SIZE) {
+            flushBatch();
+            startBatch();
+        }
+    }
+
+    /**
+     * Ends the current record batch early, so the rows written so far go out as one
+     */
+    @Override
+    public void flush() throws IOException {
+        if (writer != null && batchRows > 0) {
+            flushBatch();
+            startBatch();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+
+        try {
+            if (writer != null) {
+                if (batchRows > 0) {
+                    flushBatch();
+                }
+                writer.end();
+                out.flush();
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+            if (root != null) {
+                root.close();
+            }
+            allocator.close();
+        }
+    }
+
+    /**
+     * Frees the vectors without writing the end-of-stream marker when finish() was not reached
+     */
+    @Override
+    public void close() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+
+        if (root != null) {
+            root.close();
+        }
+        allocator.close();
+    }
+
+    private void startBatch() {
+        root.allocateNew();
+        batchRows = 0;
+    }
+
+    private void flushBatch() throws IOException {
+        root.setRowCount(batchRows);
+        writer.writeBatch();
+    }
+
+    /**
+     * Map a JDBC column type to an Arrow type; anything without a natural mapping becomes UTF-8 text
+     */
+    static ArrowType toArrowType(ResultColumn column) {
+        return switch (column.getJdbcType()) {
+            case Types.BIT, Types.BOOLEAN -> ArrowType.Bool.INSTANCE;
+            case Types.TINYINT -> new ArrowType.Int(8, true);
+            case Types.SMALLINT -> new ArrowType.Int(16, true);
+            case Types.INTEGER -> new ArrowType.Int(32, true);
+            case Types.BIGINT -> new ArrowType.Int(64, true);
+            case Types.REAL -> new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+            case Types.FLOAT, Types.DOUBLE -> new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            case Types.NUMERIC, Types.DECIMAL ->
+                    column.getPrecision() > 0 && column.getPrecision() <= MAX_DECIMAL_PRECISION
+                            ? new ArrowType.Decimal(column.getPrecision(), Math.max(column.getScale(), 0), 128)
+                            : ArrowType.Utf8.INSTANCE;
+            case Types.DATE -> new ArrowType.Date(DateUnit.DAY);
+            case Types.TIME -> new ArrowType.Time(TimeUnit.MILLISECOND, 32);
+            case Types.TIMESTAMP -> new ArrowType.Timestamp(TimeUnit.MICROSECOND, null);
+            case Types.TIMESTAMP_WITH_TIMEZONE -> new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC");
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> ArrowType.Binary.INSTANCE;
+            default -> ArrowType.Utf8.INSTANCE;
+        };
+    }
+
+    private void setValue(FieldVector vector, int index, Object value) {
+        if (vector instanceof BitVector v) {
+            v.setSafe(index, ResultValues.toBoolean(value) ? 1 : 0);
+        } else if (vector instanceof TinyIntVector v) {
+            v.setSafe(index, ((Number) value).byteValue());
+        } else if (vector instanceof SmallIntVector v) {
+            v.setSafe(index, ((Number) value).shortValue());
+        } else if (vector instanceof IntVector v) {
+            v.setSafe(index, ((Number) value).intValue());
+        } else if (vector instanceof BigIntVector v) {
+            v.setSafe(index, ((Number) value).longValue());
+        } else if (vector instanceof Float4Vector v) {
+            v.setSafe(index, ((Number) value).floatValue());
+        } else if (vector instanceof Float8Vector v) {
+            v.setSafe(index, ((Number) value).doubleValue());
+        } else if (vector instanceof DecimalVector v) {
+            v.setSafe(index, ResultValues.toBigDecimal(value).setScale(v.getScale(), RoundingMode.HALF_UP));
+        } else if (vector instanceof DateDayVector v) {
+            v.setSafe(index, ResultValues.toEpochDay(value));
+        } else if (vector instanceof TimeMilliVector v) {
+            v.setSafe(index, ResultValues.toMillisOfDay(value));
+        } else if (vector instanceof TimeStampMicroTZVector v) {
+            v.setSafe(index, ResultValues.toEpochMicros(value));
+        } else if (vector instanceof TimeStampMicroVector v) {
+            v.setSafe(index, ResultValues.toEpochMicros(value));
+        } else if (vector instanceof VarBinaryVector v) {
+            v.setSafe(index, value instanceof byte[] bytes ? bytes : value.toString().getBytes(StandardCharsets.UTF_8));
+        } else if (vector instanceof VarCharVector v) {
+            v.setSafe(index, value.toString().getBytes(StandardCharsets.UTF_8));
+        } else {
+            throw new IllegalStateException("Unsupported Arrow vector: " + vector.getClass().getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.querybuilder.backend.export.writer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Writes results as RFC 4180 CSV with a header row
+ */
+public class CsvResultWriter implements ResultWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedWriter out;
+    private boolean finished;
+
+    public CsvResultWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    public void writeHeader(List<ResultColumn> columns) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(columns.get(i).getName());
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(format(values[i]));
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            out.flush();
+        }
+    }
+
+    private String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof byte[] bytes) {
+            return Base64.getEncoder().encodeToString(bytes);
+        }
+        return value.toString();
+    }
+
+    private void writeField(String field) throws IOException {
+        if (field == null) {
+            return;
+        }
+
+        boolean needsQuotes = field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0;
+
+        if (needsQuotes) {
+            out.write('"');
+            out.write(field.replace("\"", "\"\""));
+            out.write('"');
+        } else {
+            out.write(field);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.querybuilder.backend.export.writer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes results as newline-delimited JSON, one object per row
+ */
+public class NdjsonResultWriter implements ResultWriter {
+
+    private static final byte NEWLINE = '\n';
+
+    private final OutputStream out;
+    private final ObjectMapper objectMapper;
+    private List<ResultColumn> columns;
+    private boolean finished;
+
+    public NdjsonResultWriter(OutputStream out, ObjectMapper objectMapper) {
+        this.out = out;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void writeHeader(List<ResultColumn> columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            row.put(columns.get(i).getName(), values[i]);
+        }
+
+        out.write(objectMapper.writeValueAsBytes(row));
+        out.write(NEWLINE);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            out.flush();
+        }
+    }
+}
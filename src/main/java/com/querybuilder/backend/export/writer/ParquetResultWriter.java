@@ -0,0 +1,370 @@
+package com.querybuilder.backend.export.writer;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * Writes results as a Parquet file. JDBC column types map to Parquet logical types and
+ * rows are buffered column-wise only until a row group fills, so memory is bounded by
+ * the row-group size rather than the result size.
+ */
+public class ParquetResultWriter implements ResultWriter {
+
+    private static final int MAX_DECIMAL_PRECISION = 38;
+    private static final int DECIMAL_FIXED_LENGTH = 16;
+
+    private final OutputStream out;
+    private final CompressionCodecName compression;
+    private final long rowGroupSizeBytes;
+
+    private ParquetWriter<Object[]> writer;
+    private ValueKind[] kinds;
+    private int[] scales;
+    private boolean finished;
+    private boolean aborted;    // output is discarded once set
+
+    /**
+     * Physical encoding chosen for each column when the schema is built
+     */
+    private enum ValueKind {
+        BOOLEAN, INT32, INT64, FLOAT, DOUBLE,
+        DECIMAL_INT32, DECIMAL_INT64, DECIMAL_FIXED,
+        DATE, TIME_MILLIS, TIMESTAMP_MICROS, BINARY, STRING
+    }
+
+    public ParquetResultWriter(OutputStream out, CompressionCodecName compression, long rowGroupSizeBytes) {
+        this.out = out;
+        this.compression = compression;
+        this.rowGroupSizeBytes = rowGroupSizeBytes;
+    }
+
+    @Override
+    public void writeHeader(List<ResultColumn> columns) throws IOException {
+        kinds = new ValueKind[columns.size()];
+        scales = new int[columns.size()];
+
+        List<Type> fields = new ArrayList<>(columns.size());
+        Set<String> usedNames = new HashSet<>();
+
+        for (int i = 0; i < columns.size(); i++) {
+            ResultColumn column = columns.get(i);
+            kinds[i] = toValueKind(column);
+            scales[i] = Math.max(column.getScale(), 0);
+            fields.add(toParquetType(uniqueName(column.getName(), usedNames), column, kinds[i]));
+        }
+
+        MessageType schema = new MessageType("query_result", fields);
+
+        writer = new RowWriterBuilder(new StreamOutputFile(out), new RowWriteSupport(schema))
+                .withCompressionCodec(compression)
+                .withRowGroupSize(rowGroupSizeBytes)
+                .build();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        writer.write(values);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+
+        // Flushes the last row group and writes the footer
+        if (writer != null) {
+            writer.close();
+        }
+        out.flush();
+    }
+
+    /**
+     * ParquetWriter can only release its buffers by closing, which writes the footer, so
+     * that last write is discarded when finish() was not reached
+     */
+    @Override
+    public void close() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        aborted = true;
+
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private ValueKind toValueKind(ResultColumn column) {
+        return switch (column.getJdbcType()) {
+            case Types.BIT, Types.BOOLEAN -> ValueKind.BOOLEAN;
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER -> ValueKind.INT32;
+            case Types.BIGINT -> ValueKind.INT64;
+            case Types.REAL -> ValueKind.FLOAT;
+            case Types.FLOAT, Types.DOUBLE -> ValueKind.DOUBLE;
+            case Types.NUMERIC, Types.DECIMAL -> {
+                int precision = column.getPrecision();
+                if (precision <= 0 || precision > MAX_DECIMAL_PRECISION) {
+                    yield ValueKind.STRING;
+                }
+                yield precision <= 9 ? ValueKind.DECIMAL_INT32
+                        : precision <= 18 ? ValueKind.DECIMAL_INT64
+                        : ValueKind.DECIMAL_FIXED;
+            }
+            case Types.DATE -> ValueKind.DATE;
+            case Types.TIME -> ValueKind.TIME_MILLIS;
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> ValueKind.TIMESTAMP_MICROS;
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> ValueKind.BINARY;
+            default -> ValueKind.STRING;
+        };
+    }
+
+    private Type toParquetType(String name, ResultColumn column, ValueKind kind) {
+        return switch (kind) {
+            case BOOLEAN -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.BOOLEAN).named(name);
+            case INT32 -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.INT32)
+                    .as(LogicalTypeAnnotation.intType(intBitWidth(column.getJdbcType()), true))
+                    .named(name);
+            case INT64 -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.INT64)
+                    .as(LogicalTypeAnnotation.intType(64, true))
+                    .named(name);
+            case FLOAT -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.FLOAT).named(name);
+            case DOUBLE -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.DOUBLE).named(name);
+            case DECIMAL_INT32 -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.INT32)
+                    .as(decimalType(column))
+                    .named(name);
+            case DECIMAL_INT64 -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.INT64)
+                    .as(decimalType(column))
+                    .named(name);
+            case DECIMAL_FIXED -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY)
+                    .length(DECIMAL_FIXED_LENGTH)
+                    .as(decimalType(column))
+                    .named(name);
+            case DATE -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.INT32)
+                    .as(LogicalTypeAnnotation.dateType())
+                    .named(name);
+            case TIME_MILLIS -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.INT32)
+                    .as(LogicalTypeAnnotation.timeType(false, LogicalTypeAnnotation.TimeUnit.MILLIS))
+                    .named(name);
+            case TIMESTAMP_MICROS -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.INT64)
+                    .as(LogicalTypeAnnotation.timestampType(
+                            column.getJdbcType() == Types.TIMESTAMP_WITH_TIMEZONE,
+                            LogicalTypeAnnotation.TimeUnit.MICROS))
+                    .named(name);
+            case BINARY -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.BINARY).named(name);
+            case STRING -> org.apache.parquet.schema.Types.optional(PrimitiveTypeName.BINARY)
+                    .as(LogicalTypeAnnotation.stringType())
+                    .named(name);
+        };
+    }
+
+    private LogicalTypeAnnotation decimalType(ResultColumn column) {
+        return LogicalTypeAnnotation.decimalType(Math.max(column.getScale(), 0), column.getPrecision());
+    }
+
+    private int intBitWidth(int jdbcType) {
+        return switch (jdbcType) {
+            case Types.TINYINT -> 8;
+            case Types.SMALLINT -> 16;
+            default -> 32;
+        };
+    }
+
+    /**
+     * Parquet rejects duplicate field names, which joins commonly produce (e.g. two "id" columns)
+     */
+    private String uniqueName(String name, Set<String> usedNames) {
+        String candidate = name;
+        int suffix = 2;
+        while (!usedNames.add(candidate)) {
+            candidate = name + "_" + suffix++;
+        }
+        return candidate;
+    }
+
+    private void writeValue(RecordConsumer consumer, int column, Object value) {
+        switch (kinds[column]) {
+            case BOOLEAN -> consumer.addBoolean(ResultValues.toBoolean(value));
+            case INT32 -> consumer.addInteger(((Number) value).intValue());
+            case INT64 -> consumer.addLong(((Number) value).longValue());
+            case FLOAT -> consumer.addFloat(((Number) value).floatValue());
+            case DOUBLE -> consumer.addDouble(((Number) value).doubleValue());
+            case DECIMAL_INT32 -> consumer.addInteger(unscaled(value, column).intValueExact());
+            case DECIMAL_INT64 -> consumer.addLong(unscaled(value, column).longValueExact());
+            case DECIMAL_FIXED -> consumer.addBinary(Binary.fromConstantByteArray(
+                    toFixedLength(unscaled(value, column))));
+            case DATE -> consumer.addInteger(ResultValues.toEpochDay(value));
+            case TIME_MILLIS -> consumer.addInteger(ResultValues.toMillisOfDay(value));
+            case TIMESTAMP_MICROS -> consumer.addLong(ResultValues.toEpochMicros(value));
+            case BINARY -> consumer.addBinary(Binary.fromConstantByteArray(value instanceof byte[] bytes
+                    ? bytes
+                    : value.toString().getBytes(StandardCharsets.UTF_8)));
+            case STRING -> consumer.addBinary(Binary.fromString(value.toString()));
+        }
+    }
+
+    private BigInteger unscaled(Object value, int column) {
+        return ResultValues.toBigDecimal(value).setScale(scales[column], RoundingMode.HALF_UP).unscaledValue();
+    }
+
+    /**
+     * Sign-extend a two's complement big-endian value to the fixed decimal width
+     */
+    private byte[] toFixedLength(BigInteger unscaled) {
+        byte[] raw = unscaled.toByteArray();
+        byte[] fixed = new byte[DECIMAL_FIXED_LENGTH];
+        Arrays.fill(fixed, 0, DECIMAL_FIXED_LENGTH - raw.length, (byte) (unscaled.signum() < 0 ? 0xFF : 0x00));
+        System.arraycopy(raw, 0, fixed, DECIMAL_FIXED_LENGTH - raw.length, raw.length);
+        return fixed;
+    }
+
+    /**
+     * Writes each Object[] row as one Parquet record; null values are simply omitted
+     */
+    private class RowWriteSupport extends WriteSupport<Object[]> {
+
+        private final MessageType schema;
+        private RecordConsumer consumer;
+
+        RowWriteSupport(MessageType schema) {
+            this.schema = schema;
+        }
+
+        @Override
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(schema, Collections.emptyMap());
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.consumer = recordConsumer;
+        }
+
+        @Override
+        public void write(Object[] row) {
+            consumer.startMessage();
+            for (int i = 0; i < row.length; i++) {
+                if (row[i] != null) {
+                    String field = schema.getFieldName(i);
+                    consumer.startField(field, i);
+                    writeValue(consumer, i, row[i]);
+                    consumer.endField(field, i);
+                }
+            }
+            consumer.endMessage();
+        }
+    }
+
+    private static class RowWriterBuilder extends ParquetWriter.Builder<Object[], RowWriterBuilder> {
+
+        private final WriteSupport<Object[]> writeSupport;
+
+        RowWriterBuilder(OutputFile file, WriteSupport<Object[]> writeSupport) {
+            super(file);
+            this.writeSupport = writeSupport;
+        }
+
+        @Override
+        protected RowWriterBuilder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<Object[]> getWriteSupport(Configuration conf) {
+            return writeSupport;
+        }
+    }
+
+    /**
+     * Parquet only appends, so any OutputStream works as a target as long as the position is tracked.
+     * Closing it flushes but leaves the underlying stream open for the caller.
+     */
+    private class StreamOutputFile implements OutputFile {
+
+        private final OutputStream out;
+
+        StreamOutputFile(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new PositionOutputStream() {
+                private long position;
+
+                @Override
+                public long getPos() {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    if (!aborted) {
+                        out.write(b);
+                    }
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    if (!aborted) {
+                        out.write(b, off, len);
+                    }
+                    position += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    if (!aborted) {
+                        out.flush();
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.querybuilder.backend.export.writer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column description captured from ResultSetMetaData, so writers can outlive the ResultSet
+ */
+@Getter
+@AllArgsConstructor
+public class ResultColumn {
+
+    private final String name;
+    private final int jdbcType;      // java.sql.Types constant
+    private final String typeName;
+    private final int precision;
+    private final int scale;
+    private final boolean nullable;
+
+    /**
+     * Capture all columns of a result set
+     */
+    public static List<ResultColumn> fromMetaData(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        List<ResultColumn> columns = new ArrayList<>(columnCount);
+
+        for (int i = 1; i <= columnCount; i++) {
+            columns.add(new ResultColumn(
+                    metaData.getColumnLabel(i),
+                    metaData.getColumnType(i),
+                    metaData.getColumnTypeName(i),
+                    metaData.getPrecision(i),
+                    metaData.getScale(i),
+                    metaData.isNullable(i) != ResultSetMetaData.columnNoNulls
+            ));
+        }
+
+        return columns;
+    }
+}
@@ -0,0 +1,80 @@
+package com.querybuilder.backend.export.writer;
+
+import java.math.BigDecimal;
+import java.time.*;
+
+/**
+ * Helper: Converts JDBC result values into the primitive forms used by columnar writers
+ */
+final class ResultValues {
+
+    private ResultValues() {
+    }
+
+    static boolean toBoolean(Object value) {
+        if (value instanceof Boolean b) {
+            return b;
+        }
+        if (value instanceof Number n) {
+            return n.intValue() != 0;
+        }
+        return Boolean.parseBoolean(value.toString());
+    }
+
+    static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal bd ? bd : new BigDecimal(value.toString());
+    }
+
+    static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.toLocalDate();
+        }
+        return LocalDate.parse(value.toString());
+    }
+
+    static int toEpochDay(Object value) {
+        return (int) toLocalDate(value).toEpochDay();
+    }
+
+    static LocalTime toLocalTime(Object value) {
+        if (value instanceof java.sql.Time time) {
+            return time.toLocalTime();
+        }
+        if (value instanceof LocalTime localTime) {
+            return localTime;
+        }
+        return LocalTime.parse(value.toString());
+    }
+
+    static int toMillisOfDay(Object value) {
+        return (int) (toLocalTime(value).toNanoOfDay() / 1_000_000);
+    }
+
+    /**
+     * Timestamps without a zone are written as wall-clock UTC micros, matching how they are displayed
+     */
+    static long toEpochMicros(Object value) {
+        Instant instant;
+        if (value instanceof java.sql.Timestamp timestamp) {
+            instant = timestamp.toLocalDateTime().toInstant(ZoneOffset.UTC);
+        } else if (value instanceof LocalDateTime localDateTime) {
+            instant = localDateTime.toInstant(ZoneOffset.UTC);
+        } else if (value instanceof OffsetDateTime offsetDateTime) {
+            instant = offsetDateTime.toInstant();
+        } else if (value instanceof ZonedDateTime zonedDateTime) {
+            instant = zonedDateTime.toInstant();
+        } else if (value instanceof Instant i) {
+            instant = i;
+        } else {
+            instant = LocalDateTime.parse(value.toString()).toInstant(ZoneOffset.UTC);
+        }
+
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+}
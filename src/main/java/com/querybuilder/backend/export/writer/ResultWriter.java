@@ -0,0 +1,41 @@
+package com.querybuilder.backend.export.writer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Streaming sink for query results. Rows are written one at a time so
+ * callers never need to hold a full result set in memory.
+ */
+public interface ResultWriter extends AutoCloseable {
+
+    /**
+     * Called once before the first row
+     */
+    void writeHeader(List<ResultColumn> columns) throws IOException;
+
+    /**
+     * Write a single row; values are in column order
+     */
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * Push the rows written so far to the underlying stream and flush it. Parquet can only
+     * push completed row groups; rows of the open one stay buffered until it fills.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Flush buffered output and write any trailer. Does not close the underlying stream.
+     */
+    void finish() throws IOException;
+
+    /**
+     * Release buffers. Without a preceding finish() the result is incomplete, so no
+     * trailer is written and a truncated stream cannot pass for a whole one. Does not
+     * close the underlying stream.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
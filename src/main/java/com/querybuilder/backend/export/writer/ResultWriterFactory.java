@@ -0,0 +1,36 @@
+package com.querybuilder.backend.export.writer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querybuilder.backend.export.model.ExportFormat;
+import lombok.RequiredArgsConstructor;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+
+/**
+ * Creates the ResultWriter for an export format
+ */
+@Component
+@RequiredArgsConstructor
+public class ResultWriterFactory {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.export.parquet.row-group-size-mb}")
+    private long parquetRowGroupSizeMb;
+
+    /**
+     * Create a writer over an (already compressed, if required) output stream
+     */
+    public ResultWriter create(ExportFormat format, OutputStream out) {
+        return switch (format) {
+            case CSV, CSV_GZIP -> new CsvResultWriter(out);
+            case NDJSON, NDJSON_GZIP -> new NdjsonResultWriter(out, objectMapper);
+            case ARROW -> new ArrowResultWriter(out);
+            case PARQUET -> new ParquetResultWriter(out, CompressionCodecName.SNAPPY, parquetRowGroupSizeMb * 1024 * 1024);
+            case PARQUET_ZSTD -> new ParquetResultWriter(out, CompressionCodecName.ZSTD, parquetRowGroupSizeMb * 1024 * 1024);
+        };
+    }
+}
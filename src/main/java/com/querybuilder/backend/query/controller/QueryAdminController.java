@@ -0,0 +1,70 @@
+package com.querybuilder.backend.query.controller;
+
+import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.query.dto.RunningQueryResponse;
+import com.querybuilder.backend.query.service.RunningQueryService;
+import com.querybuilder.backend.shared.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Admin REST Controller for inspecting and killing in-flight queries
+ */
+@RestController
+@RequestMapping("/api/admin/queries")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+@Slf4j
+public class QueryAdminController {
+
+    private final RunningQueryService runningQueryService;
+
+    /**
+     * List running queries
+     * GET /api/admin/queries/running
+     */
+    @GetMapping("/running")
+    public ResponseEntity<ApiResponse<List<RunningQueryResponse>>> getRunningQueries(
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("GET /api/admin/queries/running - User: {}", user.getEmail());
+        List<RunningQueryResponse> running = runningQueryService.getRunningQueries();
+        return ResponseEntity.ok(ApiResponse.success("Running queries retrieved successfully", running));
+    }
+
+    /**
+     * Kill a running query
+     * DELETE /api/admin/queries/running/{id}
+     */
+    @DeleteMapping("/running/{id}")
+    public ResponseEntity<ApiResponse<RunningQueryResponse>> killQuery(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("DELETE /api/admin/queries/running/{} - User: {}", id, user.getEmail());
+        RunningQueryResponse killed = runningQueryService.killQuery(id);
+        return ResponseEntity.ok(ApiResponse.success("Kill requested for running query", killed));
+    }
+
+    /**
+     * Kill all running queries for a data source
+     * DELETE /api/admin/queries/running?dataSourceId={id}
+     */
+    @DeleteMapping("/running")
+    public ResponseEntity<ApiResponse<List<RunningQueryResponse>>> killQueriesForDataSource(
+            @RequestParam UUID dataSourceId,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("DELETE /api/admin/queries/running?dataSourceId={} - User: {}", dataSourceId, user.getEmail());
+        List<RunningQueryResponse> killed = runningQueryService.killQueriesForDataSource(dataSourceId);
+        return ResponseEntity.ok(ApiResponse.success(
+                "Kill requested for " + killed.size() + " running queries", killed));
+    }
+}
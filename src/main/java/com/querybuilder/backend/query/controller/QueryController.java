@@ -1,8 +1,10 @@
 package com.querybuilder.backend.query.controller;
 
 import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.export.writer.ArrowResultWriter;
 import com.querybuilder.backend.query.dto.*;
 import com.querybuilder.backend.query.service.QueryExecutionService;
+import com.querybuilder.backend.query.service.QueryExecutionService.StreamingQuery;
 import com.querybuilder.backend.query.service.QueryFavoriteService;
 import com.querybuilder.backend.query.service.QueryService;
 import com.querybuilder.backend.query.service.QueryShareService;
@@ -13,9 +15,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -132,6 +136,27 @@ public class QueryController {
         return ResponseEntity.ok(ApiResponse.success("Query executed successfully", result));
     }
 
+    @PostMapping(value = "/execute", produces = ArrowResultWriter.CONTENT_TYPE)
+    public ResponseEntity<StreamingResponseBody> executeQueryArrow(
+            @Valid @RequestBody ExecuteQueryRequest request,
+            @AuthenticationPrincipal User user
+    ) {
+        log.info("POST /api/queries/execute (arrow) - User: {}", user.getEmail());
+
+        // Lookup and validation errors still get their status before the Arrow body is committed
+        StreamingQuery query = executionService.prepareStreamingQuery(request, user);
+
+        StreamingResponseBody body = out -> {
+            // Closing without finish() frees the Arrow buffers of a failed or cancelled query
+            try (ArrowResultWriter writer = new ArrowResultWriter(out)) {
+                executionService.executeQueryStreaming(query, user, writer);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ArrowResultWriter.CONTENT_TYPE))
+                .body(body);
+    }
+
     @PostMapping
     public ResponseEntity<ApiResponse<QueryResponse>> createQuery(
             @Valid @RequestBody CreateQueryRequest request,
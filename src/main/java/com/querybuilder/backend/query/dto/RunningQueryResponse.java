@@ -0,0 +1,30 @@
+package com.querybuilder.backend.query.dto;
+
+import com.querybuilder.backend.datasource.model.DatabaseType;
+import com.querybuilder.backend.query.model.ExecutionPhase;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunningQueryResponse {
+
+    private String id;
+    private String userEmail;
+    private String dataSourceId;
+    private String dataSourceName;
+    private DatabaseType databaseType;
+    private String fingerprint;      // SQL with literals replaced by '?'
+    private String fingerprintHash;
+    private Instant startedAt;
+    private Long elapsedMs;
+    private Long rowsFetched;
+    private ExecutionPhase phase;
+    private Boolean cancelRequested;
+}
@@ -0,0 +1,11 @@
+package com.querybuilder.backend.query.model;
+
+/**
+ * Phase of a query that is currently running
+ */
+public enum ExecutionPhase {
+    CONNECTING,   // Opening connection to the data source
+    EXECUTING,    // Statement sent, waiting for first result
+    FETCHING,     // Reading rows from the result set
+    CANCELLING    // Kill requested, waiting for the driver/server to abort
+}
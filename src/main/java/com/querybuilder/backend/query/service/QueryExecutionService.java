@@ -3,16 +3,22 @@ package com.querybuilder.backend.query.service;
 import com.querybuilder.backend.auth.model.User;
 import com.querybuilder.backend.datasource.model.DataSource;
 import com.querybuilder.backend.datasource.repository.DataSourceRepository;
+import com.querybuilder.backend.datasource.service.DataSourceConnectionFactory;
+import com.querybuilder.backend.export.writer.ResultColumn;
+import com.querybuilder.backend.export.writer.ResultWriter;
 import com.querybuilder.backend.query.dto.ExecuteQueryRequest;
 import com.querybuilder.backend.query.dto.QueryExecutionResponse;
 import com.querybuilder.backend.query.dto.QueryHistoryResponse;
+import com.querybuilder.backend.query.model.ExecutionPhase;
 import com.querybuilder.backend.query.model.ExecutionStatus;
 import com.querybuilder.backend.query.model.Query;
 import com.querybuilder.backend.query.model.QueryExecution;
 import com.querybuilder.backend.query.repository.QueryExecutionRepository;
 import com.querybuilder.backend.query.repository.QueryRepository;
+import com.querybuilder.backend.query.service.RunningQueryRegistry.RunningQuery;
 import com.querybuilder.backend.shared.exception.ResourceNotFoundException;
-import com.querybuilder.backend.shared.util.EncryptionUtil;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -20,6 +26,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -36,7 +43,9 @@ public class QueryExecutionService {
     private final QueryExecutionRepository executionRepository;
     private final DataSourceRepository dataSourceRepository;
     private final QueryRepository queryRepository;
-    private final EncryptionUtil encryptionUtil;
+    private final DataSourceConnectionFactory connectionFactory;
+    private final RunningQueryRegistry runningQueryRegistry;
+    private final RunningQueryService runningQueryService;
 
     /**
      * Execute a query
@@ -60,6 +69,8 @@ public class QueryExecutionService {
                 .executedAt(LocalDateTime.now())
                 .build();
 
+        RunningQuery runningQuery = runningQueryRegistry.register(user, dataSource, request.getSqlQuery());
+
         try {
             // Apply parameter substitution if needed
             String finalSql = applyParameters(request.getSqlQuery(), request.getParameters());
@@ -73,11 +84,10 @@ public class QueryExecutionService {
             QueryExecutionResponse.QueryExecutionResponseBuilder responseBuilder =
                     QueryExecutionResponse.builder();
 
-            String decryptedPassword = encryptionUtil.decrypt(dataSource.getPassword());
-            String jdbcUrl = buildJdbcUrl(dataSource);
+            try (Connection connection = connectionFactory.getConnection(dataSource)) {
 
-            try (Connection connection = DriverManager.getConnection(
-                    jdbcUrl, dataSource.getUsername(), decryptedPassword)) {
+                Long serverSessionId = runningQueryService.lookupServerSessionId(
+                        connection, dataSource.getDatabaseType());
 
                 // Set timeout
                 try (Statement statement = connection.createStatement()) {
@@ -85,9 +95,14 @@ public class QueryExecutionService {
                         statement.setQueryTimeout(request.getTimeout());
                     }
 
+                    runningQuery.attach(statement, serverSessionId);
+                    runningQuery.setPhase(ExecutionPhase.EXECUTING);
+
                     boolean hasResultSet = statement.execute(finalSql);
 
                     if (hasResultSet) {
+                        runningQuery.setPhase(ExecutionPhase.FETCHING);
+
                         try (ResultSet resultSet = statement.getResultSet()) {
                             ResultSetMetaData metaData = resultSet.getMetaData();
                             int columnCount = metaData.getColumnCount();
@@ -113,6 +128,7 @@ public class QueryExecutionService {
                                 }
                                 rows.add(row);
                                 rowCount++;
+                                runningQuery.rowFetched();
                             }
 
                             long executionTime = System.currentTimeMillis() - startTime;
@@ -162,10 +178,14 @@ public class QueryExecutionService {
 
         } catch (SQLException e) {
             long executionTime = System.currentTimeMillis() - startTime;
+            ExecutionStatus status = runningQuery.isCancelRequested()
+                    ? ExecutionStatus.CANCELLED
+                    : ExecutionStatus.FAILED;
 
-            log.error("Query execution failed: {}", e.getMessage());
+            log.error("Query execution {}: {}", status == ExecutionStatus.CANCELLED ? "cancelled" : "failed",
+                    e.getMessage());
 
-            execution.setExecutionStatus(ExecutionStatus.FAILED);
+            execution.setExecutionStatus(status);
             execution.setExecutionTimeMs((int) executionTime);
             execution.setErrorMessage(e.getMessage());
             execution.setRowsReturned(0);
@@ -174,7 +194,7 @@ public class QueryExecutionService {
 
             return QueryExecutionResponse.builder()
                     .executionId(execution.getId().toString())
-                    .status(ExecutionStatus.FAILED)
+                    .status(status)
                     .errorMessage(e.getMessage())
                     .executionTimeMs((int) executionTime)
                     .rowsReturned(0)
@@ -194,6 +214,151 @@ public class QueryExecutionService {
             executionRepository.save(execution);
 
             throw new RuntimeException("Query execution failed: " + e.getMessage(), e);
+
+        } finally {
+            runningQueryRegistry.deregister(runningQuery);
+        }
+    }
+
+    /**
+     * Resolve the data source and build the SQL of a streaming query. Called before the response
+     * is committed, so a missing data source or a bad request still gets its error status.
+     */
+    public StreamingQuery prepareStreamingQuery(ExecuteQueryRequest request, User user) {
+        DataSource dataSource = dataSourceRepository
+                .findByIdAndUserAndDeletedFalse(request.getDataSourceId(), user)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "DataSource", "id", request.getDataSourceId()));
+
+        if (request.getLimit() != null && request.getLimit() < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        if (request.getTimeout() != null && request.getTimeout() < 0) {
+            throw new IllegalArgumentException("Timeout must not be negative");
+        }
+
+        String finalSql = applyParameters(request.getSqlQuery(), request.getParameters());
+        if (request.getLimit() != null) {
+            finalSql = applyLimit(finalSql, request.getLimit());
+        }
+
+        return new StreamingQuery(dataSource, request, finalSql);
+    }
+
+    /**
+     * Execute a prepared query, streaming rows into the writer as they are fetched instead of
+     * materializing them. Used for binary result formats such as Arrow.
+     */
+    public QueryExecutionResponse executeQueryStreaming(StreamingQuery query, User user, ResultWriter writer)
+            throws IOException {
+        log.info("Executing streaming query for user: {}", user.getEmail());
+
+        long startTime = System.currentTimeMillis();
+
+        DataSource dataSource = query.getDataSource();
+        ExecuteQueryRequest request = query.getRequest();
+
+        QueryExecution execution = QueryExecution.builder()
+                .user(user)
+                .dataSource(dataSource)
+                .sqlQuery(request.getSqlQuery())
+                .executedAt(LocalDateTime.now())
+                .build();
+
+        RunningQuery runningQuery = runningQueryRegistry.register(user, dataSource, request.getSqlQuery());
+
+        try {
+            int rowCount = 0;
+
+            try (Connection connection = connectionFactory.getConnection(dataSource)) {
+
+                Long serverSessionId = runningQueryService.lookupServerSessionId(
+                        connection, dataSource.getDatabaseType());
+
+                try (Statement statement = connectionFactory.createStreamingStatement(
+                        connection, dataSource.getDatabaseType())) {
+                    if (request.getTimeout() != null) {
+                        statement.setQueryTimeout(request.getTimeout());
+                    }
+
+                    runningQuery.attach(statement, serverSessionId);
+                    runningQuery.setPhase(ExecutionPhase.EXECUTING);
+
+                    try (ResultSet resultSet = statement.executeQuery(query.getSql())) {
+                        runningQuery.setPhase(ExecutionPhase.FETCHING);
+
+                        List<ResultColumn> columns = ResultColumn.fromMetaData(resultSet.getMetaData());
+                        writer.writeHeader(columns);
+
+                        int columnCount = columns.size();
+                        int limit = request.getLimit() != null ? request.getLimit() : Integer.MAX_VALUE;
+
+                        while (rowCount < limit && resultSet.next()) {
+                            Object[] row = new Object[columnCount];
+                            for (int i = 0; i < columnCount; i++) {
+                                row[i] = resultSet.getObject(i + 1);
+                            }
+                            writer.writeRow(row);
+                            rowCount++;
+                            runningQuery.rowFetched();
+                        }
+                    }
+                }
+            }
+
+            writer.finish();
+
+            long executionTime = System.currentTimeMillis() - startTime;
+
+            execution.setExecutionStatus(ExecutionStatus.SUCCESS);
+            execution.setExecutionTimeMs((int) executionTime);
+            execution.setRowsReturned(rowCount);
+            execution = executionRepository.save(execution);
+
+            log.info("Streaming query executed successfully - Rows: {}, Time: {}ms", rowCount, executionTime);
+
+            return QueryExecutionResponse.builder()
+                    .executionId(execution.getId().toString())
+                    .status(ExecutionStatus.SUCCESS)
+                    .rowsReturned(rowCount)
+                    .executionTimeMs((int) executionTime)
+                    .executedAt(execution.getExecutedAt())
+                    .build();
+
+        } catch (SQLException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            ExecutionStatus status = runningQuery.isCancelRequested()
+                    ? ExecutionStatus.CANCELLED
+                    : ExecutionStatus.FAILED;
+
+            log.error("Streaming query execution {}: {}",
+                    status == ExecutionStatus.CANCELLED ? "cancelled" : "failed", e.getMessage());
+
+            execution.setExecutionStatus(status);
+            execution.setExecutionTimeMs((int) executionTime);
+            execution.setErrorMessage(e.getMessage());
+            execution.setRowsReturned(0);
+            executionRepository.save(execution);
+
+            // Headers are already committed once streaming starts, so the failure can only abort the body
+            throw new RuntimeException("Query execution failed: " + e.getMessage(), e);
+
+        } catch (IOException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+
+            // Usually the client disconnecting mid-stream
+            log.warn("Streaming query aborted while writing results: {}", e.getMessage());
+
+            execution.setExecutionStatus(ExecutionStatus.FAILED);
+            execution.setExecutionTimeMs((int) executionTime);
+            execution.setErrorMessage("Result stream aborted: " + e.getMessage());
+            execution.setRowsReturned(0);
+            executionRepository.save(execution);
+
+            throw e;
+
+        } finally {
+            runningQueryRegistry.deregister(runningQuery);
         }
     }
 
@@ -316,38 +481,6 @@ public class QueryExecutionService {
         return trimmedSql + " LIMIT " + limit;
     }
 
-    /**
-     * Build JDBC URL
-     */
-    private String buildJdbcUrl(DataSource dataSource) {
-        String sslParam = Boolean.TRUE.equals(dataSource.getSslEnabled()) ? "&useSSL=true" : "&useSSL=false";
-
-        return switch (dataSource.getDatabaseType()) {
-            case MYSQL -> String.format(
-                    "jdbc:mysql://%s:%d/%s?serverTimezone=UTC%s",
-                    dataSource.getHost(), dataSource.getPort(),
-                    dataSource.getDatabaseName(), sslParam
-            );
-
-            case POSTGRESQL -> String.format(
-                    "jdbc:postgresql://%s:%d/%s?ssl=%s",
-                    dataSource.getHost(), dataSource.getPort(),
-                    dataSource.getDatabaseName(), dataSource.getSslEnabled() ? "true" : "false"
-            );
-
-            case SQLSERVER -> String.format(
-                    "jdbc:sqlserver://%s:%d;databaseName=%s;encrypt=%s",
-                    dataSource.getHost(), dataSource.getPort(),
-                    dataSource.getDatabaseName(), dataSource.getSslEnabled() ? "true" : "false"
-            );
-
-            case ORACLE -> String.format(
-                    "jdbc:oracle:thin:@%s:%d:%s",
-                    dataSource.getHost(), dataSource.getPort(), dataSource.getDatabaseName()
-            );
-        };
-    }
-
     /**
      * Map QueryExecution to QueryHistoryResponse
      */
@@ -364,4 +497,15 @@ public class QueryExecutionService {
                 .executedAt(execution.getExecutedAt())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * A streaming query checked and resolved before its response is committed
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class StreamingQuery {
+        private final DataSource dataSource;
+        private final ExecuteQueryRequest request;
+        private final String sql;
+    }
+}
@@ -0,0 +1,136 @@
+package com.querybuilder.backend.query.service;
+
+import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.model.DatabaseType;
+import com.querybuilder.backend.query.model.ExecutionPhase;
+import com.querybuilder.backend.shared.util.SqlFingerprintGenerator;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory registry of queries currently running against user data sources.
+ * Backed by a ConcurrentHashMap and per-entry atomics, so the execution path
+ * never blocks on the admin endpoints reading it.
+ */
+@Component
+@RequiredArgsConstructor
+public class RunningQueryRegistry {
+
+    private final SqlFingerprintGenerator fingerprintGenerator;
+
+    private final ConcurrentHashMap<UUID, RunningQuery> running = new ConcurrentHashMap<>();
+
+    /**
+     * Register a query that is about to run
+     */
+    public RunningQuery register(User user, DataSource dataSource, String sql) {
+        RunningQuery runningQuery = new RunningQuery(
+                UUID.randomUUID(),
+                user.getId(),
+                user.getEmail(),
+                dataSource.getId(),
+                dataSource.getName(),
+                dataSource.getDatabaseType(),
+                fingerprintGenerator.fingerprint(sql),
+                fingerprintGenerator.hash(sql)
+        );
+
+        running.put(runningQuery.getId(), runningQuery);
+        return runningQuery;
+    }
+
+    /**
+     * Remove a query once it has finished (successfully or not)
+     */
+    public void deregister(RunningQuery runningQuery) {
+        if (runningQuery != null) {
+            running.remove(runningQuery.getId());
+        }
+    }
+
+    public Optional<RunningQuery> find(UUID id) {
+        return Optional.ofNullable(running.get(id));
+    }
+
+    public Collection<RunningQuery> findAll() {
+        return running.values();
+    }
+
+    public List<RunningQuery> findByDataSource(UUID dataSourceId) {
+        return running.values().stream()
+                .filter(query -> query.getDataSourceId().equals(dataSourceId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Snapshot-able state of a single in-flight query
+     */
+    @Getter
+    public static final class RunningQuery {
+
+        private final UUID id;
+        private final UUID userId;
+        private final String userEmail;
+        private final UUID dataSourceId;
+        private final String dataSourceName;
+        private final DatabaseType databaseType;
+        private final String fingerprint;
+        private final String fingerprintHash;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong rowsFetched = new AtomicLong();
+
+        private volatile ExecutionPhase phase = ExecutionPhase.CONNECTING;
+        private volatile Statement statement;
+        private volatile Long serverSessionId;
+        private volatile boolean cancelRequested;
+
+        RunningQuery(UUID id, UUID userId, String userEmail, UUID dataSourceId, String dataSourceName,
+                     DatabaseType databaseType, String fingerprint, String fingerprintHash) {
+            this.id = id;
+            this.userId = userId;
+            this.userEmail = userEmail;
+            this.dataSourceId = dataSourceId;
+            this.dataSourceName = dataSourceName;
+            this.databaseType = databaseType;
+            this.fingerprint = fingerprint;
+            this.fingerprintHash = fingerprintHash;
+        }
+
+        public void attach(Statement statement, Long serverSessionId) {
+            this.statement = statement;
+            this.serverSessionId = serverSessionId;
+        }
+
+        public void setPhase(ExecutionPhase phase) {
+            // Never leave CANCELLING once a kill has been requested
+            if (!cancelRequested) {
+                this.phase = phase;
+            }
+        }
+
+        public void rowFetched() {
+            rowsFetched.incrementAndGet();
+        }
+
+        public long getRowsFetched() {
+            return rowsFetched.get();
+        }
+
+        void markCancelRequested() {
+            this.cancelRequested = true;
+            this.phase = ExecutionPhase.CANCELLING;
+        }
+    }
+}
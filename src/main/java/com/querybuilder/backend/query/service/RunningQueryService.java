@@ -0,0 +1,244 @@
+package com.querybuilder.backend.query.service;
+
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.model.DatabaseType;
+import com.querybuilder.backend.datasource.repository.DataSourceRepository;
+import com.querybuilder.backend.datasource.service.DataSourceConnectionFactory;
+import com.querybuilder.backend.query.dto.RunningQueryResponse;
+import com.querybuilder.backend.query.service.RunningQueryRegistry.RunningQuery;
+import com.querybuilder.backend.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Service for inspecting and killing queries running against user data sources
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RunningQueryService {
+
+    private final RunningQueryRegistry registry;
+    private final DataSourceRepository dataSourceRepository;
+    private final DataSourceConnectionFactory connectionFactory;
+
+    @Value("${app.query.kill-grace-ms}")
+    private long killGraceMs;
+
+    /**
+     * List all in-flight queries, longest running first
+     */
+    public List<RunningQueryResponse> getRunningQueries() {
+        return registry.findAll().stream()
+                .sorted(Comparator.comparing(RunningQuery::getStartedAt))
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Kill a single in-flight query
+     */
+    public RunningQueryResponse killQuery(UUID runningQueryId) {
+        RunningQuery runningQuery = registry.find(runningQueryId)
+                .orElseThrow(() -> new ResourceNotFoundException("RunningQuery", "id", runningQueryId));
+
+        cancel(runningQuery);
+        killOnServerIfStillRunning(List.of(runningQuery));
+        return mapToResponse(runningQuery);
+    }
+
+    /**
+     * Kill every in-flight query for a data source
+     */
+    public List<RunningQueryResponse> killQueriesForDataSource(UUID dataSourceId) {
+        List<RunningQuery> queries = registry.findByDataSource(dataSourceId);
+        log.warn("Killing {} running queries for data source: {}", queries.size(), dataSourceId);
+
+        queries.forEach(this::cancel);
+        killOnServerIfStillRunning(queries);
+        return queries.stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Look up the server-side session id of a connection, used later for a server-side kill.
+     * Returns null for dialects where we rely on Statement.cancel() only.
+     */
+    public Long lookupServerSessionId(Connection connection, DatabaseType databaseType) {
+        String sql = switch (databaseType) {
+            case MYSQL -> "SELECT CONNECTION_ID()";
+            case POSTGRESQL -> "SELECT pg_backend_pid()";
+            case SQLSERVER -> "SELECT @@SPID";
+            case ORACLE -> null;  // Needs SID + SERIAL# and v$session access
+        };
+
+        if (sql == null) {
+            return null;
+        }
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            return resultSet.next() ? resultSet.getLong(1) : null;
+        } catch (SQLException e) {
+            log.debug("Could not determine server session id: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Cancel through the driver
+     */
+    private void cancel(RunningQuery runningQuery) {
+        log.warn("Killing running query {} (user: {}, data source: {})",
+                runningQuery.getId(), runningQuery.getUserEmail(), runningQuery.getDataSourceId());
+
+        runningQuery.markCancelRequested();
+
+        Statement statement = runningQuery.getStatement();
+        if (statement != null) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                log.warn("Statement.cancel() failed for running query {}: {}",
+                        runningQuery.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Give cancelled queries a short grace period, then kill on the server only those still
+     * running. A finished query has closed its connection, and its session id may already
+     * belong to another client.
+     */
+    private void killOnServerIfStillRunning(List<RunningQuery> queries) {
+        List<RunningQuery> remaining = new ArrayList<>(
+                queries.stream().filter(query -> query.getServerSessionId() != null).toList());
+        long deadline = System.currentTimeMillis() + killGraceMs;
+
+        while (true) {
+            remaining.removeIf(query -> !isStillRunning(query));
+            if (remaining.isEmpty() || System.currentTimeMillis() >= deadline) {
+                break;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        for (RunningQuery runningQuery : remaining) {
+            killOnServer(runningQuery, runningQuery.getServerSessionId());
+        }
+    }
+
+    /**
+     * Still registered and its statement still open; the query deregisters as soon as it ends
+     */
+    private boolean isStillRunning(RunningQuery runningQuery) {
+        if (registry.find(runningQuery.getId()).isEmpty()) {
+            return false;
+        }
+        Statement statement = runningQuery.getStatement();
+        try {
+            return statement != null && !statement.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Issue KILL QUERY / pg_cancel_backend / KILL over a separate connection. KILL ends the whole
+     * SQL Server session, so it is only issued once the session is confirmed as this application's.
+     */
+    private void killOnServer(RunningQuery runningQuery, long sessionId) {
+        String sql = switch (runningQuery.getDatabaseType()) {
+            case MYSQL -> "KILL QUERY " + sessionId;
+            case POSTGRESQL -> "SELECT pg_cancel_backend(" + sessionId + ")";
+            case SQLSERVER -> "KILL " + sessionId;
+            case ORACLE -> null;
+        };
+
+        if (sql == null) {
+            return;
+        }
+
+        DataSource dataSource = dataSourceRepository.findById(runningQuery.getDataSourceId()).orElse(null);
+        if (dataSource == null) {
+            return;
+        }
+
+        try (Connection connection = connectionFactory.getConnection(dataSource);
+             Statement statement = connection.createStatement()) {
+            if (runningQuery.getDatabaseType() == DatabaseType.SQLSERVER && !isOwnSqlServerSession(connection, sessionId)) {
+                log.warn("Server-side kill skipped for running query {}: session {} is not confirmed as ours",
+                        runningQuery.getId(), sessionId);
+                return;
+            }
+            // Opening the connection took time; the query may have ended meanwhile
+            if (!isStillRunning(runningQuery)) {
+                return;
+            }
+            statement.execute(sql);
+            log.info("Server-side kill issued for running query {}: {}", runningQuery.getId(), sql);
+        } catch (SQLException e) {
+            // The query may already have finished after Statement.cancel()
+            log.warn("Server-side kill failed for running query {}: {}", runningQuery.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * SPIDs are reused quickly; a session is ours only if it reports this application's
+     * program_name. Without VIEW SERVER STATE other sessions are invisible and nothing is killed.
+     */
+    private boolean isOwnSqlServerSession(Connection connection, long sessionId) {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT program_name FROM sys.dm_exec_sessions WHERE session_id = ?")) {
+            statement.setLong(1, sessionId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next()
+                        && DataSourceConnectionFactory.APPLICATION_NAME.equals(resultSet.getString(1));
+            }
+        } catch (SQLException e) {
+            log.debug("Could not confirm SQL Server session {}: {}", sessionId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Map registry entry to response DTO
+     */
+    private RunningQueryResponse mapToResponse(RunningQuery runningQuery) {
+        return RunningQueryResponse.builder()
+                .id(runningQuery.getId().toString())
+                .userEmail(runningQuery.getUserEmail())
+                .dataSourceId(runningQuery.getDataSourceId().toString())
+                .dataSourceName(runningQuery.getDataSourceName())
+                .databaseType(runningQuery.getDatabaseType())
+                .fingerprint(runningQuery.getFingerprint())
+                .fingerprintHash(runningQuery.getFingerprintHash())
+                .startedAt(runningQuery.getStartedAt())
+                .elapsedMs(Duration.between(runningQuery.getStartedAt(), Instant.now()).toMillis())
+                .rowsFetched(runningQuery.getRowsFetched())
+                .phase(runningQuery.getPhase())
+                .cancelRequested(runningQuery.isCancelRequested())
+                .build();
+    }
+}
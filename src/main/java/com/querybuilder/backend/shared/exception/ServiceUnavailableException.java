@@ -0,0 +1,12 @@
+package com.querybuilder.backend.shared.exception;
+
+/**
+ * Exception thrown when a backing service is overloaded or failing and the request is
+ * turned away rather than queued; the client may retry later
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
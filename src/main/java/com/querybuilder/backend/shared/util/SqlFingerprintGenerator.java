@@ -0,0 +1,123 @@
+package com.querybuilder.backend.shared.util;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility for normalizing SQL into a literal-free fingerprint
+ * Example: "SELECT * FROM t WHERE id = 42" -> "select * from t where id = ?"
+ */
+@Component
+public class SqlFingerprintGenerator {
+
+    private static final Pattern BLOCK_COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern LINE_COMMENT = Pattern.compile("--[^\\n]*");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int HASH_LENGTH = 16;
+
+    /**
+     * Normalize SQL: strip comments, replace literals with '?', collapse whitespace
+     */
+    public String fingerprint(String sql) {
+        if (sql == null) {
+            return "";
+        }
+
+        String normalized = BLOCK_COMMENT.matcher(sql).replaceAll(" ");
+        normalized = LINE_COMMENT.matcher(normalized).replaceAll(" ");
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?+)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+
+        if (normalized.endsWith(";")) {
+            normalized = normalized.substring(0, normalized.length() - 1).trim();
+        }
+
+        return normalized.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Exact SQL text without comments and redundant whitespace; literals, quoted identifiers
+     * and case are kept, so two queries normalize equally only if they would run the same
+     */
+    public String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+
+        StringBuilder normalized = new StringBuilder(sql.length());
+        boolean pendingSpace = false;
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = i + 1;
+                while (end < sql.length()) {
+                    if (sql.charAt(end) == c) {
+                        // A doubled quote is an escaped quote inside the literal
+                        if (end + 1 < sql.length() && sql.charAt(end + 1) == c) {
+                            end += 2;
+                            continue;
+                        }
+                        end++;
+                        break;
+                    }
+                    end++;
+                }
+                if (pendingSpace && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(sql, i, Math.min(end, sql.length()));
+                i = end;
+            } else if (sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? sql.length() : end;
+                pendingSpace = true;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? sql.length() : end + 2;
+                pendingSpace = true;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+                pendingSpace = true;
+            } else {
+                if (pendingSpace && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(c);
+                i++;
+            }
+        }
+
+        String result = normalized.toString();
+        if (result.endsWith(";")) {
+            result = result.substring(0, result.length() - 1).trim();
+        }
+        return result;
+    }
+
+    /**
+     * Short stable hash of the fingerprint, suitable for grouping and cache keys
+     */
+    public String hash(String sql) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(fingerprint(sql).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hashed).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- Per-table structural fingerprints so a refresh only re-reads tables that changed
+ALTER TABLE schema_cache
+    ADD COLUMN table_fingerprints LONGTEXT NULL AFTER schema_version;
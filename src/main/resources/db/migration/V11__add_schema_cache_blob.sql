@@ -0,0 +1,4 @@
+-- Compact binary schema (zstd-compressed Smile); JSON rows are converted lazily on first read
+ALTER TABLE schema_cache
+    MODIFY COLUMN schema_data LONGTEXT NULL,
+    ADD COLUMN schema_blob LONGBLOB NULL AFTER schema_data;
@@ -0,0 +1,12 @@
+-- Optimizer statistics (row counts, cardinality, null fractions, min/max) read from the
+-- target database's statistics views by a rate-limited background collector
+CREATE TABLE schema_statistics (
+    id BINARY(16) PRIMARY KEY,
+    datasource_id BINARY(16) NOT NULL,
+    statistics_data LONGTEXT NOT NULL,
+    collected_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (datasource_id) REFERENCES data_sources(id) ON DELETE CASCADE,
+    UNIQUE KEY unique_datasource (datasource_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
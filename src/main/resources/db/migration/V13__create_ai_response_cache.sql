@@ -0,0 +1,13 @@
+-- Model responses keyed by normalized input (SQL fingerprint or prompt) and its scope, so
+-- repeated explain / optimize / NL-to-SQL requests skip inference; survives restarts
+CREATE TABLE ai_response_cache (
+    id BINARY(16) PRIMARY KEY,
+    cache_key VARCHAR(100) NOT NULL,
+    interaction_type ENUM('NL_TO_SQL', 'OPTIMIZATION', 'EXPLANATION', 'SUGGESTION') NOT NULL,
+    response_text MEDIUMTEXT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY unique_cache_key (cache_key),
+    INDEX idx_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
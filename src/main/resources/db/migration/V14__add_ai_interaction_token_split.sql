@@ -0,0 +1,4 @@
+-- Prompt and completion token counts; tokens_used keeps their sum
+ALTER TABLE ai_interactions
+    ADD COLUMN prompt_tokens INT NULL AFTER tokens_used,
+    ADD COLUMN completion_tokens INT NULL AFTER prompt_tokens;
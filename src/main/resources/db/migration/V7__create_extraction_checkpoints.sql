@@ -0,0 +1,25 @@
+-- Extraction checkpoints (progress of chunked primary-key range extractions, used for resume)
+CREATE TABLE extraction_checkpoints (
+    id BINARY(16) PRIMARY KEY,
+    user_id BINARY(16) NOT NULL,
+    datasource_id BINARY(16) NOT NULL,
+    sql_query TEXT NOT NULL,
+    table_name VARCHAR(255) NOT NULL,
+    key_column VARCHAR(255) NOT NULL,
+    lower_bound BIGINT,
+    upper_bound BIGINT,
+    chunk_size BIGINT NOT NULL,
+    chunk_count INT NOT NULL,
+    last_completed_chunk INT NOT NULL DEFAULT -1,
+    rows_extracted BIGINT NOT NULL DEFAULT 0,
+    status ENUM('RUNNING', 'COMPLETED', 'FAILED') NOT NULL,
+    error_message TEXT,
+    completed_at TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (datasource_id) REFERENCES data_sources(id) ON DELETE CASCADE,
+    INDEX idx_user_id (user_id),
+    INDEX idx_datasource_id (datasource_id),
+    INDEX idx_status (status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,24 @@
+-- Export jobs (background exports written to the local file store; files expire per retention policy)
+CREATE TABLE export_jobs (
+    id BINARY(16) PRIMARY KEY,
+    user_id BINARY(16) NOT NULL,
+    datasource_id BINARY(16) NOT NULL,
+    sql_query TEXT NOT NULL,
+    format VARCHAR(20) NOT NULL,
+    status ENUM('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED', 'EXPIRED') NOT NULL,
+    file_path VARCHAR(1000),
+    file_size_bytes BIGINT,
+    rows_exported BIGINT,
+    execution_time_ms INT,
+    error_message TEXT,
+    started_at TIMESTAMP NULL,
+    completed_at TIMESTAMP NULL,
+    expires_at TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (datasource_id) REFERENCES data_sources(id) ON DELETE CASCADE,
+    INDEX idx_user_id (user_id),
+    INDEX idx_status (status),
+    INDEX idx_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,3 @@
+-- Schema version (monotonic, epoch millis of the discovery that produced it) so derived caches can key on it
+ALTER TABLE schema_cache
+    ADD COLUMN schema_version BIGINT NOT NULL DEFAULT 0 AFTER schema_data;
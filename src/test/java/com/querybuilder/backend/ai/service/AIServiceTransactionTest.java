@@ -0,0 +1,182 @@
+package com.querybuilder.backend.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querybuilder.backend.ai.repository.AIInteractionRepository;
+import com.querybuilder.backend.ai.service.SchemaRelevanceIndex.SchemaContext;
+import com.querybuilder.backend.auth.model.User;
+import com.querybuilder.backend.datasource.model.DataSource;
+import com.querybuilder.backend.datasource.model.DatabaseType;
+import com.querybuilder.backend.datasource.repository.DataSourceRepository;
+import com.querybuilder.backend.datasource.service.SchemaDiscoveryService;
+import com.querybuilder.backend.datasource.service.SchemaMemoryCache.CachedSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * AIService runs behind a real transaction proxy over a connection-counting pool. While the
+ * (mocked) model is answering, no pool connection may be checked out and no transaction
+ * may be open; the interaction is still saved afterwards.
+ */
+@SpringJUnitConfig(AIServiceTransactionTest.Config.class)
+@TestPropertySource(properties = "app.ai.prompt.max-tokens=6000")
+class AIServiceTransactionTest {
+
+    private static final AtomicInteger openConnections = new AtomicInteger();
+
+    @Autowired
+    private AIService aiService;
+
+    // Mocked at the call AIService makes; the scheduler builds its ChatClient only once, at startup
+    @MockitoBean
+    private ModelRequestScheduler modelScheduler;
+
+    @MockitoBean
+    private AIInteractionRepository aiInteractionRepository;
+
+    @MockitoBean
+    private DataSourceRepository dataSourceRepository;
+
+    @MockitoBean
+    private SchemaDiscoveryService schemaDiscoveryService;
+
+    @MockitoBean
+    private AIResponseCache responseCache;
+
+    @MockitoBean
+    private SchemaContextService schemaContextService;
+
+    @MockitoBean
+    private TokenCounter tokenCounter;
+
+    @MockitoBean
+    private AIUsageMetrics usageMetrics;
+
+    @MockitoBean
+    private OptimizationVerifier optimizationVerifier;
+
+    private final User user = User.builder().email("analyst@example.com").build();
+    private final UUID dataSourceId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = DataSource.builder().databaseType(DatabaseType.MYSQL).build();
+        when(dataSourceRepository.findByIdAndUserAndDeletedFalse(eq(dataSourceId), any()))
+                .thenReturn(Optional.of(dataSource));
+        CachedSchema schema = mock(CachedSchema.class);
+        when(schema.getSchema()).thenReturn(Map.of("tables", List.of()));
+        when(schemaDiscoveryService.getCachedSchema(any())).thenReturn(schema);
+        when(schemaContextService.buildContext(any(), any(), any(), anyInt()))
+                .thenReturn(new SchemaContext("", List.of(), 0, 0, 0));
+    }
+
+    @Test
+    void naturalLanguageToSqlHoldsNoConnectionDuringModelCall() {
+        answerWithPoolCheck("SELECT id FROM orders");
+
+        aiService.naturalLanguageToSQL("all order ids", dataSourceId, user);
+
+        verify(aiInteractionRepository).save(any());
+    }
+
+    @Test
+    void optimizeQueryHoldsNoConnectionDuringModelCall() {
+        answerWithPoolCheck("OPTIMIZED QUERY:\nSELECT id FROM orders\n\nSUGGESTIONS:\n1. [Type: INDEX] [Severity: LOW] None");
+
+        aiService.optimizeQuery("SELECT * FROM orders", dataSourceId, true, false, user);
+
+        verify(aiInteractionRepository).save(any());
+    }
+
+    @Test
+    void explainQueryHoldsNoConnectionDuringModelCall() {
+        answerWithPoolCheck("Reads every order id.");
+
+        aiService.explainQuery("SELECT id FROM orders", user);
+
+        verify(aiInteractionRepository).save(any());
+    }
+
+    @Test
+    void statisticsStillRunInATransaction() {
+        when(aiInteractionRepository.countByUserAndInteractionType(any(), any())).thenAnswer(invocation -> {
+            assertEquals(1, openConnections.get());
+            return 0L;
+        });
+
+        aiService.getUserAIStats(user);
+
+        assertEquals(0, openConnections.get());
+    }
+
+    private void answerWithPoolCheck(String content) {
+        ChatResponse response = mock(ChatResponse.class, RETURNS_DEEP_STUBS);
+        when(response.getResult().getOutput().getText()).thenReturn(content);
+        Supplier<ChatResponse> modelCall = () -> {
+            assertEquals(0, openConnections.get(), "pool connection held during model call");
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive(),
+                    "transaction open during model call");
+            return response;
+        };
+        when(modelScheduler.call(any(), anyString(), anyString())).thenAnswer(invocation -> modelCall.get());
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({AIService.class, SqlStaticAnalyzer.class})
+    static class Config {
+
+        @Bean
+        javax.sql.DataSource dataSource() throws Exception {
+            javax.sql.DataSource pool = mock(javax.sql.DataSource.class);
+            when(pool.getConnection()).thenAnswer(invocation -> {
+                openConnections.incrementAndGet();
+                Connection connection = mock(Connection.class);
+                when(connection.getAutoCommit()).thenReturn(true);
+                doAnswer(close -> {
+                    openConnections.decrementAndGet();
+                    return null;
+                }).when(connection).close();
+                return connection;
+            });
+            return pool;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(javax.sql.DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.querybuilder.backend.ai.service;
+
+import com.querybuilder.backend.ai.service.SchemaRelevanceIndex.SchemaContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures how much of a large schema reaches the NL-to-SQL prompt after relevance pruning:
+ * about 2k tables of 12 columns with foreign keys, and questions that name two related tables
+ * in plain words. Reports full vs pruned prompt tokens, whether the named tables and the table
+ * joining them were kept, and selection latency. Run with ./gradlew benchmark
+ */
+@Tag("benchmark")
+class SchemaContextBenchmark {
+
+    private static final int QUESTIONS = 500;
+    private static final int MAX_TABLES = 25;
+    private static final int TOKEN_BUDGET = 3_000;
+
+    private static final String[] WORDS = {"customer", "order", "invoice", "payment", "product", "shipment",
+            "account", "ledger", "region", "warehouse", "supplier", "campaign", "session", "event", "refund",
+            "employee", "department", "contract", "vendor", "budget", "asset", "ticket", "project", "task",
+            "review", "coupon", "cart", "carrier", "branch", "store", "device", "license", "claim", "policy",
+            "premium", "agent", "lead", "quote", "subscription", "plan", "feature", "release", "build",
+            "incident", "alert"};
+    private static final String[] ATTRIBUTES = {"name", "status", "amount", "created_at", "updated_at",
+            "description", "code", "priority", "total", "notes"};
+
+    @Test
+    void promptReduction() {
+        Random random = new Random(11);
+        List<String> tableNames = new ArrayList<>();
+        Map<String, Object> schema = syntheticSchema(tableNames);
+
+        long start = System.nanoTime();
+        SchemaRelevanceIndex index = new SchemaRelevanceIndex(1, schema, new TokenCounter()::count);
+        long buildMs = (System.nanoTime() - start) / 1_000_000;
+
+        // "<a> <b>" tables reference "<a>" and "<b>"; ask about the two ends and expect the bridge too
+        List<String[]> questions = new ArrayList<>();
+        for (int i = 0; i < QUESTIONS; i++) {
+            String bridge = tableNames.get(WORDS.length + random.nextInt(tableNames.size() - WORDS.length));
+            String[] ends = bridge.split("_");
+            questions.add(new String[]{"total amount of " + ends[0] + "s by " + ends[1] + " status last month",
+                    ends[0], ends[1], bridge});
+        }
+
+        for (String[] question : questions) {
+            index.select(question[0], MAX_TABLES, TOKEN_BUDGET);     // warm up
+        }
+
+        long tokens = 0;
+        int endsFound = 0;
+        int bridgesFound = 0;
+        int overBudget = 0;
+        long[] latencies = new long[QUESTIONS];
+        for (int i = 0; i < QUESTIONS; i++) {
+            String[] question = questions.get(i);
+            long selectStart = System.nanoTime();
+            SchemaContext context = index.select(question[0], MAX_TABLES, TOKEN_BUDGET);
+            latencies[i] = System.nanoTime() - selectStart;
+
+            tokens += context.getTokens();
+            if (context.getTableNames().contains(question[1]) && context.getTableNames().contains(question[2])) {
+                endsFound++;
+            }
+            if (context.getTableNames().contains(question[3])) {
+                bridgesFound++;
+            }
+            if (context.getTokens() > TOKEN_BUDGET) {
+                overBudget++;
+            }
+        }
+        Arrays.sort(latencies);
+
+        int fullTokens = index.select("", Integer.MAX_VALUE, Integer.MAX_VALUE).getFullTokens();
+        double averageTokens = (double) tokens / QUESTIONS;
+
+        System.out.printf("Schema context benchmark (%,d tables, %,d questions)%n", index.tableCount(), QUESTIONS);
+        System.out.printf("  Index build       : %,6d ms%n", buildMs);
+        System.out.printf("  Full schema       : %,9d tokens%n", fullTokens);
+        System.out.printf("  Pruned (average)  : %,9.0f tokens (%.1f%% of full)%n",
+                averageTokens, 100.0 * averageTokens / fullTokens);
+        System.out.printf("  Named tables kept : %,6d / %d%n", endsFound, QUESTIONS);
+        System.out.printf("  Bridge table kept : %,6d / %d%n", bridgesFound, QUESTIONS);
+        System.out.printf("  Select p50        : %,9.3f ms%n", latencies[QUESTIONS / 2] / 1_000_000.0);
+        System.out.printf("  Select p99        : %,9.3f ms%n", latencies[QUESTIONS * 99 / 100] / 1_000_000.0);
+
+        assertTrue(overBudget == 0, "every context should fit the token budget");
+        assertTrue(averageTokens * 10 < fullTokens, "pruned prompts should be under a tenth of the full schema");
+        assertTrue(endsFound >= QUESTIONS * 95 / 100, "both named tables should almost always be kept");
+        assertTrue(bridgesFound >= QUESTIONS * 90 / 100, "the joining table should usually be kept");
+    }
+
+    /**
+     * One entity table per word plus a link table for each ordered pair of words
+     */
+    private Map<String, Object> syntheticSchema(List<String> tableNames) {
+        List<Map<String, Object>> tables = new ArrayList<>();
+        for (String word : WORDS) {
+            tables.add(table(word, List.of()));
+            tableNames.add(word);
+        }
+        for (String first : WORDS) {
+            for (String second : WORDS) {
+                if (!first.equals(second)) {
+                    tables.add(table(first + "_" + second, List.of(first, second)));
+                    tableNames.add(first + "_" + second);
+                }
+            }
+        }
+        return Map.of("tables", tables);
+    }
+
+    private Map<String, Object> table(String name, List<String> references) {
+        List<Map<String, Object>> columns = new ArrayList<>();
+        List<Map<String, Object>> foreignKeys = new ArrayList<>();
+        columns.add(Map.of("name", "id", "type", "BIGINT"));
+        for (String referenced : references) {
+            columns.add(Map.of("name", referenced + "_id", "type", "BIGINT"));
+            foreignKeys.add(Map.of("columnName", referenced + "_id", "referencedTable", referenced,
+                    "referencedColumn", "id"));
+        }
+        for (String attribute : ATTRIBUTES) {
+            columns.add(Map.of("name", attribute, "type", "VARCHAR"));
+        }
+
+        Map<String, Object> table = new HashMap<>();
+        table.put("name", name);
+        table.put("schema", "public");
+        table.put("type", "TABLE");
+        table.put("columns", columns);
+        table.put("primaryKeys", List.of("id"));
+        table.put("foreignKeys", foreignKeys);
+        return table;
+    }
+}
@@ -0,0 +1,131 @@
+package com.querybuilder.backend.ai.service;
+
+import com.querybuilder.backend.ai.dto.OptimizationSuggestion.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * One positive and one negative case per static rule, against a two-table schema where
+ * orders.customer_id references customers.id
+ */
+class SqlStaticAnalyzerTest {
+
+    private static final Map<String, Object> SCHEMA = Map.of("tables", List.of(
+            Map.of("name", "customers",
+                    "columns", List.of(Map.of("name", "id"), Map.of("name", "name"), Map.of("name", "email")),
+                    "primaryKeys", List.of("id"),
+                    "foreignKeys", List.of()),
+            Map.of("name", "orders",
+                    "columns", List.of(Map.of("name", "id"), Map.of("name", "customer_id"), Map.of("name", "status")),
+                    "primaryKeys", List.of("id"),
+                    "foreignKeys", List.of(Map.of("columnName", "customer_id",
+                            "referencedTable", "customers", "referencedColumn", "id")))));
+
+    private final SqlStaticAnalyzer analyzer = new SqlStaticAnalyzer();
+
+    @Test
+    void selectStarIsReportedWithTheTableColumns() {
+        Suggestion finding = single("SELECT * FROM customers", "reads every column");
+
+        assertEquals("MEDIUM", finding.getSeverity());
+        assertTrue(finding.getRecommendation().contains("SELECT id, name, email"));
+    }
+
+    @Test
+    void explicitColumnsAndExistsSubqueryAreNotSelectStar() {
+        assertNone("SELECT id, name FROM customers c WHERE EXISTS (SELECT * FROM orders o WHERE o.customer_id = c.id)",
+                "reads every column");
+    }
+
+    @Test
+    void leadingWildcardIsReported() {
+        assertEquals("MEDIUM", single("SELECT id FROM customers WHERE name LIKE '%smith'", "starts with a wildcard")
+                .getSeverity());
+    }
+
+    @Test
+    void anchoredPatternIsNotALeadingWildcard() {
+        assertNone("SELECT id FROM customers WHERE name LIKE 'smith%'", "starts with a wildcard");
+    }
+
+    @Test
+    void functionOnKeyColumnIsReported() {
+        assertEquals("HIGH", single("SELECT id FROM orders WHERE ABS(customer_id) = 42", "wraps key column")
+                .getSeverity());
+    }
+
+    @Test
+    void functionOnNonKeyColumnIsNotReported() {
+        assertNone("SELECT id FROM orders WHERE LOWER(status) = 'open'", "wraps key column");
+    }
+
+    @Test
+    void missingJoinPredicateSuggestsTheForeignKey() {
+        Suggestion finding = single("SELECT c.name, o.id FROM customers c, orders o", "No join condition");
+
+        assertEquals("HIGH", finding.getSeverity());
+        assertEquals("Join on the foreign key: o.customer_id = c.id", finding.getRecommendation());
+    }
+
+    @Test
+    void joinPredicateInWhereOrOnIsAccepted() {
+        assertNone("SELECT c.name, o.id FROM customers c, orders o WHERE o.customer_id = c.id", "No join condition");
+        assertNone("SELECT c.name, o.id FROM customers c JOIN orders o ON o.customer_id = c.id", "No join condition");
+        assertNone("SELECT c.name, o.id FROM customers c CROSS JOIN orders o", "No join condition");
+    }
+
+    @Test
+    void orAcrossDifferentColumnsIsReported() {
+        single("SELECT id FROM customers WHERE name = 'a' OR email = 'b'", "OR across different columns");
+    }
+
+    @Test
+    void orOverTheSameColumnIsNotReported() {
+        assertNone("SELECT id FROM customers WHERE name = 'a' OR name = 'b'", "OR across different columns");
+    }
+
+    @Test
+    void orderByWithoutLimitIsReported() {
+        assertEquals("LOW", single("SELECT id FROM customers ORDER BY name", "ORDER BY without LIMIT").getSeverity());
+    }
+
+    @Test
+    void orderByWithLimitIsNotReported() {
+        assertNone("SELECT id FROM customers ORDER BY name LIMIT 10", "ORDER BY without LIMIT");
+    }
+
+    @Test
+    void unparsableQueryYieldsTheParserError() {
+        SqlStaticAnalyzer.Analysis analysis = analyzer.analyze("SELEC id FROM customers", SCHEMA);
+
+        assertFalse(analysis.isParsed());
+        assertTrue(analysis.getFindings().isEmpty());
+        assertNotNull(analysis.getError());
+    }
+
+    private Suggestion single(String sql, String description) {
+        List<Suggestion> matching = matching(sql, description);
+        assertEquals(1, matching.size(), () -> "Expected one finding containing \"" + description + "\" for " + sql);
+        return matching.get(0);
+    }
+
+    private void assertNone(String sql, String description) {
+        assertTrue(matching(sql, description).isEmpty(),
+                () -> "Expected no finding containing \"" + description + "\" for " + sql);
+    }
+
+    private List<Suggestion> matching(String sql, String description) {
+        SqlStaticAnalyzer.Analysis analysis = analyzer.analyze(sql, SCHEMA);
+        assertTrue(analysis.isParsed(), () -> "Not parsed: " + analysis.getError());
+        return analysis.getFindings().stream()
+                .filter(finding -> finding.getDescription().contains(description))
+                .toList();
+    }
+}
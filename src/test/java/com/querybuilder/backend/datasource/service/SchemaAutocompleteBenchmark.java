@@ -0,0 +1,118 @@
+package com.querybuilder.backend.datasource.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures autocomplete latency over a synthetic catalog of about 50k distinct columns: prefix
+ * queries of one to six characters plus misspelled names, as typed keystroke by keystroke,
+ * and the cost of re-indexing after one table changes. Run with ./gradlew benchmark
+ */
+@Tag("benchmark")
+class SchemaAutocompleteBenchmark {
+
+    private static final int TABLES = 2_000;
+    private static final int COLUMNS_PER_TABLE = 25;
+    private static final int QUERIES = 20_000;
+    private static final long P99_LIMIT_NANOS = 2_000_000;
+
+    private static final String[] WORDS = {"customer", "order", "invoice", "payment", "product", "shipment",
+            "account", "ledger", "region", "warehouse", "supplier", "campaign", "session", "event", "refund"};
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void suggestionLatency() {
+        Random random = new Random(7);
+        Map<String, Object> schema = syntheticSchema(random);
+        Map<String, String> fingerprints = new HashMap<>();
+        for (Map<String, Object> table : (List<Map<String, Object>>) schema.get("tables")) {
+            fingerprints.put(table.get("schema") + "." + table.get("name"), "v1");
+        }
+
+        long start = System.nanoTime();
+        SchemaAutocompleteIndex index = SchemaAutocompleteIndex.build(1, schema, fingerprints, null);
+        long fullBuildMs = (System.nanoTime() - start) / 1_000_000;
+
+        List<String> names = new ArrayList<>();
+        for (Map<String, Object> table : (List<Map<String, Object>>) schema.get("tables")) {
+            names.add((String) table.get("name"));
+            for (Map<String, Object> column : (List<Map<String, Object>>) table.get("columns")) {
+                names.add((String) column.get("name"));
+            }
+        }
+
+        // Keystroke prefixes of real names, with every fifth query a misspelled full name
+        List<String> queries = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            String name = names.get(random.nextInt(names.size()));
+            if (i % 5 == 4) {
+                int typo = 1 + random.nextInt(name.length() - 1);
+                queries.add(name.substring(0, typo) + name.substring(typo + 1));
+            } else {
+                queries.add(name.substring(0, Math.min(name.length(), 1 + random.nextInt(6))));
+            }
+        }
+
+        for (String query : queries) {
+            index.suggest(query, null, 20);     // warm up
+        }
+
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long queryStart = System.nanoTime();
+            index.suggest(queries.get(i), null, 20);
+            latencies[i] = System.nanoTime() - queryStart;
+        }
+        Arrays.sort(latencies);
+        long p50 = latencies[QUERIES / 2];
+        long p99 = latencies[QUERIES * 99 / 100];
+
+        // One table changes: only its segment is rebuilt
+        fingerprints.put("public.customer_order_00015", "v2");
+        start = System.nanoTime();
+        SchemaAutocompleteIndex next = SchemaAutocompleteIndex.build(2, schema, fingerprints, index);
+        long incrementalBuildMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("Autocomplete benchmark (%,d identifiers, %,d queries)%n", index.size(), QUERIES);
+        System.out.printf("  Full build        : %,6d ms%n", fullBuildMs);
+        System.out.printf("  Incremental build : %,6d ms%n", incrementalBuildMs);
+        System.out.printf("  Query p50         : %,9.3f ms%n", p50 / 1_000_000.0);
+        System.out.printf("  Query p99         : %,9.3f ms%n", p99 / 1_000_000.0);
+
+        assertEquals(TABLES * (COLUMNS_PER_TABLE + 1), index.size());
+        assertEquals(index.size(), next.size());
+        assertEquals("customer_order_00015", index.suggest("customer_order_00015", null, 5).get(0).getName());
+        assertEquals("customer_order_00015", index.suggest("custmer_order_00015", null, 5).get(0).getName());
+        assertTrue(p99 < P99_LIMIT_NANOS, "p99 suggestion latency should stay under 2 ms");
+    }
+
+    private Map<String, Object> syntheticSchema(Random random) {
+        List<Map<String, Object>> tables = new ArrayList<>();
+        for (int t = 0; t < TABLES; t++) {
+            String tableName = String.format("%s_%s_%05d",
+                    WORDS[t % WORDS.length], WORDS[(t / WORDS.length) % WORDS.length], t);
+
+            List<Map<String, Object>> columns = new ArrayList<>();
+            for (int c = 0; c < COLUMNS_PER_TABLE; c++) {
+                Map<String, Object> column = new HashMap<>();
+                column.put("name", c == 0 ? "id" : WORDS[random.nextInt(WORDS.length)] + "_" + t + "_" + c);
+                column.put("type", "VARCHAR");
+                columns.add(column);
+            }
+
+            Map<String, Object> table = new HashMap<>();
+            table.put("name", tableName);
+            table.put("schema", "public");
+            table.put("type", "TABLE");
+            table.put("columns", columns);
+            tables.add(table);
+        }
+
+        return Map.of("tables", tables);
+    }
+}
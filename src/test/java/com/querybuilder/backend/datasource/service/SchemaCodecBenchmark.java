@@ -0,0 +1,113 @@
+package com.querybuilder.backend.datasource.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the legacy JSON schema_data format with the zstd-compressed Smile format on a
+ * synthetic warehouse-sized schema: bytes stored and time to turn stored bytes back into
+ * the schema map. Run with ./gradlew benchmark
+ */
+@Tag("benchmark")
+class SchemaCodecBenchmark {
+
+    private static final int TABLES = 5_000;
+    private static final int COLUMNS_PER_TABLE = 25;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int ITERATIONS = 20;
+
+    private static final String[] TYPES = {"BIGINT", "INT", "VARCHAR", "DECIMAL", "DATETIME", "TINYINT", "TEXT"};
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void storageFormats() throws Exception {
+        Map<String, Object> schema = syntheticSchema();
+        ObjectMapper objectMapper = new ObjectMapper();
+        SchemaCodec codec = new SchemaCodec();
+
+        byte[] json = objectMapper.writeValueAsString(schema).getBytes(StandardCharsets.UTF_8);
+        byte[] binary = codec.encode(schema);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            objectMapper.readValue(json, Map.class);
+            codec.decode(binary);
+        }
+
+        long start = System.nanoTime();
+        Map<String, Object> fromJson = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            fromJson = objectMapper.readValue(new String(json, StandardCharsets.UTF_8), Map.class);
+        }
+        double jsonMs = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+
+        start = System.nanoTime();
+        Map<String, Object> fromBinary = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            fromBinary = codec.decode(binary);
+        }
+        double binaryMs = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+
+        System.out.printf("Schema storage benchmark (%d tables, %d columns each)%n", TABLES, COLUMNS_PER_TABLE);
+        System.out.printf("  JSON       : %,12d bytes  %8.1f ms to decode%n", json.length, jsonMs);
+        System.out.printf("  Smile+zstd : %,12d bytes  %8.1f ms to decode  (%d bytes before zstd)%n",
+                binary.length, binaryMs, codec.uncompressedSize(binary));
+        System.out.printf("  Size ratio : %.1fx smaller%n", (double) json.length / binary.length);
+
+        assertEquals(fromJson, fromBinary, "Both formats should decode to the same schema");
+        assertTrue(binary.length * 5L < json.length, "Binary format should be at least 5x smaller");
+    }
+
+    private Map<String, Object> syntheticSchema() {
+        Random random = new Random(42);
+        List<Map<String, Object>> tables = new ArrayList<>();
+
+        for (int t = 0; t < TABLES; t++) {
+            String tableName = String.format("fact_table_%05d", t);
+
+            List<Map<String, Object>> columns = new ArrayList<>();
+            for (int c = 0; c < COLUMNS_PER_TABLE; c++) {
+                Map<String, Object> column = new HashMap<>();
+                column.put("name", c == 0 ? "id" : "column_" + c);
+                column.put("type", TYPES[random.nextInt(TYPES.length)]);
+                column.put("size", c == 0 ? 19 : 10 + random.nextInt(245));
+                column.put("nullable", c != 0);
+                column.put("defaultValue", c % 7 == 3 ? "0" : null);
+                columns.add(column);
+            }
+
+            List<Map<String, Object>> foreignKeys = new ArrayList<>();
+            if (t > 0) {
+                Map<String, Object> fk = new HashMap<>();
+                fk.put("columnName", "column_1");
+                fk.put("referencedTable", String.format("fact_table_%05d", random.nextInt(t)));
+                fk.put("referencedColumn", "id");
+                fk.put("constraintName", "fk_" + tableName + "_column_1");
+                fk.put("keySequence", 1);
+                foreignKeys.add(fk);
+            }
+
+            Map<String, Object> table = new HashMap<>();
+            table.put("name", tableName);
+            table.put("schema", "warehouse");
+            table.put("type", "TABLE");
+            table.put("columns", columns);
+            table.put("primaryKeys", new ArrayList<>(List.of("id")));
+            table.put("foreignKeys", foreignKeys);
+            tables.add(table);
+        }
+
+        Map<String, Object> schema = new HashMap<>();
+        schema.put("databaseType", "MYSQL");
+        schema.put("databaseName", "warehouse");
+        schema.put("discoveredAt", "2026-01-01T00:00");
+        schema.put("tables", tables);
+        return schema;
+    }
+}
@@ -0,0 +1,269 @@
+package com.querybuilder.backend.datasource.service;
+
+import com.querybuilder.backend.datasource.model.DatabaseType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares per-table, bulk and parallel bulk metadata discovery against a synthetic
+ * MySQL-like catalog of several thousand tables. Each metadata call or catalog query
+ * costs a simulated network round trip plus a per-row transfer cost. Run with
+ * ./gradlew benchmark
+ */
+@Tag("benchmark")
+class SchemaDiscoveryBenchmark {
+
+    private static final String DATABASE = "bench";
+    private static final int TABLES = 3_000;
+    private static final int COLUMNS_PER_TABLE = 12;
+    private static final long ROUND_TRIP_NANOS = 500_000;   // 0.5 ms, a fast LAN
+    private static final long ROW_NANOS = 10_000;           // slow metadata drivers
+    private static final int PARALLEL_CONNECTIONS = 4;
+
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private final List<Object[]> tableRows = new ArrayList<>();
+    private final Map<String, List<Object[]>> columnRows = new LinkedHashMap<>();
+    private final Map<String, List<Object[]>> primaryKeyRows = new LinkedHashMap<>();
+    private final Map<String, List<Object[]>> foreignKeyRows = new LinkedHashMap<>();
+
+    @Test
+    void discoveryStrategies() throws SQLException {
+        Connection connection = syntheticConnection();
+
+        roundTrips.set(0);
+        long start = System.nanoTime();
+        List<Map<String, Object>> perTable = discoverPerTable(connection.getMetaData());
+        long perTableMs = (System.nanoTime() - start) / 1_000_000;
+        int perTableRoundTrips = roundTrips.get();
+
+        roundTrips.set(0);
+        start = System.nanoTime();
+        List<Map<String, Object>> bulk = new SchemaMetadataReader().readTables(
+                connection, DatabaseType.MYSQL, DATABASE, SchemaFilter.NONE);
+        long bulkMs = (System.nanoTime() - start) / 1_000_000;
+        int bulkRoundTrips = roundTrips.get();
+
+        javax.sql.DataSource pool = proxy(javax.sql.DataSource.class, (method, args) -> switch (method) {
+            case "getConnection" -> connection;
+            default -> throw new UnsupportedOperationException(method);
+        });
+        SchemaDiscoveryProgress progress = new SchemaDiscoveryProgress(UUID.randomUUID());
+
+        roundTrips.set(0);
+        start = System.nanoTime();
+        List<Map<String, Object>> parallel = new SchemaMetadataReader().readTables(
+                pool, DatabaseType.MYSQL, DATABASE, SchemaFilter.NONE, PARALLEL_CONNECTIONS, 0, progress);
+        long parallelMs = (System.nanoTime() - start) / 1_000_000;
+        int parallelRoundTrips = roundTrips.get();
+
+        System.out.printf("Schema discovery benchmark (%d tables, %d columns each)%n", TABLES, COLUMNS_PER_TABLE);
+        System.out.printf("  Per-table: %,7d ms  %,6d round trips%n", perTableMs, perTableRoundTrips);
+        System.out.printf("  Bulk     : %,7d ms  %,6d round trips%n", bulkMs, bulkRoundTrips);
+        System.out.printf("  Parallel : %,7d ms  %,6d round trips on %d connections%n",
+                parallelMs, parallelRoundTrips, PARALLEL_CONNECTIONS);
+
+        assertEquals(perTable.size(), bulk.size());
+        for (int i = 0; i < perTable.size(); i++) {
+            assertEquals(perTable.get(i).get("columns"), bulk.get(i).get("columns"));
+            assertEquals(perTable.get(i).get("primaryKeys"), bulk.get(i).get("primaryKeys"));
+            assertEquals(perTable.get(i).get("foreignKeys"), bulk.get(i).get("foreignKeys"));
+        }
+        assertTrue(bulkRoundTrips < 10, "Bulk discovery should use a constant number of round trips");
+        assertEquals(bulk, parallel, "Parallel discovery should merge to the same result as sequential");
+        assertEquals(100, progress.getPercentComplete());
+    }
+
+    /**
+     * The previous discovery strategy: three metadata calls per table
+     */
+    private List<Map<String, Object>> discoverPerTable(DatabaseMetaData metaData) throws SQLException {
+        List<Map<String, Object>> tables = new ArrayList<>();
+
+        try (ResultSet tablesResultSet = metaData.getTables(DATABASE, null, "%", new String[]{"TABLE"})) {
+            while (tablesResultSet.next()) {
+                String tableName = tablesResultSet.getString("TABLE_NAME");
+
+                List<Map<String, Object>> columns = new ArrayList<>();
+                try (ResultSet rs = metaData.getColumns(DATABASE, null, tableName, "%")) {
+                    while (rs.next()) {
+                        Map<String, Object> column = new HashMap<>();
+                        column.put("name", rs.getString("COLUMN_NAME"));
+                        column.put("type", rs.getString("TYPE_NAME"));
+                        column.put("size", rs.getInt("COLUMN_SIZE"));
+                        column.put("nullable", rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable);
+                        column.put("defaultValue", rs.getString("COLUMN_DEF"));
+                        columns.add(column);
+                    }
+                }
+
+                List<String> primaryKeys = new ArrayList<>();
+                try (ResultSet rs = metaData.getPrimaryKeys(DATABASE, null, tableName)) {
+                    while (rs.next()) {
+                        primaryKeys.add(rs.getString("COLUMN_NAME"));
+                    }
+                }
+
+                List<Map<String, Object>> foreignKeys = new ArrayList<>();
+                try (ResultSet rs = metaData.getImportedKeys(DATABASE, null, tableName)) {
+                    while (rs.next()) {
+                        Map<String, Object> fk = new HashMap<>();
+                        fk.put("columnName", rs.getString("FKCOLUMN_NAME"));
+                        fk.put("referencedTable", rs.getString("PKTABLE_NAME"));
+                        fk.put("referencedColumn", rs.getString("PKCOLUMN_NAME"));
+                        fk.put("constraintName", rs.getString("FK_NAME"));
+                        fk.put("keySequence", rs.getInt("KEY_SEQ"));
+                        foreignKeys.add(fk);
+                    }
+                }
+
+                Map<String, Object> table = new HashMap<>();
+                table.put("name", tableName);
+                table.put("columns", columns);
+                table.put("primaryKeys", primaryKeys);
+                table.put("foreignKeys", foreignKeys);
+                tables.add(table);
+            }
+        }
+
+        return tables;
+    }
+
+    // ---- Synthetic catalog -------------------------------------------------------------
+
+    SchemaDiscoveryBenchmark() {
+        for (int t = 0; t < TABLES; t++) {
+            // Spread names over prefixes so parallel discovery has several column partitions
+            String table = String.format("%c_table_%05d", (char) ('a' + t % 26), t);
+            tableRows.add(new Object[]{DATABASE, null, table, "TABLE"});
+
+            List<Object[]> columns = new ArrayList<>();
+            for (int c = 0; c < COLUMNS_PER_TABLE; c++) {
+                String name = c == 0 ? "id" : c == 1 ? "parent_id" : "col_" + c;
+                columns.add(new Object[]{DATABASE, null, table, name, c < 2 ? "BIGINT" : "VARCHAR",
+                        c < 2 ? 19 : 255, c == 0 ? DatabaseMetaData.columnNoNulls : DatabaseMetaData.columnNullable,
+                        null});
+            }
+            columnRows.put(table, columns);
+
+            primaryKeyRows.put(table, List.<Object[]>of(new Object[]{DATABASE, table, "id"}));
+            foreignKeyRows.put(table, t == 0
+                    ? List.of()
+                    : List.<Object[]>of(new Object[]{DATABASE, table, "parent_id", tableRows.get(t - 1)[2], "id",
+                            "fk_" + table + "_parent", 1}));
+        }
+    }
+
+    private static List<Object[]> all(Map<String, List<Object[]>> rowsByTable) {
+        List<Object[]> rows = new ArrayList<>();
+        rowsByTable.values().forEach(rows::addAll);
+        return rows;
+    }
+
+    /**
+     * Supports the exact names and escaped-prefix patterns discovery uses
+     */
+    private List<Object[]> matchColumns(String tableNamePattern) {
+        if (!tableNamePattern.endsWith("%")) {
+            return columnRows.get(tableNamePattern);
+        }
+
+        String prefix = tableNamePattern.substring(0, tableNamePattern.length() - 1).replace("\\", "");
+        List<Object[]> rows = new ArrayList<>();
+        columnRows.forEach((table, columns) -> {
+            if (table.startsWith(prefix)) {
+                rows.addAll(columns);
+            }
+        });
+        return rows;
+    }
+
+    private Connection syntheticConnection() {
+        String[] tableLabels = {"TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "TABLE_TYPE"};
+        String[] columnLabels = {"TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "TYPE_NAME",
+                "COLUMN_SIZE", "NULLABLE", "COLUMN_DEF"};
+        String[] pkLabels = {"TABLE_CAT", "TABLE_NAME", "COLUMN_NAME"};
+        String[] fkLabels = {"FKTABLE_CAT", "FKTABLE_NAME", "FKCOLUMN_NAME", "PKTABLE_NAME", "PKCOLUMN_NAME",
+                "FK_NAME", "KEY_SEQ"};
+
+        DatabaseMetaData metaData = proxy(DatabaseMetaData.class, (method, args) -> switch (method) {
+            case "getTables" -> resultSet(tableLabels, tableRows);
+            case "getColumns" -> resultSet(columnLabels, matchColumns((String) args[2]));
+            case "getPrimaryKeys" -> resultSet(pkLabels, primaryKeyRows.get((String) args[2]));
+            case "getImportedKeys" -> resultSet(fkLabels, foreignKeyRows.get((String) args[2]));
+            case "getUserName" -> DATABASE;
+            case "getSearchStringEscape" -> "\\";
+            default -> throw new UnsupportedOperationException(method);
+        });
+
+        return proxy(Connection.class, (method, args) -> switch (method) {
+            case "getMetaData" -> metaData;
+            case "prepareStatement" -> catalogQuery((String) args[0], pkLabels, fkLabels);
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private PreparedStatement catalogQuery(String sql, String[] pkLabels, String[] fkLabels) {
+        return proxy(PreparedStatement.class, (method, args) -> switch (method) {
+            case "executeQuery" -> {
+                if (sql.equals(SchemaMetadataReader.MYSQL_PRIMARY_KEYS)) {
+                    yield resultSet(pkLabels, all(primaryKeyRows));
+                }
+                if (sql.equals(SchemaMetadataReader.MYSQL_FOREIGN_KEYS)) {
+                    yield resultSet(fkLabels, all(foreignKeyRows));
+                }
+                throw new SQLException("Unexpected catalog query");
+            }
+            case "setString", "close" -> null;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    /**
+     * A result set costs one simulated round trip plus transfer time when it is produced
+     */
+    private ResultSet resultSet(String[] labels, List<Object[]> rows) {
+        roundTrips.incrementAndGet();
+        LockSupport.parkNanos(ROUND_TRIP_NANOS + rows.size() * ROW_NANOS);
+
+        int[] cursor = {-1};
+        return proxy(ResultSet.class, (method, args) -> {
+            switch (method) {
+                case "next":
+                    return ++cursor[0] < rows.size();
+                case "close":
+                    return null;
+                case "getString":
+                case "getInt": {
+                    int index = args[0] instanceof Integer i ? i - 1 : Arrays.asList(labels).indexOf(args[0]);
+                    Object value = index >= 0 ? rows.get(cursor[0])[index] : null;
+                    if (method.equals("getInt")) {
+                        return value == null ? 0 : ((Number) value).intValue();
+                    }
+                    return value == null ? null : value.toString();
+                }
+                default:
+                    throw new UnsupportedOperationException(method);
+            }
+        });
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (p, method, args) -> handler.handle(method.getName(), args));
+    }
+}
@@ -0,0 +1,128 @@
+package com.querybuilder.backend.export.writer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querybuilder.backend.query.dto.QueryExecutionResponse;
+import com.querybuilder.backend.shared.config.JacksonConfig;
+import com.querybuilder.backend.shared.dto.ApiResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares serialization time and payload size of the JSON execute response against
+ * the Arrow IPC stream for the same 100k-row result. Run with ./gradlew benchmark
+ */
+@Tag("benchmark")
+class ResultFormatBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    private final List<ResultColumn> columns = List.of(
+            new ResultColumn("id", Types.BIGINT, "BIGINT", 19, 0, false),
+            new ResultColumn("customer_id", Types.INTEGER, "INT", 10, 0, false),
+            new ResultColumn("status", Types.VARCHAR, "VARCHAR", 20, 0, false),
+            new ResultColumn("amount", Types.DECIMAL, "DECIMAL", 12, 2, true),
+            new ResultColumn("discount", Types.DOUBLE, "DOUBLE", 22, 0, true),
+            new ResultColumn("paid", Types.BOOLEAN, "BOOLEAN", 1, 0, false),
+            new ResultColumn("created_at", Types.TIMESTAMP, "DATETIME", 19, 0, false)
+    );
+
+    @Test
+    void arrowVersusJson() throws IOException {
+        List<Object[]> rows = generateRows();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            writeJson(rows);
+            writeArrow(rows);
+        }
+
+        long jsonNanos = 0;
+        long arrowNanos = 0;
+        int jsonBytes = 0;
+        int arrowBytes = 0;
+
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            jsonBytes = writeJson(rows);
+            jsonNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            arrowBytes = writeArrow(rows);
+            arrowNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("Result format benchmark (%d rows, avg of %d rounds)%n", ROWS, MEASURED_ROUNDS);
+        System.out.printf("  JSON : %8.1f ms  %,12d bytes%n", jsonNanos / 1e6 / MEASURED_ROUNDS, jsonBytes);
+        System.out.printf("  Arrow: %8.1f ms  %,12d bytes%n", arrowNanos / 1e6 / MEASURED_ROUNDS, arrowBytes);
+
+        assertTrue(arrowBytes < jsonBytes, "Arrow stream should be smaller than the JSON response");
+    }
+
+    /**
+     * Same shape the execute endpoint produces: ApiResponse wrapping row maps keyed by column name
+     */
+    private int writeJson(List<Object[]> rows) throws IOException {
+        List<Map<String, Object>> rowMaps = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                map.put(columns.get(i).getName(), row[i]);
+            }
+            rowMaps.add(map);
+        }
+
+        QueryExecutionResponse response = QueryExecutionResponse.builder()
+                .rows(rowMaps)
+                .rowsReturned(rowMaps.size())
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        objectMapper.writeValue(out, ApiResponse.success("Query executed successfully", response));
+        return out.size();
+    }
+
+    private int writeArrow(List<Object[]> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ArrowResultWriter writer = new ArrowResultWriter(out)) {
+            writer.writeHeader(columns);
+            for (Object[] row : rows) {
+                writer.writeRow(row);
+            }
+        }
+        return out.size();
+    }
+
+    private List<Object[]> generateRows() {
+        String[] statuses = {"PENDING", "SHIPPED", "DELIVERED", "CANCELLED"};
+        long baseTime = Timestamp.valueOf("2024-01-01 00:00:00").getTime();
+
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{
+                    (long) i,
+                    i % 5_000,
+                    statuses[i % statuses.length],
+                    i % 10 == 0 ? null : BigDecimal.valueOf(i % 100_000, 2),
+                    i % 7 == 0 ? null : (i % 50) / 100.0,
+                    i % 2 == 0,
+                    new Timestamp(baseTime + i * 60_000L)
+            });
+        }
+        return rows;
+    }
+}